@@ -0,0 +1,99 @@
+package com.library.benchmark;
+
+import com.library.service.DatabaseService;
+import com.library.util.HibernateUtil;
+import org.hibernate.SessionFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+/**
+ * The embedded database the benchmarks run against: hibernate.cfg.xml with
+ * the "embedded" profile (in-memory H2), seeded once per JVM by DataSeeder.
+ *
+ * Any setting can still be overridden with -D, e.g. a file database
+ * (-Dhibernate.connection.url=jdbc:h2:./target/benchdb;MODE=Oracle
+ * -Dhibernate.hbm2ddl.auto=update) to seed a large scale once and reuse it.
+ *
+ * start(scale, idBlock) first sets the id sequences to INCREMENT BY
+ * idBlock. With increment_size_mismatch_strategy=fix Hibernate adopts the
+ * database's increment, so idBlock 1 gives one sequence call per insert
+ * and 50 the pooled allocation of the entity mappings.
+ */
+final class BenchmarkDatabase {
+
+    private static final String[] SEQUENCES = {"book_seq", "member_seq", "transaction_seq"};
+
+    private static int seededScale = -1;
+
+    private BenchmarkDatabase() {}
+
+    static synchronized DatabaseService start(int scale) {
+        if (seededScale < 0) {
+            setDefaults();
+            SessionFactory sessionFactory = HibernateUtil.getSessionFactory();
+            if (sessionFactory == null) {
+                throw new IllegalStateException("Embedded database did not start, see the log above");
+            }
+            DataSeeder.seed(sessionFactory, scale);
+            seededScale = scale;
+        } else if (seededScale != scale) {
+            // JMH forks a JVM per parameter set, so this only happens with -f 0
+            throw new IllegalStateException("Database already seeded at scale " + seededScale + ", not " + scale);
+        }
+        return DatabaseService.getInstance();
+    }
+
+    // Only before the SessionFactory is built: Hibernate reads the increments once, at startup
+    static synchronized DatabaseService start(int scale, int idBlock) {
+        if (seededScale < 0) {
+            setDefaults();
+            setSequenceIncrement(idBlock);
+        }
+        return start(scale);
+    }
+
+    private static void setDefaults() {
+        setDefault("library.env", "embedded");
+        setDefault("library.journal.enabled", "false");
+        setDefault("library.log.dir", "target/benchmark-logs");
+    }
+
+    // Plain JDBC on the URL Hibernate will use (profile file, then -D overrides)
+    private static void setSequenceIncrement(int idBlock) {
+        Properties profile = new Properties();
+        String resource = "hibernate-" + System.getProperty("library.env") + ".properties";
+        try (InputStream in = BenchmarkDatabase.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in != null) {
+                profile.load(in);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read " + resource, e);
+        }
+        try (Connection connection = DriverManager.getConnection(setting(profile, "hibernate.connection.url"),
+                setting(profile, "hibernate.connection.username"), setting(profile, "hibernate.connection.password"));
+             Statement statement = connection.createStatement()) {
+            for (String sequence : SEQUENCES) {
+                statement.execute("CREATE SEQUENCE IF NOT EXISTS " + sequence + " INCREMENT BY " + idBlock);
+                statement.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + idBlock);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot set the id sequences to INCREMENT BY " + idBlock, e);
+        }
+    }
+
+    private static String setting(Properties profile, String name) {
+        return System.getProperty(name, profile.getProperty(name));
+    }
+
+    private static void setDefault(String name, String value) {
+        if (System.getProperty(name) == null) {
+            System.setProperty(name, value);
+        }
+    }
+}
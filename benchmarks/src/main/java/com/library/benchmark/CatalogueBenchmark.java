@@ -0,0 +1,87 @@
+package com.library.benchmark;
+
+import com.library.model.Book;
+import com.library.model.Member;
+import com.library.service.DatabaseService;
+import com.library.service.Page;
+import com.library.service.PageRequest;
+import com.library.service.PageSort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catalogue operations: adding a book, keyword search and the first page
+ * of the book and member lists.
+ *
+ * addBook grows the catalogue as it runs; its cost includes the pooled id
+ * allocation (one sequence call per 50 inserts). IdAllocationBenchmark
+ * compares that with one sequence call per insert.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class CatalogueBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    // Books in the seeded catalogue (loans and members scale with it, see DataSeeder)
+    @Param("10000")
+    public int scale;
+
+    private DatabaseService db;
+    private final AtomicLong added = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        db = BenchmarkDatabase.start(scale);
+        // Builds the in-memory search indexes outside the measurement
+        db.searchBooks(DataSeeder.TITLE_WORDS[0]);
+        db.searchMembers(DataSeeder.randomName(ThreadLocalRandom.current()));
+    }
+
+    @Benchmark
+    public Book addBook() {
+        long n = added.incrementAndGet();
+        Book book = new Book("Benchmark Edition " + n, "Bench Author", "ADD" + n, "Benchmark", 1);
+        db.addBook(book);
+        return book;
+    }
+
+    @Benchmark
+    public List<Book> searchBooks() {
+        return db.searchBooks(DataSeeder.randomWord(ThreadLocalRandom.current()));
+    }
+
+    @Benchmark
+    public List<Member> searchMembers() {
+        return db.searchMembers(DataSeeder.randomName(ThreadLocalRandom.current()));
+    }
+
+    @Benchmark
+    public Page<Book> booksPageByTitle() {
+        return db.getBooksPage(PageRequest.first(PageSort.TITLE, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public Page<Member> membersPage() {
+        return db.getMembersPage(PageRequest.first(PageSort.ID, PAGE_SIZE));
+    }
+}
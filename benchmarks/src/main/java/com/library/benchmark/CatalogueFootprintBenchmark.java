@@ -0,0 +1,102 @@
+package com.library.benchmark;
+
+import com.library.model.Book;
+import com.library.service.CompactCatalogue;
+import com.library.service.DatabaseService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap held by the whole catalogue as a list of Book entities (what
+ * getAllBooks returns) versus the same books in a CompactCatalogue.
+ *
+ * Each call loads the catalogue and keeps it; the heap it retains is the
+ * used heap after a full GC, minus the same before the call. It is
+ * reported in the secondary results retainedBytes and bytesPerBook; the
+ * time is incidental. One measured iteration, as JMH sums these counters
+ * across iterations:
+ *   java -jar target/benchmarks.jar CatalogueFootprint -p scale=100000
+ *
+ * The in-memory H2 hands out the String objects it stores itself, so the
+ * entities' strings are not counted: the entity figure is a lower bound.
+ * Against Oracle every entity has strings of its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseSerialGC")
+@Warmup(iterations = 1)
+@Measurement(iterations = 1)
+public class CatalogueFootprintBenchmark {
+
+    // Books in the seeded catalogue (see DataSeeder)
+    @Param("10000")
+    public int scale;
+
+    private DatabaseService db;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+        public long retainedBytes;
+        public long bytesPerBook;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            retainedBytes = 0;
+            bytesPerBook = 0;
+        }
+
+        void record(long retained, int books) {
+            retainedBytes = retained;
+            bytesPerBook = books > 0 ? retained / books : 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        db = BenchmarkDatabase.start(scale);
+        // Fills the second-level cache first, so it is in the baseline of both benchmarks
+        db.getAllBooks();
+    }
+
+    @Benchmark
+    public Object entityList(Footprint footprint) {
+        long before = usedHeap();
+        List<Book> books = db.getAllBooks();
+        footprint.record(usedHeap() - before, books.size());
+        return books;
+    }
+
+    @Benchmark
+    public Object compactCatalogue(Footprint footprint) {
+        long before = usedHeap();
+        CompactCatalogue catalogue = new CompactCatalogue();
+        // The entities are dropped once copied: only what the catalogue keeps is counted
+        db.getAllBooks().forEach(catalogue::put);
+        footprint.record(usedHeap() - before, catalogue.size());
+        return catalogue;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
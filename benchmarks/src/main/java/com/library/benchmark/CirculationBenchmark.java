@@ -0,0 +1,126 @@
+package com.library.benchmark;
+
+import com.library.model.Transaction;
+import com.library.service.BatchItemResult;
+import com.library.service.DatabaseService;
+import com.library.service.LoanRequest;
+import com.library.service.Page;
+import com.library.service.PageRequest;
+import com.library.service.PageSort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Issue and return, and the loan list queries.
+ *
+ * issueBook walks the books in id order so no book runs out of copies;
+ * the loans it makes are returned in one batch after each iteration.
+ * returnBook takes loans from a pool that is topped up, REFILL_SIZE at a
+ * time, with one batch issue when it runs dry; that refill is part of the
+ * measured time but is spread over REFILL_SIZE returns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class CirculationBenchmark {
+
+    private static final int REFILL_SIZE = 1000;
+    private static final int PAGE_SIZE = 100;
+
+    @Param("10000")
+    public int scale;
+
+    private DatabaseService db;
+    private int members;
+    private final AtomicLong nextLoan = new AtomicLong();
+    private final Queue<Long> issued = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> returnable = new ConcurrentLinkedQueue<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        db = BenchmarkDatabase.start(scale);
+        members = DataSeeder.memberCount(scale);
+    }
+
+    @TearDown(Level.Iteration)
+    public void returnIssued() {
+        List<Long> ids = new ArrayList<>();
+        for (Long id; (id = issued.poll()) != null; ) {
+            ids.add(id);
+        }
+        if (!ids.isEmpty()) {
+            db.returnBooks(ids);
+        }
+    }
+
+    @Benchmark
+    public Transaction issueBook() {
+        long n = nextLoan.getAndIncrement();
+        Transaction transaction = db.issueBook(n % scale + 1, n % members + 1);
+        issued.add(transaction.getTransactionId());
+        return transaction;
+    }
+
+    @Benchmark
+    public void returnBook() {
+        Long id = returnable.poll();
+        while (id == null) {
+            refill();
+            id = returnable.poll();
+        }
+        db.returnBook(id);
+    }
+
+    private synchronized void refill() {
+        if (!returnable.isEmpty()) {
+            return;
+        }
+        List<LoanRequest> requests = new ArrayList<>(REFILL_SIZE);
+        for (int i = 0; i < REFILL_SIZE; i++) {
+            long n = nextLoan.getAndIncrement();
+            requests.add(new LoanRequest(n % scale + 1, n % members + 1));
+        }
+        for (BatchItemResult result : db.issueBooks(requests)) {
+            if (result.success()) {
+                returnable.add(result.transaction().getTransactionId());
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Transaction> activeTransactions() {
+        return db.getActiveTransactions();
+    }
+
+    @Benchmark
+    public List<Transaction> transactionsByMember() {
+        return db.getTransactionsByMember(1L + ThreadLocalRandom.current().nextInt(members));
+    }
+
+    @Benchmark
+    public Page<Transaction> transactionsPageByDate() {
+        return db.getTransactionsPage(PageRequest.first(PageSort.DATE, PAGE_SIZE));
+    }
+}
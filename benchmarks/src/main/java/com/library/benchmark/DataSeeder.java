@@ -0,0 +1,198 @@
+package com.library.benchmark;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Fills the embedded database with synthetic data for a given scale:
+ * scale books, scale / 10 members (at least 100) and scale loans, of
+ * which about one in five is still out.
+ *
+ * Rows are written with plain JDBC batches and fixed ids (books, members
+ * and loans are numbered from 1), which is far faster than going through
+ * DatabaseService at millions of rows. The id sequences are then moved
+ * past the seeded ids so the application's own inserts don't collide.
+ * The data is generated from a fixed seed, so every run gets the same rows.
+ */
+final class DataSeeder {
+
+    static final String[] TITLE_WORDS = {
+            "java", "database", "history", "garden", "ocean", "modern", "systems", "river",
+            "algorithms", "design", "science", "music", "mountain", "network", "poetry", "cooking",
+            "economics", "physics", "journey", "secret", "children", "empire", "digital", "winter"
+    };
+    private static final String[] FIRST_NAMES = {
+            "Asha", "Ravi", "Meera", "John", "Priya", "David", "Kavya", "Arjun", "Sara", "Vikram"
+    };
+    private static final String[] LAST_NAMES = {
+            "Sharma", "Iyer", "Smith", "Nair", "Khan", "Patel", "Brown", "Reddy", "Das", "Menon"
+    };
+    private static final String[] CATEGORIES = {
+            "Programming", "Computer Science", "Database", "Fiction", "History", "Science", "Reference"
+    };
+
+    // Rows per JDBC batch and per commit
+    private static final int BATCH_SIZE = 1000;
+    private static final int COMMIT_INTERVAL = 50_000;
+    // At most this many seeded open loans per book, so issue benchmarks always find copies
+    private static final int MAX_OPEN_LOANS_PER_BOOK = 2;
+    private static final long DATA_SEED = 42;
+    private static final long LOAN_PLAN_SEED = 7;
+
+    private DataSeeder() {}
+
+    static int memberCount(int scale) {
+        return Math.max(100, scale / 10);
+    }
+
+    static String randomWord(Random random) {
+        return TITLE_WORDS[random.nextInt(TITLE_WORDS.length)];
+    }
+
+    static String randomName(Random random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+    }
+
+    static void seed(SessionFactory sessionFactory, int scale) {
+        try (Session session = sessionFactory.openSession()) {
+            session.doWork(connection -> seed(connection, scale));
+        }
+    }
+
+    private static void seed(Connection connection, int scale) throws SQLException {
+        long existing = count(connection, "Books");
+        if (existing >= scale) {
+            System.out.println("✅ Benchmark data already present (" + existing + " books)");
+            return;
+        }
+        if (existing > 0) {
+            throw new IllegalStateException("Database holds " + existing + " books, fewer than scale " + scale
+                    + "; use an empty database");
+        }
+
+        long started = System.nanoTime();
+        Random random = new Random(DATA_SEED);
+        int members = memberCount(scale);
+        byte[] openLoans = new byte[scale + 1];
+        LocalDate today = LocalDate.now();
+
+        String bookSql = "INSERT INTO Books (book_id, title, author, isbn, category, total_copies, available_copies, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        String memberSql = "INSERT INTO Members (member_id, name, email, phone, address, membership_date, status) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        String loanSql = "INSERT INTO Transactions (transaction_id, book_id, member_id, issue_date, due_date, "
+                + "return_date, fine_amount, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+        // Plan the loans first: a book's available copies depend on its open loans
+        Random loanPlan = new Random(LOAN_PLAN_SEED);
+        for (int id = 1; id <= scale; id++) {
+            int bookId = 1 + loanPlan.nextInt(scale);
+            if (id % 5 == 0 && openLoans[bookId] < MAX_OPEN_LOANS_PER_BOOK) {
+                openLoans[bookId]++;
+            }
+        }
+
+        try (PreparedStatement books = connection.prepareStatement(bookSql)) {
+            Timestamp createdAt = Timestamp.valueOf(today.atStartOfDay());
+            for (int id = 1; id <= scale; id++) {
+                int copies = 8 + random.nextInt(5);
+                books.setLong(1, id);
+                books.setString(2, capitalize(randomWord(random)) + " " + capitalize(randomWord(random)) + " " + id);
+                books.setString(3, randomName(random) + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+                books.setString(4, "BENCH" + id);
+                books.setString(5, CATEGORIES[random.nextInt(CATEGORIES.length)]);
+                books.setInt(6, copies);
+                books.setInt(7, copies - openLoans[id]);
+                books.setTimestamp(8, createdAt);
+                addBatch(connection, books, id);
+            }
+            books.executeBatch();
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(memberSql)) {
+            Date joined = Date.valueOf(today.minusYears(1));
+            for (int id = 1; id <= members; id++) {
+                statement.setLong(1, id);
+                statement.setString(2, randomName(random) + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+                statement.setString(3, "member" + id + "@bench.example");
+                statement.setString(4, String.valueOf(9_000_000_000L + id));
+                statement.setString(5, id + " Benchmark Road");
+                statement.setDate(6, joined);
+                statement.setString(7, "ACTIVE");
+                addBatch(connection, statement, id);
+            }
+            statement.executeBatch();
+        }
+
+        try (PreparedStatement loans = connection.prepareStatement(loanSql)) {
+            // Replays the plan: the same book for each loan, open in the same cases
+            loanPlan = new Random(LOAN_PLAN_SEED);
+            byte[] placed = new byte[scale + 1];
+            for (int id = 1; id <= scale; id++) {
+                int bookId = 1 + loanPlan.nextInt(scale);
+                boolean open = id % 5 == 0 && placed[bookId] < openLoans[bookId];
+                if (open) {
+                    placed[bookId]++;
+                }
+                LocalDate issued = today.minusDays(random.nextInt(60));
+                LocalDate due = issued.plusDays(14);
+                LocalDate returned = open ? null : issued.plusDays(random.nextInt(20));
+                long overdueDays = returned != null ? returned.toEpochDay() - due.toEpochDay() : 0;
+
+                loans.setLong(1, id);
+                loans.setLong(2, bookId);
+                loans.setLong(3, 1 + random.nextInt(members));
+                loans.setDate(4, Date.valueOf(issued));
+                loans.setDate(5, Date.valueOf(due));
+                loans.setDate(6, returned != null ? Date.valueOf(returned) : null);
+                loans.setDouble(7, overdueDays > 0 ? overdueDays * 5.0 : 0);
+                loans.setString(8, open ? "ISSUED" : "RETURNED");
+                addBatch(connection, loans, id);
+            }
+            loans.executeBatch();
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            // Past the seeded ids, with room for a pooled block below the restart value
+            statement.execute("ALTER SEQUENCE book_seq RESTART WITH " + (scale + 100));
+            statement.execute("ALTER SEQUENCE member_seq RESTART WITH " + (members + 100));
+            statement.execute("ALTER SEQUENCE transaction_seq RESTART WITH " + (scale + 100));
+        }
+        connection.commit();
+
+        System.out.println("✅ Seeded " + scale + " books, " + members + " members, " + scale + " loans in "
+                + (System.nanoTime() - started) / 1_000_000 + " ms");
+    }
+
+    private static void addBatch(Connection connection, PreparedStatement statement, int row) throws SQLException {
+        statement.addBatch();
+        if (row % BATCH_SIZE == 0) {
+            statement.executeBatch();
+        }
+        if (row % COMMIT_INTERVAL == 0) {
+            connection.commit();
+        }
+    }
+
+    private static long count(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
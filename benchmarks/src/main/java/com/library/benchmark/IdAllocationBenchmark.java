@@ -0,0 +1,119 @@
+package com.library.benchmark;
+
+import com.library.model.Book;
+import com.library.service.DatabaseService;
+import com.library.service.ImportProgress;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Insert throughput with one sequence call per id (idBlock 1, as before
+ * the pooled allocation) against ids reserved 50 at a time (idBlock 50,
+ * the entity mappings): one addBook, and a bulk load of IMPORT_SIZE books
+ * through the catalogue importer (JDBC batches, one transaction per 1000).
+ *
+ * JMH runs each idBlock in its own JVM, so the sequences are set up
+ * before that JVM's SessionFactory is built (see BenchmarkDatabase).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class IdAllocationBenchmark {
+
+    static final int IMPORT_SIZE = 1000;
+
+    @Param("10000")
+    public int scale;
+
+    // Ids per sequence call
+    @Param({"1", "50"})
+    public int idBlock;
+
+    private DatabaseService db;
+    private final AtomicLong added = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        db = BenchmarkDatabase.start(scale, idBlock);
+    }
+
+    @Benchmark
+    public Book addBook() {
+        long n = added.incrementAndGet();
+        Book book = new Book("Id Block Edition " + n, "Bench Author", "IDS" + n, "Benchmark", 1);
+        db.addBook(book);
+        return book;
+    }
+
+    @Benchmark
+    public ImportProgress importBooks(ImportFile file) throws IOException {
+        return db.importCatalogue(file.path, progress -> {});
+    }
+
+    /**
+     * A CSV of IMPORT_SIZE books with ISBNs not used before, written ahead
+     * of each call so only the import is measured.
+     */
+    @State(Scope.Thread)
+    public static class ImportFile {
+
+        // 979 prefix: the seeded and addBook ISBNs never look like these. Started from the
+        // clock so a reused file database does not already hold them (they would be refused).
+        private static final AtomicLong nextIsbn =
+                new AtomicLong(979_000_000_000L + System.currentTimeMillis() / 1000 % 100_000 * 10_000);
+
+        Path path;
+
+        @Setup(Level.Invocation)
+        public void write() throws IOException {
+            Path dir = Files.createDirectories(Path.of("target", "benchmark-import"));
+            path = Files.createTempFile(dir, "books-", ".csv");
+            try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                out.write("title,author,isbn,category,copies\n");
+                for (int i = 0; i < IMPORT_SIZE; i++) {
+                    String isbn = isbn13(nextIsbn.getAndIncrement());
+                    out.write("Imported " + isbn + ",Bench Author," + isbn + ",Benchmark,1\n");
+                }
+            }
+        }
+
+        @TearDown(Level.Invocation)
+        public void delete() throws IOException {
+            Files.deleteIfExists(path);
+            Files.deleteIfExists(Path.of(path + ".rejects.csv"));
+            Files.deleteIfExists(Path.of(path + ".checkpoint"));
+        }
+
+        // The 12 digits plus their ISBN-13 check digit
+        private static String isbn13(long digits) {
+            String body = Long.toString(digits);
+            int sum = 0;
+            for (int i = 0; i < 12; i++) {
+                sum += (body.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+            }
+            return body + (10 - sum % 10) % 10;
+        }
+    }
+}
@@ -4,16 +4,19 @@
 -- Run this script in Oracle SQL*Plus before running the application
 -- Command: sqlplus system/your_password @setup.sql
 
--- Drop existing tables (if they exist)
+-- Drop existing tables (if they exist). Each drop has its own exception
+-- block, so one that does not exist yet (e.g. on a database created by an
+-- older version of this script) does not skip the drops after it.
 BEGIN
-EXECUTE IMMEDIATE 'DROP TABLE Transactions CASCADE CONSTRAINTS';
-EXECUTE IMMEDIATE 'DROP TABLE Books CASCADE CONSTRAINTS';
-EXECUTE IMMEDIATE 'DROP TABLE Members CASCADE CONSTRAINTS';
-EXECUTE IMMEDIATE 'DROP SEQUENCE transaction_seq';
-EXECUTE IMMEDIATE 'DROP SEQUENCE book_seq';
-EXECUTE IMMEDIATE 'DROP SEQUENCE member_seq';
-EXCEPTION
-   WHEN OTHERS THEN NULL;
+   BEGIN EXECUTE IMMEDIATE 'DROP TABLE Transactions CASCADE CONSTRAINTS'; EXCEPTION WHEN OTHERS THEN NULL; END;
+   BEGIN EXECUTE IMMEDIATE 'DROP TABLE Books CASCADE CONSTRAINTS'; EXCEPTION WHEN OTHERS THEN NULL; END;
+   BEGIN EXECUTE IMMEDIATE 'DROP TABLE Members CASCADE CONSTRAINTS'; EXCEPTION WHEN OTHERS THEN NULL; END;
+   BEGIN EXECUTE IMMEDIATE 'DROP SEQUENCE transaction_seq'; EXCEPTION WHEN OTHERS THEN NULL; END;
+   BEGIN EXECUTE IMMEDIATE 'DROP SEQUENCE book_seq'; EXCEPTION WHEN OTHERS THEN NULL; END;
+   BEGIN EXECUTE IMMEDIATE 'DROP SEQUENCE member_seq'; EXCEPTION WHEN OTHERS THEN NULL; END;
+   BEGIN EXECUTE IMMEDIATE 'DROP TABLE schema_migrations'; EXCEPTION WHEN OTHERS THEN NULL; END;
+   BEGIN EXECUTE IMMEDIATE 'DROP TABLE Reservations CASCADE CONSTRAINTS'; EXCEPTION WHEN OTHERS THEN NULL; END;
+   BEGIN EXECUTE IMMEDIATE 'DROP SEQUENCE reservation_seq'; EXCEPTION WHEN OTHERS THEN NULL; END;
 END;
 /
 
@@ -54,10 +57,43 @@ CREATE TABLE Transactions (
                               CONSTRAINT fk_member FOREIGN KEY (member_id) REFERENCES Members(member_id) ON DELETE CASCADE
 );
 
--- Create Sequences
-CREATE SEQUENCE book_seq START WITH 1 INCREMENT BY 1;
-CREATE SEQUENCE member_seq START WITH 1 INCREMENT BY 1;
-CREATE SEQUENCE transaction_seq START WITH 1 INCREMENT BY 1;
+-- Create Reservations Table (hold queues)
+CREATE TABLE Reservations (
+                              reservation_id NUMBER PRIMARY KEY,
+                              book_id NUMBER NOT NULL,
+                              member_id NUMBER NOT NULL,
+                              reserved_at TIMESTAMP NOT NULL,
+                              ready_date DATE,
+                              expiry_date DATE,
+                              status VARCHAR2(20) DEFAULT 'WAITING',
+                              CONSTRAINT fk_res_book FOREIGN KEY (book_id) REFERENCES Books(book_id) ON DELETE CASCADE,
+                              CONSTRAINT fk_res_member FOREIGN KEY (member_id) REFERENCES Members(member_id) ON DELETE CASCADE
+);
+
+-- Create Indexes (schema versions 2 to 4, shared with the application's migrations)
+@@../src/main/resources/db/migration/oracle/V2__circulation_indexes.sql
+@@../src/main/resources/db/migration/oracle/V3__transaction_date_indexes.sql
+@@../src/main/resources/db/migration/oracle/V4__reservation_indexes.sql
+
+-- Schema version history (see SchemaMigrator); this script creates version 4
+CREATE TABLE schema_migrations (
+                                   version INTEGER PRIMARY KEY,
+                                   description VARCHAR(200) NOT NULL,
+                                   installed_on TIMESTAMP NOT NULL,
+                                   execution_ms INTEGER
+);
+INSERT INTO schema_migrations (version, description, installed_on, execution_ms)
+VALUES (2, 'circulation indexes', CURRENT_TIMESTAMP, 0);
+INSERT INTO schema_migrations (version, description, installed_on, execution_ms)
+VALUES (3, 'transaction date indexes', CURRENT_TIMESTAMP, 0);
+INSERT INTO schema_migrations (version, description, installed_on, execution_ms)
+VALUES (4, 'reservation indexes', CURRENT_TIMESTAMP, 0);
+
+-- Create Sequences (INCREMENT BY must match allocationSize on the entities)
+CREATE SEQUENCE book_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE member_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE transaction_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE reservation_seq START WITH 1 INCREMENT BY 50;
 
 -- Insert Sample Data
 INSERT INTO Books (book_id, title, author, isbn, category, total_copies, available_copies)
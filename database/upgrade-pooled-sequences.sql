@@ -0,0 +1,7 @@
+-- Upgrade an existing schema to pooled id allocation.
+-- The entities reserve ids in blocks of 50, so the sequences must advance by 50.
+-- Rows already present keep their ids; new blocks start after the current value.
+
+ALTER SEQUENCE book_seq INCREMENT BY 50;
+ALTER SEQUENCE member_seq INCREMENT BY 50;
+ALTER SEQUENCE transaction_seq INCREMENT BY 50;
@@ -16,6 +16,49 @@ public class Main extends Application {
 
     private Stage primaryStage;
 
+    // Rows fetched per page / kept in memory per table
+    private static final int PAGE_SIZE = 100;
+    private static final int MAX_TABLE_ROWS = 500;
+
+    // Background database calls started by the current screen
+    private final ScreenTasks screenTasks = new ScreenTasks();
+    private final com.library.service.AsyncDatabaseService db = com.library.service.AsyncDatabaseService.getInstance();
+
+    @Override
+    public void init() {
+        // Serve reads from the last snapshot file straight away; the database catches up in the background
+        if (!com.library.service.SnapshotJob.getInstance().restore()) {
+            // Runs on the launcher thread before the UI shows: build the SessionFactory once, up front.
+            // With the database down the UI still comes up; the catalogue then loads on first use.
+            if (com.library.util.HibernateUtil.bootstrap()) {
+                // Catalogue, book search and copies on the shelf in memory, so screens never wait on the database for them
+                com.library.service.DatabaseService.getInstance().loadCatalogue();
+            }
+        }
+        // Accrue fines on overdue loans now and periodically
+        com.library.service.FineEngine.getInstance().start();
+        // Expire uncollected holds now and periodically
+        com.library.service.HoldExpiryJob.getInstance().start();
+        // Circulation figures for the dashboard, kept up to date from issue / return events
+        com.library.service.CirculationStatistics.getInstance().start();
+        // Periodic operation metrics report (logs/metrics.txt); also on JMX
+        com.library.metrics.OperationMetrics.getInstance().start();
+        // Reconcile a restored snapshot with the database, then write a new one periodically and on exit
+        com.library.service.SnapshotJob.getInstance().start();
+    }
+
+    @Override
+    public void stop() {
+        screenTasks.cancelAll();
+        com.library.service.FineEngine.getInstance().stop();
+        com.library.service.HoldExpiryJob.getInstance().stop();
+        com.library.service.SnapshotJob.getInstance().stop();
+        db.shutdown();
+        com.library.metrics.OperationMetrics.getInstance().shutdown();
+        com.library.util.LibraryLogger.getInstance().shutdown();
+        com.library.util.HibernateUtil.shutdown();
+    }
+
     @Override
     public void start(Stage primaryStage) {
         this.primaryStage = primaryStage;
@@ -26,6 +69,7 @@ public class Main extends Application {
     }
 
     private void showMainMenu() {
+        screenTasks.cancelAll();
         VBox root = new VBox(15);
         root.setPadding(new Insets(40));
         root.setAlignment(Pos.CENTER);
@@ -42,6 +86,8 @@ public class Main extends Application {
         Button issueBtn = new Button("Issue Book");
         Button returnBtn = new Button("Return Book");
         Button viewTransactionsBtn = new Button("View Transactions");
+        Button holdsBtn = new Button("Holds");
+        Button dashboardBtn = new Button("Dashboard");
 
         // Simple, clean button style
         String buttonStyle = "-fx-font-size: 14px; -fx-min-width: 200px; -fx-min-height: 40px; " +
@@ -52,9 +98,11 @@ public class Main extends Application {
         issueBtn.setStyle(buttonStyle);
         returnBtn.setStyle(buttonStyle);
         viewTransactionsBtn.setStyle(buttonStyle);
+        holdsBtn.setStyle(buttonStyle);
+        dashboardBtn.setStyle(buttonStyle);
 
         // Hover effect
-        for (Button btn : new Button[]{booksBtn, membersBtn, issueBtn, returnBtn, viewTransactionsBtn}) {
+        for (Button btn : new Button[]{booksBtn, membersBtn, issueBtn, returnBtn, holdsBtn, viewTransactionsBtn, dashboardBtn}) {
             btn.setOnMouseEntered(e -> btn.setStyle(buttonStyle + "-fx-background-color: #f5f5f5;"));
             btn.setOnMouseExited(e -> btn.setStyle(buttonStyle));
         }
@@ -65,15 +113,18 @@ public class Main extends Application {
         issueBtn.setOnAction(e -> showIssueBook());
         returnBtn.setOnAction(e -> showReturnBook());
         viewTransactionsBtn.setOnAction(e -> showTransactions());
+        holdsBtn.setOnAction(e -> showHolds());
+        dashboardBtn.setOnAction(e -> showDashboard());
 
-        root.getChildren().addAll(titleLabel, separator, booksBtn, membersBtn, issueBtn, returnBtn, viewTransactionsBtn);
+        root.getChildren().addAll(titleLabel, separator, booksBtn, membersBtn, issueBtn, returnBtn, holdsBtn, viewTransactionsBtn, dashboardBtn);
 
-        Scene scene = new Scene(root, 700, 550);
+        Scene scene = new Scene(root, 700, 620);
         primaryStage.setScene(scene);
         primaryStage.show();
     }
 
     private void showBookManagement() {
+        screenTasks.cancelAll();
         BorderPane root = new BorderPane();
         root.setPadding(new Insets(10));
 
@@ -116,15 +167,38 @@ public class Main extends Application {
 
         table.getColumns().addAll(idCol, titleCol, authorCol, isbnCol, categoryCol, availableCol);
 
-        // Load data from database
-        try {
-            javafx.collections.ObservableList<Book> books = javafx.collections.FXCollections.observableArrayList(
-                    com.library.service.DatabaseService.getInstance().getAllBooks()
-            );
-            table.setItems(books);
-        } catch (Exception e) {
-            showAlert("Error", "Failed to load books: " + e.getMessage());
-        }
+        // Load data from database, a page at a time as the user scrolls
+        PagedTableLoader<Book> loader = new PagedTableLoader<>(table, screenTasks, db::getBooksPage,
+                com.library.service.PageSort::cursorOf,
+                ex -> showAlert("Error", "Failed to load books: " + ex.getMessage()),
+                PAGE_SIZE, MAX_TABLE_ROWS);
+        topBar.getChildren().add(sortChooser(loader, "Title"));
+        loader.reload();
+
+        // Typeahead search over the in-memory catalogue: waits for a pause in typing, newer input cancels the pending lookup
+        TextField searchField = new TextField();
+        searchField.setPromptText("Search title, author, ISBN or category");
+        searchField.setPrefWidth(240);
+        topBar.getChildren().add(2, searchField);
+        javafx.animation.PauseTransition debounce = new javafx.animation.PauseTransition(javafx.util.Duration.millis(250));
+        java.util.concurrent.atomic.AtomicReference<java.util.concurrent.CompletableFuture<?>> pendingSearch =
+                new java.util.concurrent.atomic.AtomicReference<>();
+        debounce.setOnFinished(e -> {
+            var previous = pendingSearch.get();
+            if (previous != null) {
+                previous.cancel(true);
+            }
+            String text = searchField.getText().trim();
+            if (text.isEmpty()) {
+                loader.reload();
+                return;
+            }
+            var search = db.searchBooks(text);
+            pendingSearch.set(search);
+            screenTasks.run(search, loader::showFixed,
+                    ex -> showAlert("Error", "Search failed: " + ex.getMessage()));
+        });
+        searchField.textProperty().addListener((obs, oldText, newText) -> debounce.playFromStart());
 
         root.setCenter(table);
 
@@ -136,39 +210,47 @@ public class Main extends Application {
         Button addBtn = new Button("Add Book");
         Button refreshBtn = new Button("Refresh");
         Button deleteBtn = new Button("Delete Selected");
+        Button importBtn = new Button("Import Catalogue...");
+        Button exportBtn = exportButton(com.library.service.ExportDataset.BOOKS, "books");
 
         // Simple style without bright colors
         addBtn.setStyle("-fx-background-color: #e0e0e0; -fx-border-color: #999;");
+        importBtn.setStyle("-fx-background-color: #e0e0e0; -fx-border-color: #999;");
+        exportBtn.setStyle("-fx-background-color: #e0e0e0; -fx-border-color: #999;");
         refreshBtn.setStyle("-fx-background-color: #e0e0e0; -fx-border-color: #999;");
         deleteBtn.setStyle("-fx-background-color: #e0e0e0; -fx-border-color: #999;");
 
-        addBtn.setOnAction(e -> showAddBookDialog(table));
-        refreshBtn.setOnAction(e -> {
-            try {
-                table.setItems(javafx.collections.FXCollections.observableArrayList(
-                        com.library.service.DatabaseService.getInstance().getAllBooks()
-                ));
-            } catch (Exception ex) {
-                showAlert("Error", "Failed to refresh: " + ex.getMessage());
+        addBtn.setOnAction(e -> showAddBookDialog(loader));
+        importBtn.setOnAction(e -> {
+            javafx.stage.FileChooser chooser = new javafx.stage.FileChooser();
+            chooser.setTitle("Import Catalogue");
+            chooser.getExtensionFilters().addAll(
+                    new javafx.stage.FileChooser.ExtensionFilter("Catalogue files", "*.csv", "*.mrk"),
+                    new javafx.stage.FileChooser.ExtensionFilter("CSV", "*.csv"),
+                    new javafx.stage.FileChooser.ExtensionFilter("MARC text", "*.mrk"));
+            java.io.File file = chooser.showOpenDialog(primaryStage);
+            if (file != null) {
+                showImportDialog(file.toPath(), loader);
             }
         });
+        refreshBtn.setOnAction(e -> loader.reload());
 
         deleteBtn.setOnAction(e -> {
             Book selected = table.getSelectionModel().getSelectedItem();
             if (selected != null) {
-                try {
-                    com.library.service.DatabaseService.getInstance().deleteBook(selected.getBookId());
-                    table.getItems().remove(selected);
-                    showAlert("Success", "Book deleted successfully!");
-                } catch (Exception ex) {
-                    showAlert("Error", "Failed to delete: " + ex.getMessage());
-                }
+                screenTasks.write(db.deleteBook(selected.getBookId()),
+                        done -> {
+                            table.getItems().remove(selected);
+                            showAlert("Success", "Book deleted successfully!");
+                        },
+                        ex -> showAlert("Error", "Failed to delete: " + ex.getMessage()),
+                        deleteBtn);
             } else {
                 showAlert("Warning", "Please select a book to delete");
             }
         });
 
-        bottomBar.getChildren().addAll(addBtn, refreshBtn, deleteBtn);
+        bottomBar.getChildren().addAll(addBtn, importBtn, exportBtn, refreshBtn, deleteBtn);
         root.setBottom(bottomBar);
 
         Scene scene = new Scene(root, 900, 600);
@@ -176,6 +258,7 @@ public class Main extends Application {
     }
 
     private void showMemberManagement() {
+        screenTasks.cancelAll();
         BorderPane root = new BorderPane();
         root.setPadding(new Insets(10));
 
@@ -219,15 +302,37 @@ public class Main extends Application {
         table.getColumns().addAll(idCol, nameCol, emailCol, phoneCol, addressCol, statusCol);
 
         // Load data
-        try {
-            javafx.collections.ObservableList<com.library.model.Member> members =
-                    javafx.collections.FXCollections.observableArrayList(
-                            com.library.service.DatabaseService.getInstance().getAllMembers()
-                    );
-            table.setItems(members);
-        } catch (Exception e) {
-            showAlert("Error", "Failed to load members: " + e.getMessage());
-        }
+        PagedTableLoader<com.library.model.Member> loader = new PagedTableLoader<>(table, screenTasks, db::getMembersPage,
+                com.library.service.PageSort::cursorOf,
+                ex -> showAlert("Error", "Failed to load members: " + ex.getMessage()),
+                PAGE_SIZE, MAX_TABLE_ROWS);
+        topBar.getChildren().add(sortChooser(loader, "Name"));
+        loader.reload();
+
+        // Typeahead search: waits for a pause in typing, newer input cancels the pending lookup
+        TextField searchField = new TextField();
+        searchField.setPromptText("Search name, email or phone");
+        searchField.setPrefWidth(220);
+        topBar.getChildren().add(2, searchField);
+        javafx.animation.PauseTransition debounce = new javafx.animation.PauseTransition(javafx.util.Duration.millis(250));
+        java.util.concurrent.atomic.AtomicReference<java.util.concurrent.CompletableFuture<?>> pendingSearch =
+                new java.util.concurrent.atomic.AtomicReference<>();
+        debounce.setOnFinished(e -> {
+            var previous = pendingSearch.get();
+            if (previous != null) {
+                previous.cancel(true);
+            }
+            String text = searchField.getText().trim();
+            if (text.isEmpty()) {
+                loader.reload();
+                return;
+            }
+            var search = db.searchMembers(text);
+            pendingSearch.set(search);
+            screenTasks.run(search, loader::showFixed,
+                    ex -> showAlert("Error", "Search failed: " + ex.getMessage()));
+        });
+        searchField.textProperty().addListener((obs, oldText, newText) -> debounce.playFromStart());
 
         root.setCenter(table);
 
@@ -239,39 +344,32 @@ public class Main extends Application {
         Button addBtn = new Button("Add Member");
         Button refreshBtn = new Button("Refresh");
         Button deleteBtn = new Button("Delete Selected");
+        Button exportBtn = exportButton(com.library.service.ExportDataset.MEMBERS, "members");
 
         addBtn.setStyle("-fx-background-color: #4CAF50; -fx-text-fill: white;");
         refreshBtn.setStyle("-fx-background-color: #2196F3; -fx-text-fill: white;");
         deleteBtn.setStyle("-fx-background-color: #f44336; -fx-text-fill: white;");
 
-        addBtn.setOnAction(e -> showAddMemberDialog(table));
+        addBtn.setOnAction(e -> showAddMemberDialog(loader));
 
-        refreshBtn.setOnAction(e -> {
-            try {
-                table.setItems(javafx.collections.FXCollections.observableArrayList(
-                        com.library.service.DatabaseService.getInstance().getAllMembers()
-                ));
-            } catch (Exception ex) {
-                showAlert("Error", "Failed to refresh: " + ex.getMessage());
-            }
-        });
+        refreshBtn.setOnAction(e -> loader.reload());
 
         deleteBtn.setOnAction(e -> {
             var selected = table.getSelectionModel().getSelectedItem();
             if (selected != null) {
-                try {
-                    com.library.service.DatabaseService.getInstance().deleteMember(selected.getMemberId());
-                    table.getItems().remove(selected);
-                    showAlert("Success", "Member deleted successfully!");
-                } catch (Exception ex) {
-                    showAlert("Error", "Failed to delete: " + ex.getMessage());
-                }
+                screenTasks.write(db.deleteMember(selected.getMemberId()),
+                        done -> {
+                            table.getItems().remove(selected);
+                            showAlert("Success", "Member deleted successfully!");
+                        },
+                        ex -> showAlert("Error", "Failed to delete: " + ex.getMessage()),
+                        deleteBtn);
             } else {
                 showAlert("Warning", "Please select a member to delete");
             }
         });
 
-        bottomBar.getChildren().addAll(addBtn, refreshBtn, deleteBtn);
+        bottomBar.getChildren().addAll(addBtn, refreshBtn, exportBtn, deleteBtn);
         root.setBottom(bottomBar);
 
         Scene scene = new Scene(root, 900, 600);
@@ -279,6 +377,7 @@ public class Main extends Application {
     }
 
     private void showIssueBook() {
+        screenTasks.cancelAll();
         BorderPane root = new BorderPane();
         root.setPadding(new Insets(20));
 
@@ -308,22 +407,27 @@ public class Main extends Application {
         Button issueBtn = new Button("Issue Book");
         issueBtn.setStyle("-fx-background-color: #e8e8e8; -fx-border-color: #aaa; -fx-font-size: 14px; -fx-min-width: 150px;");
 
-        // Load books and members
-        try {
-            var books = com.library.service.DatabaseService.getInstance().getAllBooks();
-            for (var book : books) {
-                if (book.getAvailableCopies() > 0) {
-                    bookCombo.getItems().add(book.getBookId() + " - " + book.getTitle() + " by " + book.getAuthor());
-                }
-            }
-
-            var members = com.library.service.DatabaseService.getInstance().getAllMembers();
-            for (var member : members) {
-                memberCombo.getItems().add(member.getMemberId() + " - " + member.getName() + " (" + member.getEmail() + ")");
-            }
-        } catch (Exception e) {
-            showAlert("Error", "Failed to load data: " + e.getMessage());
-        }
+        // Load books and members (in parallel, off the UI thread)
+        bookCombo.setPromptText("Loading...");
+        memberCombo.setPromptText("Loading...");
+        screenTasks.run(db.getAllBooks(),
+                books -> {
+                    fillBookCombo(bookCombo, books);
+                    bookCombo.setPromptText(null);
+                    // Re-filtered from the availability snapshot each time it opens: copies returned meanwhile show up
+                    bookCombo.setOnShowing(event -> fillBookCombo(bookCombo, books));
+                },
+                ex -> showAlert("Error", "Failed to load data: " + ex.getMessage()),
+                bookCombo, issueBtn);
+        screenTasks.run(db.getAllMembers(),
+                members -> {
+                    for (var member : members) {
+                        memberCombo.getItems().add(member.getMemberId() + " - " + member.getName() + " (" + member.getEmail() + ")");
+                    }
+                    memberCombo.setPromptText(null);
+                },
+                ex -> showAlert("Error", "Failed to load data: " + ex.getMessage()),
+                memberCombo);
 
         issueBtn.setOnAction(e -> {
             String selectedBook = bookCombo.getValue();
@@ -334,27 +438,22 @@ public class Main extends Application {
                 return;
             }
 
-            try {
-                // Extract IDs
-                Long bookId = Long.parseLong(selectedBook.split(" - ")[0]);
-                Long memberId = Long.parseLong(selectedMember.split(" - ")[0]);
-
-                var transaction = com.library.service.DatabaseService.getInstance().issueBook(bookId, memberId);
-
-                showAlert("Success", "Book issued successfully!\nDue Date: " + transaction.getDueDate());
-
-                // Refresh combos
-                bookCombo.getItems().clear();
-                var books = com.library.service.DatabaseService.getInstance().getAllBooks();
-                for (var book : books) {
-                    if (book.getAvailableCopies() > 0) {
-                        bookCombo.getItems().add(book.getBookId() + " - " + book.getTitle() + " by " + book.getAuthor());
-                    }
-                }
-
-            } catch (Exception ex) {
-                showAlert("Error", "Failed to issue book: " + ex.getMessage());
-            }
+            // Extract IDs
+            Long bookId = Long.parseLong(selectedBook.split(" - ")[0]);
+            Long memberId = Long.parseLong(selectedMember.split(" - ")[0]);
+
+            screenTasks.write(db.issueBook(bookId, memberId),
+                    transaction -> {
+                        showAlert("Success", "Book issued successfully!\nDue Date: " + transaction.getDueDate());
+
+                        // The snapshot already has the committed count: drop the book once the last copy is out
+                        if (db.getAvailableCopies(bookId) == 0) {
+                            bookCombo.getItems().remove(selectedBook);
+                            bookCombo.setValue(null);
+                        }
+                    },
+                    ex -> showAlert("Error", "Failed to issue book: " + ex.getMessage()),
+                    issueBtn);
         });
 
         grid.add(bookLabel, 0, 0);
@@ -373,6 +472,7 @@ public class Main extends Application {
     }
 
     private void showReturnBook() {
+        screenTasks.cancelAll();
         BorderPane root = new BorderPane();
         root.setPadding(new Insets(10));
 
@@ -388,6 +488,7 @@ public class Main extends Application {
 
         // Center: Active Transactions Table
         TableView<com.library.model.Transaction> table = new TableView<>();
+        table.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
 
         TableColumn<com.library.model.Transaction, Long> idCol = new TableColumn<>("Trans ID");
         idCol.setCellValueFactory(data -> new javafx.beans.property.SimpleLongProperty(data.getValue().getTransactionId()).asObject());
@@ -420,15 +521,7 @@ public class Main extends Application {
         table.getColumns().addAll(idCol, bookCol, memberCol, issueDateCol, dueDateCol);
 
         // Load active transactions
-        try {
-            javafx.collections.ObservableList<com.library.model.Transaction> transactions =
-                    javafx.collections.FXCollections.observableArrayList(
-                            com.library.service.DatabaseService.getInstance().getActiveTransactions()
-                    );
-            table.setItems(transactions);
-        } catch (Exception e) {
-            showAlert("Error", "Failed to load transactions: " + e.getMessage());
-        }
+        loadTable(table, db.getActiveTransactions(), "Failed to load transactions: ");
 
         root.setCenter(table);
 
@@ -437,65 +530,229 @@ public class Main extends Application {
         bottomBar.setPadding(new Insets(10));
         bottomBar.setAlignment(Pos.CENTER);
 
-        Button returnBtn = new Button("✅ Return Selected Book");
+        Button returnBtn = new Button("✅ Return Selected");
         Button refreshBtn = new Button("🔄 Refresh");
 
         returnBtn.setStyle("-fx-background-color: #e8e8e8; -fx-border-color: #aaa; -fx-font-size: 14px;");
         refreshBtn.setStyle("-fx-background-color: #2196F3; -fx-text-fill: white;");
 
         returnBtn.setOnAction(e -> {
+            var selection = java.util.List.copyOf(table.getSelectionModel().getSelectedItems());
+            if (selection.size() > 1) {
+                // Several loans: return them together in one batch
+                var ids = selection.stream().map(com.library.model.Transaction::getTransactionId).toList();
+                screenTasks.write(db.returnBooks(ids),
+                        results -> {
+                            showAlert("Batch Return", describeReturns(results));
+                            // Only the loans that were returned leave the table
+                            for (var result : results) {
+                                if (result.success()) {
+                                    table.getItems().remove(selection.get(result.index()));
+                                }
+                            }
+                        },
+                        ex -> showAlert("Error", "Failed to return books: " + ex.getMessage()),
+                        returnBtn);
+                return;
+            }
             var selected = table.getSelectionModel().getSelectedItem();
             if (selected != null) {
-                try {
-                    com.library.service.DatabaseService.getInstance().returnBook(selected.getTransactionId());
-
-                    // Get updated transaction to show fine
-                    var updatedTransactions = com.library.service.DatabaseService.getInstance().getAllTransactions();
-                    var returnedTransaction = updatedTransactions.stream()
-                            .filter(t -> t.getTransactionId().equals(selected.getTransactionId()))
-                            .findFirst()
-                            .orElse(null);
-
-                    String message = "Book returned successfully!";
-                    if (returnedTransaction != null && returnedTransaction.getFineAmount() > 0) {
-                        message += "\n\n⚠️ Fine Amount: ₹" + returnedTransaction.getFineAmount();
-                    } else {
-                        message += "\n\n✅ No fine (returned on time)";
+                // The returned loan comes back with its fine, no need to reload anything
+                screenTasks.write(db.returnBook(selected.getTransactionId()),
+                        returnedTransaction -> {
+                            String message = "Book returned successfully!";
+                            if (returnedTransaction.getFineAmount() != null && returnedTransaction.getFineAmount() > 0) {
+                                message += "\n\n⚠️ Fine Amount: ₹" + returnedTransaction.getFineAmount();
+                            } else {
+                                message += "\n\n✅ No fine (returned on time)";
+                            }
+
+                            showAlert("Success", message);
+                            table.getItems().remove(selected);
+                        },
+                        ex -> showAlert("Error", "Failed to return book: " + ex.getMessage()),
+                        returnBtn);
+            } else {
+                showAlert("Warning", "Please select a transaction to return");
+            }
+        });
+
+        refreshBtn.setOnAction(e -> loadTable(table, db.getActiveTransactions(), "Failed to refresh: "));
+
+        bottomBar.getChildren().addAll(returnBtn, refreshBtn);
+        root.setBottom(bottomBar);
+
+        Scene scene = new Scene(root, 800, 500);
+        primaryStage.setScene(scene);
+    }
+
+    // Hold queues for books with no copy on the shelf
+    private void showHolds() {
+        screenTasks.cancelAll();
+        BorderPane root = new BorderPane();
+        root.setPadding(new Insets(10));
+
+        // Top: Title and Back button
+        HBox topBar = new HBox(10);
+        topBar.setAlignment(Pos.CENTER_LEFT);
+        Button backBtn = new Button("← Back");
+        backBtn.setOnAction(e -> showMainMenu());
+        Label title = new Label("Holds");
+        title.setStyle("-fx-font-size: 20px; -fx-font-weight: bold;");
+        topBar.getChildren().addAll(backBtn, title);
+
+        // Place a hold: only books with every copy out can be held
+        ComboBox<String> bookCombo = new ComboBox<>();
+        ComboBox<String> memberCombo = new ComboBox<>();
+        bookCombo.setPrefWidth(300);
+        memberCombo.setPrefWidth(250);
+        bookCombo.setPromptText("Loading...");
+        memberCombo.setPromptText("Loading...");
+        Button placeBtn = new Button("Place Hold");
+        HBox form = new HBox(10, new Label("Book:"), bookCombo, new Label("Member:"), memberCombo, placeBtn);
+        form.setAlignment(Pos.CENTER_LEFT);
+        form.setPadding(new Insets(10, 0, 10, 0));
+        root.setTop(new VBox(topBar, form));
+
+        screenTasks.run(db.getAllBooks(),
+                books -> {
+                    for (var book : books) {
+                        if (db.getAvailableCopies(book.getBookId()) == 0) {
+                            bookCombo.getItems().add(book.getBookId() + " - " + book.getTitle() + " by " + book.getAuthor());
+                        }
+                    }
+                    bookCombo.setPromptText(bookCombo.getItems().isEmpty() ? "No books fully out" : null);
+                },
+                ex -> showAlert("Error", "Failed to load data: " + ex.getMessage()),
+                bookCombo, placeBtn);
+        screenTasks.run(db.getAllMembers(),
+                members -> {
+                    for (var member : members) {
+                        memberCombo.getItems().add(member.getMemberId() + " - " + member.getName() + " (" + member.getEmail() + ")");
                     }
+                    memberCombo.setPromptText(null);
+                },
+                ex -> showAlert("Error", "Failed to load data: " + ex.getMessage()),
+                memberCombo);
 
-                    showAlert("Success", message);
+        // Center: active holds, each book's queue in order
+        TableView<com.library.model.Reservation> table = new TableView<>();
 
-                    // Refresh table
-                    table.setItems(javafx.collections.FXCollections.observableArrayList(
-                            com.library.service.DatabaseService.getInstance().getActiveTransactions()
-                    ));
+        TableColumn<com.library.model.Reservation, Long> idCol = new TableColumn<>("Hold ID");
+        idCol.setCellValueFactory(data -> new javafx.beans.property.SimpleLongProperty(data.getValue().getReservationId()).asObject());
+        idCol.setPrefWidth(80);
+
+        TableColumn<com.library.model.Reservation, String> bookCol = new TableColumn<>("Book");
+        bookCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getBook().getTitle()));
+        bookCol.setPrefWidth(220);
 
-                } catch (Exception ex) {
-                    showAlert("Error", "Failed to return book: " + ex.getMessage());
+        TableColumn<com.library.model.Reservation, String> memberCol = new TableColumn<>("Member");
+        memberCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().getMember().getName()));
+        memberCol.setPrefWidth(150);
+
+        // "#n in line" while waiting, "Ready until <date>" once a copy is set aside
+        TableColumn<com.library.model.Reservation, String> statusCol = new TableColumn<>("Status");
+        statusCol.setCellValueFactory(data -> {
+            var hold = data.getValue();
+            if ("READY".equals(hold.getStatus())) {
+                return new javafx.beans.property.SimpleStringProperty("Ready until " + hold.getExpiryDate());
+            }
+            int position = 1;
+            for (var other : table.getItems()) {
+                if (other == hold) {
+                    break;
+                }
+                if ("WAITING".equals(other.getStatus()) && other.getBook().getBookId().equals(hold.getBook().getBookId())) {
+                    position++;
                 }
-            } else {
-                showAlert("Warning", "Please select a transaction to return");
             }
+            return new javafx.beans.property.SimpleStringProperty("#" + position + " in line");
         });
+        statusCol.setPrefWidth(160);
 
-        refreshBtn.setOnAction(e -> {
-            try {
-                table.setItems(javafx.collections.FXCollections.observableArrayList(
-                        com.library.service.DatabaseService.getInstance().getActiveTransactions()
-                ));
-            } catch (Exception ex) {
-                showAlert("Error", "Failed to refresh: " + ex.getMessage());
+        TableColumn<com.library.model.Reservation, String> reservedCol = new TableColumn<>("Placed");
+        reservedCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(
+                data.getValue().getReservedAt().toLocalDate().toString()));
+        reservedCol.setPrefWidth(100);
+
+        table.getColumns().setAll(java.util.List.of(idCol, bookCol, memberCol, statusCol, reservedCol));
+        loadTable(table, db.getActiveHolds(), "Failed to load holds: ");
+        root.setCenter(table);
+
+        placeBtn.setOnAction(e -> {
+            String selectedBook = bookCombo.getValue();
+            String selectedMember = memberCombo.getValue();
+            if (selectedBook == null || selectedMember == null) {
+                showAlert("Warning", "Please select both book and member");
+                return;
             }
+            Long bookId = Long.parseLong(selectedBook.split(" - ")[0]);
+            Long memberId = Long.parseLong(selectedMember.split(" - ")[0]);
+            screenTasks.write(db.placeHold(bookId, memberId),
+                    reservation -> {
+                        // New holds join the end of the book's queue
+                        int insertAt = table.getItems().size();
+                        for (int i = table.getItems().size() - 1; i >= 0; i--) {
+                            if (table.getItems().get(i).getBook().getBookId().equals(bookId)) {
+                                insertAt = i + 1;
+                                break;
+                            }
+                        }
+                        table.getItems().add(insertAt, reservation);
+                        showAlert("Success", "Hold placed for " + reservation.getMember().getName() + ".");
+                    },
+                    ex -> showAlert("Error", "Failed to place hold: " + ex.getMessage()),
+                    placeBtn);
         });
 
-        bottomBar.getChildren().addAll(returnBtn, refreshBtn);
+        // Bottom: Buttons
+        HBox bottomBar = new HBox(10);
+        bottomBar.setPadding(new Insets(10));
+        bottomBar.setAlignment(Pos.CENTER);
+        Button issueBtn = new Button("✅ Issue to Member");
+        Button cancelBtn = new Button("Cancel Hold");
+        Button refreshBtn = new Button("🔄 Refresh");
+        refreshBtn.setStyle("-fx-background-color: #2196F3; -fx-text-fill: white;");
+
+        // The copy set aside for a ready hold is issued to its member (the Issue screen only lists shelf copies)
+        issueBtn.setOnAction(e -> {
+            var selected = table.getSelectionModel().getSelectedItem();
+            if (selected == null || !"READY".equals(selected.getStatus())) {
+                showAlert("Warning", "Please select a hold that is ready");
+                return;
+            }
+            screenTasks.write(db.issueBook(selected.getBook().getBookId(), selected.getMember().getMemberId()),
+                    transaction -> {
+                        table.getItems().remove(selected);
+                        showAlert("Success", "Book issued successfully!\nDue Date: " + transaction.getDueDate());
+                    },
+                    ex -> showAlert("Error", "Failed to issue book: " + ex.getMessage()),
+                    issueBtn);
+        });
+
+        cancelBtn.setOnAction(e -> {
+            var selected = table.getSelectionModel().getSelectedItem();
+            if (selected == null) {
+                showAlert("Warning", "Please select a hold to cancel");
+                return;
+            }
+            // Cancelling a ready hold passes its copy on, so the queue is reloaded
+            screenTasks.write(db.cancelHold(selected.getReservationId()),
+                    done -> loadTable(table, db.getActiveHolds(), "Failed to refresh: "),
+                    ex -> showAlert("Error", "Failed to cancel hold: " + ex.getMessage()),
+                    cancelBtn);
+        });
+        refreshBtn.setOnAction(e -> loadTable(table, db.getActiveHolds(), "Failed to refresh: "));
+
+        bottomBar.getChildren().addAll(issueBtn, cancelBtn, refreshBtn);
         root.setBottom(bottomBar);
 
-        Scene scene = new Scene(root, 800, 500);
+        Scene scene = new Scene(root, 1000, 600);
         primaryStage.setScene(scene);
     }
 
     private void showTransactions() {
+        screenTasks.cancelAll();
         BorderPane root = new BorderPane();
         root.setPadding(new Insets(10));
 
@@ -550,20 +807,221 @@ public class Main extends Application {
 
         table.getColumns().addAll(idCol, bookCol, memberCol, issueCol, dueCol, returnCol, fineCol, statusCol);
 
-        try {
-            table.setItems(javafx.collections.FXCollections.observableArrayList(
-                    com.library.service.DatabaseService.getInstance().getAllTransactions()
-            ));
-        } catch (Exception e) {
-            showAlert("Error", "Failed to load transactions: " + e.getMessage());
-        }
+        PagedTableLoader<com.library.model.Transaction> loader = new PagedTableLoader<>(table, screenTasks, db::getTransactionsPage,
+                com.library.service.PageSort::cursorOf,
+                ex -> showAlert("Error", "Failed to load transactions: " + ex.getMessage()),
+                PAGE_SIZE, MAX_TABLE_ROWS);
+        topBar.getChildren().add(sortChooser(loader, "Book"));
+        loader.reload();
 
         root.setCenter(table);
 
+        // Bottom: export the full history (the table only holds a window of it)
+        HBox bottomBar = new HBox(10);
+        bottomBar.setPadding(new Insets(10));
+        bottomBar.setAlignment(Pos.CENTER);
+        bottomBar.getChildren().add(exportButton(com.library.service.ExportDataset.TRANSACTIONS, "transactions"));
+        root.setBottom(bottomBar);
+
         Scene scene = new Scene(root, 1000, 600);
         primaryStage.setScene(scene);
     }
 
+    // Circulation figures, read from CirculationStatistics' in-memory totals (no table scans)
+    private void showDashboard() {
+        screenTasks.cancelAll();
+        BorderPane root = new BorderPane();
+        root.setPadding(new Insets(10));
+
+        // Top
+        HBox topBar = new HBox(10);
+        topBar.setAlignment(Pos.CENTER_LEFT);
+        Button backBtn = new Button("← Back");
+        backBtn.setOnAction(e -> showMainMenu());
+        Label title = new Label("Dashboard");
+        title.setStyle("-fx-font-size: 20px; -fx-font-weight: bold;");
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        Button rebuildBtn = new Button("🔄 Rebuild");
+        topBar.getChildren().addAll(backBtn, title, spacer, rebuildBtn);
+        root.setTop(topBar);
+
+        var stats = com.library.service.CirculationStatistics.getInstance();
+
+        // Headline figures
+        Label summaryLabel = new Label();
+        summaryLabel.setStyle("-fx-font-size: 14px;");
+
+        // Issued / returned per day, last 30 days
+        javafx.scene.chart.CategoryAxis dayAxis = new javafx.scene.chart.CategoryAxis();
+        javafx.scene.chart.NumberAxis countAxis = new javafx.scene.chart.NumberAxis();
+        javafx.scene.chart.BarChart<String, Number> dailyChart = new javafx.scene.chart.BarChart<>(dayAxis, countAxis);
+        dailyChart.setTitle("Last 30 days");
+        dailyChart.setAnimated(false);
+        dailyChart.setPrefHeight(250);
+
+        // Most borrowed titles this month
+        TableView<com.library.service.TitleLoans> titlesTable = new TableView<>();
+        TableColumn<com.library.service.TitleLoans, String> titleCol = new TableColumn<>("Title");
+        titleCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().title()));
+        titleCol.setPrefWidth(220);
+        TableColumn<com.library.service.TitleLoans, Long> titleLoansCol = new TableColumn<>("Loans");
+        titleLoansCol.setCellValueFactory(data -> new javafx.beans.property.SimpleLongProperty(data.getValue().loans()).asObject());
+        titlesTable.getColumns().setAll(java.util.List.of(titleCol, titleLoansCol));
+
+        // Loans and fines per category
+        TableView<com.library.service.CategoryCirculation> categoryTable = new TableView<>();
+        TableColumn<com.library.service.CategoryCirculation, String> categoryCol = new TableColumn<>("Category");
+        categoryCol.setCellValueFactory(data -> new javafx.beans.property.SimpleStringProperty(data.getValue().category()));
+        categoryCol.setPrefWidth(140);
+        TableColumn<com.library.service.CategoryCirculation, Long> loansCol = new TableColumn<>("Loans");
+        loansCol.setCellValueFactory(data -> new javafx.beans.property.SimpleLongProperty(data.getValue().loans()).asObject());
+        TableColumn<com.library.service.CategoryCirculation, Long> outCol = new TableColumn<>("Out");
+        outCol.setCellValueFactory(data -> new javafx.beans.property.SimpleLongProperty(data.getValue().openLoans()).asObject());
+        TableColumn<com.library.service.CategoryCirculation, Double> finesCol = new TableColumn<>("Fines (₹)");
+        finesCol.setCellValueFactory(data -> new javafx.beans.property.SimpleDoubleProperty(data.getValue().finesCollected()).asObject());
+        categoryTable.getColumns().setAll(java.util.List.of(categoryCol, loansCol, outCol, finesCol));
+
+        VBox titlesBox = new VBox(5, new Label("Most borrowed this month"), titlesTable);
+        VBox categoryBox = new VBox(5, new Label("By category"), categoryTable);
+        HBox.setHgrow(titlesBox, Priority.ALWAYS);
+        HBox.setHgrow(categoryBox, Priority.ALWAYS);
+        HBox tables = new HBox(10, titlesBox, categoryBox);
+
+        VBox center = new VBox(10, summaryLabel, dailyChart, tables);
+        center.setPadding(new Insets(10, 0, 0, 0));
+        root.setCenter(center);
+
+        Runnable render = () -> {
+            java.time.LocalDate today = java.time.LocalDate.now();
+            var summary = stats.getSummary(today);
+            String text = "Loans: " + summary.loans() + "    Out: " + summary.openLoans()
+                    + "    Overdue: " + summary.overdueLoans()
+                    + "    Fines collected: ₹" + String.format("%.2f", summary.finesCollected());
+            var fineRun = com.library.service.FineEngine.getInstance().getLastRun();
+            if (fineRun != null) {
+                text += "    Outstanding fines: ₹" + String.format("%.2f", fineRun.outstanding());
+            }
+            summaryLabel.setText(text);
+
+            var issued = new javafx.scene.chart.XYChart.Series<String, Number>();
+            issued.setName("Issued");
+            var returned = new javafx.scene.chart.XYChart.Series<String, Number>();
+            returned.setName("Returned");
+            java.time.format.DateTimeFormatter dayFormat = java.time.format.DateTimeFormatter.ofPattern("dd MMM");
+            for (var day : stats.getDaily(today.minusDays(29), today)) {
+                String label = day.date().format(dayFormat);
+                issued.getData().add(new javafx.scene.chart.XYChart.Data<>(label, day.issued()));
+                returned.getData().add(new javafx.scene.chart.XYChart.Data<>(label, day.returned()));
+            }
+            dailyChart.getData().setAll(java.util.List.of(issued, returned));
+
+            titlesTable.setItems(javafx.collections.FXCollections.observableArrayList(
+                    stats.getTopTitles(java.time.YearMonth.from(today), 10)));
+            categoryTable.setItems(javafx.collections.FXCollections.observableArrayList(stats.getCategories()));
+        };
+
+        // The figures are built in the background at startup; render as soon as they are in
+        summaryLabel.setText("Loading statistics...");
+        screenTasks.run(stats.whenReady(),
+                ready -> render.run(),
+                ex -> summaryLabel.setText("❌ Statistics not available: " + ex.getMessage()),
+                rebuildBtn);
+
+        // Recount from the database (picks up loans made by other desks)
+        rebuildBtn.setOnAction(e -> screenTasks.run(db.submit(() -> {
+                    stats.rebuild();
+                    return null;
+                }),
+                done -> render.run(),
+                ex -> showAlert("Error", "Failed to rebuild statistics: " + ex.getMessage()),
+                rebuildBtn));
+
+        Scene scene = new Scene(root, 1000, 650);
+        primaryStage.setScene(scene);
+    }
+
+    // Shows a spinner in the table while the rows load in the background
+    private <T> void loadTable(TableView<T> table, java.util.concurrent.CompletableFuture<java.util.List<T>> rows, String errorPrefix) {
+        table.setPlaceholder(new ProgressIndicator());
+        screenTasks.run(rows,
+                items -> {
+                    table.setItems(javafx.collections.FXCollections.observableArrayList(items));
+                    table.setPlaceholder(new Label("No content in table"));
+                },
+                ex -> {
+                    table.setPlaceholder(new Label("No content in table"));
+                    showAlert("Error", errorPrefix + ex.getMessage());
+                });
+    }
+
+    // "Sort by" selector that reloads the paged table from the first page
+    private HBox sortChooser(PagedTableLoader<?> loader, String titleLabel) {
+        ComboBox<com.library.service.PageSort> sortCombo = new ComboBox<>();
+        sortCombo.getItems().addAll(com.library.service.PageSort.values());
+        sortCombo.setValue(loader.getSort());
+        sortCombo.setConverter(new javafx.util.StringConverter<>() {
+            @Override
+            public String toString(com.library.service.PageSort sort) {
+                if (sort == null) {
+                    return "";
+                }
+                return switch (sort) {
+                    case ID -> "ID";
+                    case TITLE -> titleLabel;
+                    case DATE -> "Date";
+                };
+            }
+
+            @Override
+            public com.library.service.PageSort fromString(String text) {
+                return null;
+            }
+        });
+        sortCombo.setOnAction(e -> loader.reload(sortCombo.getValue()));
+
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        HBox box = new HBox(10, spacer, new Label("Sort by:"), sortCombo);
+        box.setAlignment(Pos.CENTER_RIGHT);
+        HBox.setHgrow(box, Priority.ALWAYS);
+        return box;
+    }
+
+    // Books with a copy on the shelf, by the availability snapshot (no database round trip)
+    private void fillBookCombo(ComboBox<String> bookCombo, java.util.List<Book> books) {
+        String selected = bookCombo.getValue();
+        java.util.List<String> items = new java.util.ArrayList<>();
+        for (var book : books) {
+            if (db.getAvailableCopies(book.getBookId()) > 0) {
+                items.add(book.getBookId() + " - " + book.getTitle() + " by " + book.getAuthor());
+            }
+        }
+        bookCombo.getItems().setAll(items);
+        bookCombo.setValue(items.contains(selected) ? selected : null);
+    }
+
+    // Summary of a batch return: count, total fines and any loans that failed
+    private String describeReturns(java.util.List<com.library.service.BatchItemResult> results) {
+        int returned = 0;
+        double fines = 0;
+        StringBuilder failures = new StringBuilder();
+        for (var result : results) {
+            if (result.success()) {
+                returned++;
+                fines += result.transaction().getFineAmount();
+            } else {
+                failures.append("\n• #").append(result.index() + 1).append(": ").append(result.message());
+            }
+        }
+        String message = returned + " book(s) returned.";
+        message += fines > 0 ? "\n\n⚠️ Total fines: ₹" + fines : "\n\n✅ No fines";
+        if (failures.length() > 0) {
+            message += "\n\n❌ Not returned:" + failures;
+        }
+        return message;
+    }
+
     private void showAlert(String title, String message) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle(title);
@@ -576,7 +1034,90 @@ public class Main extends Application {
         launch(args);
     }
 
-    private void showAddBookDialog(TableView<Book> table) {
+    // "Export..." button: streams the whole table to a CSV or JSON-lines file chosen by the user
+    private Button exportButton(com.library.service.ExportDataset dataset, String defaultName) {
+        Button exportBtn = new Button("Export...");
+        exportBtn.setOnAction(e -> {
+            javafx.stage.FileChooser chooser = new javafx.stage.FileChooser();
+            chooser.setTitle("Export " + defaultName);
+            chooser.setInitialFileName(defaultName + ".csv");
+            chooser.getExtensionFilters().addAll(
+                    new javafx.stage.FileChooser.ExtensionFilter("CSV", "*.csv"),
+                    new javafx.stage.FileChooser.ExtensionFilter("JSON Lines", "*.jsonl"));
+            java.io.File file = chooser.showSaveDialog(primaryStage);
+            if (file == null) {
+                return;
+            }
+            var format = com.library.service.ExportFormat.forFileName(file.getName());
+            String label = exportBtn.getText();
+            exportBtn.setText("Exporting...");
+            var exporting = db.export(dataset, format, file.toPath(), rows ->
+                    javafx.application.Platform.runLater(() -> exportBtn.setText("Exported " + rows + "...")));
+            exporting.whenComplete((rows, ex) -> javafx.application.Platform.runLater(() -> exportBtn.setText(label)));
+            screenTasks.run(exporting,
+                    rows -> showAlert("Export Complete", rows + " row(s) written to " + file),
+                    ex -> showAlert("Error", "Export failed: " + ex.getMessage()),
+                    exportBtn);
+        });
+        return exportBtn;
+    }
+
+    // Runs a catalogue import with a progress bar; cancelling keeps what was imported so far
+    private void showImportDialog(java.nio.file.Path file, PagedTableLoader<Book> loader) {
+        Stage dialog = new Stage();
+        dialog.setTitle("Importing " + file.getFileName());
+        dialog.initOwner(primaryStage);
+        dialog.initModality(javafx.stage.Modality.WINDOW_MODAL);
+
+        ProgressBar progressBar = new ProgressBar(0);
+        progressBar.setPrefWidth(360);
+        Label status = new Label("Reading " + file.getFileName() + "...");
+        Button cancelBtn = new Button("Cancel");
+
+        VBox box = new VBox(15, status, progressBar, cancelBtn);
+        box.setPadding(new Insets(20));
+        box.setAlignment(Pos.CENTER);
+
+        var importing = db.importCatalogue(file, progress -> javafx.application.Platform.runLater(() -> {
+            progressBar.setProgress(progress.fraction());
+            status.setText(progress.imported() + " imported, " + progress.duplicates() + " duplicates, "
+                    + progress.rejected() + " rejected");
+        }));
+        cancelBtn.setOnAction(e -> importing.cancel(true));
+        dialog.setOnCloseRequest(e -> importing.cancel(true));
+
+        screenTasks.run(importing,
+                result -> {
+                    dialog.close();
+                    loader.reload();
+                    String message = result.imported() + " book(s) imported."
+                            + "\n" + result.duplicates() + " duplicate ISBN(s) skipped."
+                            + "\n" + result.rejected() + " record(s) rejected.";
+                    if (result.duplicates() + result.rejected() > 0) {
+                        message += "\n\nDetails: " + result.rejectsFile();
+                    }
+                    showAlert("Import Complete", message);
+                },
+                ex -> {
+                    dialog.close();
+                    loader.reload();
+                    showAlert("Error", "Import stopped: " + ex.getMessage()
+                            + "\n\nImport the same file again to resume where it stopped.");
+                });
+        importing.whenComplete((result, ex) -> {
+            if (importing.isCancelled()) {
+                javafx.application.Platform.runLater(() -> {
+                    dialog.close();
+                    loader.reload();
+                });
+            }
+        });
+
+        dialog.setScene(new Scene(box, 420, 160));
+        dialog.show();
+    }
+
+    private void showAddBookDialog(PagedTableLoader<Book> loader) {
         Stage dialog = new Stage();
         dialog.setTitle("Add New Book");
 
@@ -610,26 +1151,30 @@ public class Main extends Application {
         grid.add(buttons, 0, 5, 2, 1);
 
         saveBtn.setOnAction(e -> {
+            Book book;
             try {
-                Book book = new Book(
+                book = new Book(
                         titleField.getText(),
                         authorField.getText(),
                         isbnField.getText(),
                         categoryField.getText(),
                         Integer.parseInt(copiesField.getText())
                 );
-                com.library.service.DatabaseService.getInstance().addBook(book);
-
-                // Refresh table
-                table.setItems(javafx.collections.FXCollections.observableArrayList(
-                        com.library.service.DatabaseService.getInstance().getAllBooks()
-                ));
-
-                showAlert("Success", "Book added successfully!");
-                dialog.close();
             } catch (Exception ex) {
                 showAlert("Error", "Failed to add book: " + ex.getMessage());
+                return;
             }
+
+            screenTasks.write(db.addBook(book),
+                    done -> {
+                        // Refresh table
+                        loader.reload();
+
+                        showAlert("Success", "Book added successfully!");
+                        dialog.close();
+                    },
+                    ex -> showAlert("Error", "Failed to add book: " + ex.getMessage()),
+                    saveBtn);
         });
 
         cancelBtn.setOnAction(e -> dialog.close());
@@ -639,7 +1184,7 @@ public class Main extends Application {
         dialog.show();
     }
 
-    private void showAddMemberDialog(TableView<com.library.model.Member> table) {
+    private void showAddMemberDialog(PagedTableLoader<com.library.model.Member> loader) {
         Stage dialog = new Stage();
         dialog.setTitle("Add New Member");
 
@@ -670,24 +1215,22 @@ public class Main extends Application {
         grid.add(buttons, 0, 4, 2, 1);
 
         saveBtn.setOnAction(e -> {
-            try {
-                com.library.model.Member member = new com.library.model.Member(
-                        nameField.getText(),
-                        emailField.getText(),
-                        phoneField.getText(),
-                        addressField.getText()
-                );
-                com.library.service.DatabaseService.getInstance().addMember(member);
+            com.library.model.Member member = new com.library.model.Member(
+                    nameField.getText(),
+                    emailField.getText(),
+                    phoneField.getText(),
+                    addressField.getText()
+            );
 
-                table.setItems(javafx.collections.FXCollections.observableArrayList(
-                        com.library.service.DatabaseService.getInstance().getAllMembers()
-                ));
+            screenTasks.write(db.addMember(member),
+                    done -> {
+                        loader.reload();
 
-                showAlert("Success", "Member added successfully!");
-                dialog.close();
-            } catch (Exception ex) {
-                showAlert("Error", "Failed to add member: " + ex.getMessage());
-            }
+                        showAlert("Success", "Member added successfully!");
+                        dialog.close();
+                    },
+                    ex -> showAlert("Error", "Failed to add member: " + ex.getMessage()),
+                    saveBtn);
         });
 
         cancelBtn.setOnAction(e -> dialog.close());
@@ -0,0 +1,189 @@
+package com.library;
+
+import com.library.service.Page;
+import com.library.service.PageCursor;
+import com.library.service.PageRequest;
+import com.library.service.PageSort;
+import javafx.collections.ObservableList;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+import javafx.scene.control.skin.VirtualFlow;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Paging data source for a TableView.
+ * Rows are fetched a page at a time with keyset queries as the user scrolls,
+ * and at most maxRows are kept in the table: pages scrolled far out of view
+ * are dropped and fetched again if the user scrolls back.
+ */
+class PagedTableLoader<T> {
+
+    private static final double EDGE = 0.05;
+
+    private final TableView<T> table;
+    private final ScreenTasks screenTasks;
+    private final Function<PageRequest, CompletableFuture<Page<T>>> fetcher;
+    private final BiFunction<PageSort, T, PageCursor> cursorOf;
+    private final Consumer<Throwable> onError;
+    private final int pageSize;
+    private final int maxRows;
+
+    private PageSort sort = PageSort.ID;
+    private boolean moreBefore;
+    private boolean moreAfter;
+    private boolean loading;
+    private long generation;
+
+    PagedTableLoader(TableView<T> table, ScreenTasks screenTasks,
+                     Function<PageRequest, CompletableFuture<Page<T>>> fetcher,
+                     BiFunction<PageSort, T, PageCursor> cursorOf,
+                     Consumer<Throwable> onError,
+                     int pageSize, int maxRows) {
+        this.table = table;
+        this.screenTasks = screenTasks;
+        this.fetcher = fetcher;
+        this.cursorOf = cursorOf;
+        this.onError = onError;
+        this.pageSize = pageSize;
+        this.maxRows = maxRows;
+
+        // Client-side sorting would only sort the loaded window
+        table.getColumns().forEach(column -> column.setSortable(false));
+        table.skinProperty().addListener((obs, oldSkin, newSkin) -> attachScrollListener());
+    }
+
+    PageSort getSort() {
+        return sort;
+    }
+
+    // Start over from the first page in the given order
+    void reload(PageSort sort) {
+        this.sort = sort;
+        long current = ++generation;
+        loading = true;
+        table.getItems().clear();
+        table.setPlaceholder(new ProgressIndicator());
+
+        screenTasks.run(fetcher.apply(PageRequest.first(sort, pageSize)),
+                page -> {
+                    if (current != generation) {
+                        return;
+                    }
+                    loading = false;
+                    moreBefore = false;
+                    moreAfter = page.hasMore();
+                    table.getItems().setAll(page.items());
+                    table.setPlaceholder(new Label("No content in table"));
+                },
+                this::failed);
+    }
+
+    void reload() {
+        reload(sort);
+    }
+
+    // Shows a fixed result (e.g. search hits) and stops paging until the next reload
+    void showFixed(List<T> rows) {
+        generation++;
+        loading = false;
+        moreBefore = false;
+        moreAfter = false;
+        table.getItems().setAll(rows);
+        table.setPlaceholder(new Label("No matches"));
+    }
+
+    private void loadNext() {
+        ObservableList<T> items = table.getItems();
+        if (loading || !moreAfter || items.isEmpty()) {
+            return;
+        }
+        long current = generation;
+        loading = true;
+        PageCursor last = cursorOf.apply(sort, items.get(items.size() - 1));
+
+        screenTasks.run(fetcher.apply(PageRequest.after(sort, last, pageSize)),
+                page -> {
+                    if (current != generation) {
+                        return;
+                    }
+                    loading = false;
+                    moreAfter = page.hasMore();
+                    int firstVisible = firstVisibleIndex();
+                    items.addAll(page.items());
+
+                    int overflow = items.size() - maxRows;
+                    if (overflow > 0) {
+                        items.remove(0, overflow);
+                        moreBefore = true;
+                        table.scrollTo(Math.max(0, firstVisible - overflow));
+                    }
+                },
+                this::failed);
+    }
+
+    private void loadPrevious() {
+        ObservableList<T> items = table.getItems();
+        if (loading || !moreBefore || items.isEmpty()) {
+            return;
+        }
+        long current = generation;
+        loading = true;
+        PageCursor first = cursorOf.apply(sort, items.get(0));
+
+        screenTasks.run(fetcher.apply(PageRequest.before(sort, first, pageSize)),
+                page -> {
+                    if (current != generation) {
+                        return;
+                    }
+                    loading = false;
+                    moreBefore = page.hasMore();
+                    int firstVisible = firstVisibleIndex();
+                    items.addAll(0, page.items());
+
+                    int overflow = items.size() - maxRows;
+                    if (overflow > 0) {
+                        items.remove(items.size() - overflow, items.size());
+                        moreAfter = true;
+                    }
+                    table.scrollTo(firstVisible + page.items().size());
+                },
+                this::failed);
+    }
+
+    private void failed(Throwable error) {
+        loading = false;
+        table.setPlaceholder(new Label("No content in table"));
+        onError.accept(error);
+    }
+
+    private void attachScrollListener() {
+        for (Node node : table.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                bar.valueProperty().addListener((obs, oldValue, value) -> {
+                    double range = bar.getMax() - bar.getMin();
+                    if (value.doubleValue() >= bar.getMax() - range * EDGE) {
+                        loadNext();
+                    } else if (value.doubleValue() <= bar.getMin() + range * EDGE) {
+                        loadPrevious();
+                    }
+                });
+            }
+        }
+    }
+
+    private int firstVisibleIndex() {
+        if (table.lookup(".virtual-flow") instanceof VirtualFlow<?> flow && flow.getFirstVisibleCell() != null) {
+            return flow.getFirstVisibleCell().getIndex();
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,80 @@
+package com.library;
+
+import javafx.application.Platform;
+import javafx.scene.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * Tracks the background work started by the current screen.
+ * Callbacks are marshalled back to the JavaFX Application Thread. Reads
+ * still pending are cancelled when the user navigates away; writes are
+ * left to finish, and their outcome is still reported.
+ */
+class ScreenTasks {
+
+    // Only touched from the FX thread
+    private final List<CompletableFuture<?>> pending = new ArrayList<>();
+
+    /**
+     * Runs onSuccess / onError on the FX thread when the future completes.
+     * The busy nodes are disabled until then (used as loading indicators).
+     */
+    <T> void run(CompletableFuture<T> future, Consumer<T> onSuccess, Consumer<Throwable> onError, Node... busy) {
+        pending.add(future);
+        whenDone(future, onSuccess, onError, busy);
+    }
+
+    /**
+     * Like run, for a write (issue, return, delete...). It is not cancelled
+     * by cancelAll, as it may already have committed: onSuccess / onError
+     * still run after the user has left the screen.
+     */
+    <T> void write(CompletableFuture<T> future, Consumer<T> onSuccess, Consumer<Throwable> onError, Node... busy) {
+        whenDone(future, onSuccess, onError, busy);
+    }
+
+    private <T> void whenDone(CompletableFuture<T> future, Consumer<T> onSuccess, Consumer<Throwable> onError,
+                              Node... busy) {
+        setDisabled(busy, true);
+
+        future.whenCompleteAsync((value, error) -> {
+            pending.remove(future);
+            setDisabled(busy, false);
+            if (future.isCancelled()) {
+                return;
+            }
+            if (error == null) {
+                onSuccess.accept(value);
+            } else {
+                Throwable cause = unwrap(error);
+                if (!(cause instanceof CancellationException)) {
+                    onError.accept(cause);
+                }
+            }
+        }, Platform::runLater);
+    }
+
+    // Cancel the reads started by the screen being left
+    void cancelAll() {
+        for (CompletableFuture<?> future : new ArrayList<>(pending)) {
+            future.cancel(true);
+        }
+        pending.clear();
+    }
+
+    private static void setDisabled(Node[] nodes, boolean disabled) {
+        for (Node node : nodes) {
+            node.setDisable(disabled);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -0,0 +1,255 @@
+package com.library.journal;
+
+import com.library.util.LibraryEvent;
+import com.library.util.LibraryEventListener;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only binary journal of circulation events (issue, return, fine).
+ *
+ * Registered as a LibraryLogger listener, so it is written on the event
+ * writer thread, off the issue/return path. Records have a fixed size of
+ * RECORD_SIZE bytes and end with a CRC32C of the rest of the record:
+ *
+ *   0  sequence        long      32  book id     long
+ *   8  timestamp (ms)  long      40  member id   long
+ *   16 type code       byte      48  fine, paise long
+ *   24 transaction id  long      60  CRC32C      int
+ *
+ * The journal is a directory of fixed-size segment files named after the
+ * sequence of their first record. The current segment is memory-mapped
+ * and forced to disk at the end of every event batch. Unwritten space is
+ * zero, so a segment's records end at its last non-zero slot. If that last
+ * record fails its CRC it was torn by a crash mid-write, and is cleared on
+ * reopen. A bad record with intact records after it is corruption: it is
+ * kept, reported and skipped, and the records after it are still read.
+ */
+public class CirculationJournal implements LibraryEventListener {
+
+    public static final int RECORD_SIZE = 64;
+    static final String SEGMENT_SUFFIX = ".journal";
+    private static final int CRC_OFFSET = RECORD_SIZE - 4;
+
+    private final Path directory;
+    private final long segmentSize;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+    private final CRC32C crc = new CRC32C();
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int position;
+    private long nextSequence;
+    private boolean dirty;
+
+    /**
+     * Opens (or creates) the journal in directory and positions it after
+     * the last intact record. segmentSize is rounded down to whole records.
+     */
+    public CirculationJournal(Path directory, long segmentSize) throws IOException {
+        if (segmentSize < RECORD_SIZE || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Journal segment size out of range: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize - segmentSize % RECORD_SIZE;
+        Files.createDirectories(directory);
+
+        List<Path> segments = segments(directory);
+        if (segments.isEmpty()) {
+            nextSequence = 1;
+            openSegment();
+        } else {
+            Path last = segments.get(segments.size() - 1);
+            channel = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), this.segmentSize));
+            position = endOfRecords(segment);
+            // A bad record with nothing after it is a write torn by a crash: clear it
+            while (position > 0 && readRecord(segment, position - RECORD_SIZE) == null) {
+                position -= RECORD_SIZE;
+                segment.put(position, new byte[RECORD_SIZE]);
+            }
+            long corrupt = 0;
+            for (int offset = 0; offset < position; offset += RECORD_SIZE) {
+                if (readRecord(segment, offset) == null) {
+                    corrupt++;
+                }
+            }
+            if (corrupt > 0) {
+                System.err.println("❌ Circulation journal " + last + " has " + corrupt
+                        + " corrupt record(s) before intact ones; kept and skipped when read");
+            }
+            nextSequence = firstSequence(last) + position / RECORD_SIZE;
+        }
+        System.out.println("✅ Circulation journal open at " + directory + " (next record " + nextSequence + ")");
+    }
+
+    // ==================== WRITING ====================
+
+    @Override
+    public void onEvent(LibraryEvent event) {
+        if (segment == null) {
+            return;
+        }
+        try {
+            if (position + RECORD_SIZE > segment.capacity()) {
+                segment.force();
+                channel.close();
+                openSegment();
+            }
+            record.clear();
+            record.putLong(0, nextSequence)
+                    .putLong(8, event.getTimestamp())
+                    .put(16, typeCode(event.getType()))
+                    .putLong(24, event.getTransactionId())
+                    .putLong(32, event.getBookId())
+                    .putLong(40, event.getMemberId())
+                    .putLong(48, Math.round(event.getFine() * 100));
+            crc.reset();
+            crc.update(record.array(), 0, CRC_OFFSET);
+            record.putInt(CRC_OFFSET, (int) crc.getValue());
+
+            segment.put(position, record.array());
+            position += RECORD_SIZE;
+            nextSequence++;
+            dirty = true;
+        } catch (IOException e) {
+            System.err.println("❌ Circulation journal stopped: " + e.getMessage());
+            segment = null;
+        }
+    }
+
+    @Override
+    public void onBatchEnd() {
+        if (dirty && segment != null) {
+            segment.force();
+            dirty = false;
+        }
+    }
+
+    @Override
+    public void onClose() {
+        onBatchEnd();
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            System.err.println("❌ Could not close circulation journal: " + e.getMessage());
+        }
+        segment = null;
+    }
+
+    private void openSegment() throws IOException {
+        Path file = directory.resolve(String.format("%020d", nextSequence) + SEGMENT_SUFFIX);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        position = 0;
+    }
+
+    // ==================== READING ====================
+
+    /**
+     * Reads every intact record in order and passes it to consumer. Returns
+     * the number of corrupt records (CRC mismatch) that were skipped.
+     */
+    public static long read(Path directory, Consumer<JournalRecord> consumer) throws IOException {
+        long corrupt = 0;
+        for (Path file : segments(directory)) {
+            try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer data = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+                int end = endOfRecords(data);
+                for (int offset = 0; offset < end; offset += RECORD_SIZE) {
+                    JournalRecord record = readRecord(data, offset);
+                    if (record == null) {
+                        corrupt++;
+                    } else {
+                        consumer.accept(record);
+                    }
+                }
+            }
+        }
+        return corrupt;
+    }
+
+    // Offset just past the last slot with any non-zero byte (0 for an empty segment)
+    private static int endOfRecords(ByteBuffer data) {
+        int end = data.capacity() - data.capacity() % RECORD_SIZE;
+        while (end > 0) {
+            for (int offset = end - RECORD_SIZE; offset < end; offset += 8) {
+                if (data.getLong(offset) != 0) {
+                    return end;
+                }
+            }
+            end -= RECORD_SIZE;
+        }
+        return 0;
+    }
+
+    // The record at offset, or null if it is empty or fails its CRC
+    private static JournalRecord readRecord(ByteBuffer data, int offset) {
+        long sequence = data.getLong(offset);
+        if (sequence == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[CRC_OFFSET];
+        data.get(offset, bytes);
+        CRC32C check = new CRC32C();
+        check.update(bytes);
+        if ((int) check.getValue() != data.getInt(offset + CRC_OFFSET)) {
+            return null;
+        }
+        LibraryEvent.Type type = typeOf(data.get(offset + 16));
+        if (type == null) {
+            return null;
+        }
+        return new JournalRecord(sequence, data.getLong(offset + 8), type, data.getLong(offset + 24),
+                data.getLong(offset + 32), data.getLong(offset + 40), data.getLong(offset + 48) / 100.0);
+    }
+
+    static List<Path> segments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            files.forEach(segments::add);
+        }
+        // Zero-padded names sort in sequence order
+        segments.sort(null);
+        return segments;
+    }
+
+    private static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    // Stable on-disk codes, independent of the enum's declaration order
+    private static byte typeCode(LibraryEvent.Type type) {
+        return switch (type) {
+            case BOOK_ISSUED -> 1;
+            case BOOK_RETURNED -> 2;
+            case FINE_ASSESSED -> 3;
+        };
+    }
+
+    private static LibraryEvent.Type typeOf(byte code) {
+        return switch (code) {
+            case 1 -> LibraryEvent.Type.BOOK_ISSUED;
+            case 2 -> LibraryEvent.Type.BOOK_RETURNED;
+            case 3 -> LibraryEvent.Type.FINE_ASSESSED;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,103 @@
+package com.library.journal;
+
+import com.library.util.LibraryEvent;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Circulation state rebuilt by replaying the journal: which loans are
+ * still out, how many copies of each book that takes, what each member
+ * has on loan and the fines assessed per member.
+ *
+ * Only journaled events count, so for loans made before the journal was
+ * enabled the database remains the reference.
+ */
+public class CirculationState {
+
+    // Open loan: transaction id -> {book id, member id}
+    private final Map<Long, long[]> openLoans = new HashMap<>();
+    private final Map<Long, Integer> loansByBook = new HashMap<>();
+    private final Map<Long, Integer> loansByMember = new HashMap<>();
+    private final Map<Long, Double> finesByMember = new HashMap<>();
+    private final Map<LibraryEvent.Type, Long> eventCounts = new EnumMap<>(LibraryEvent.Type.class);
+    private long lastSequence;
+    private long corruptRecords;
+
+    /**
+     * Replays every record in the journal directory.
+     */
+    public static CirculationState replay(Path directory) throws IOException {
+        CirculationState state = new CirculationState();
+        state.corruptRecords = CirculationJournal.read(directory, state::apply);
+        return state;
+    }
+
+    public void apply(JournalRecord record) {
+        lastSequence = Math.max(lastSequence, record.sequence());
+        eventCounts.merge(record.type(), 1L, Long::sum);
+        switch (record.type()) {
+            case BOOK_ISSUED -> {
+                if (openLoans.put(record.transactionId(), new long[]{record.bookId(), record.memberId()}) == null) {
+                    loansByBook.merge(record.bookId(), 1, Integer::sum);
+                    loansByMember.merge(record.memberId(), 1, Integer::sum);
+                }
+            }
+            case BOOK_RETURNED -> {
+                long[] loan = openLoans.remove(record.transactionId());
+                if (loan != null) {
+                    decrement(loansByBook, loan[0]);
+                    decrement(loansByMember, loan[1]);
+                }
+            }
+            case FINE_ASSESSED -> finesByMember.merge(record.memberId(), record.fine(), Double::sum);
+        }
+    }
+
+    private static void decrement(Map<Long, Integer> counts, long key) {
+        counts.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+    }
+
+    // ==================== QUERIES ====================
+
+    public int getLoansOut(long bookId) {
+        return loansByBook.getOrDefault(bookId, 0);
+    }
+
+    // Copies on the shelf given the book's total, according to the journal
+    public int getAvailableCopies(long bookId, int totalCopies) {
+        return Math.max(0, totalCopies - getLoansOut(bookId));
+    }
+
+    public int getOpenLoanCount() {
+        return openLoans.size();
+    }
+
+    public Map<Long, Integer> getLoansByBook() {
+        return Collections.unmodifiableMap(loansByBook);
+    }
+
+    public Map<Long, Integer> getLoansByMember() {
+        return Collections.unmodifiableMap(loansByMember);
+    }
+
+    public Map<Long, Double> getFinesByMember() {
+        return Collections.unmodifiableMap(finesByMember);
+    }
+
+    public long getEventCount(LibraryEvent.Type type) {
+        return eventCounts.getOrDefault(type, 0L);
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public long getCorruptRecords() {
+        return corruptRecords;
+    }
+}
@@ -0,0 +1,11 @@
+package com.library.journal;
+
+import com.library.util.LibraryEvent;
+
+/**
+ * One circulation event as stored in the journal.
+ * sequence numbers are assigned by the journal, from 1, without gaps.
+ */
+public record JournalRecord(long sequence, long timestamp, LibraryEvent.Type type,
+                            long transactionId, long bookId, long memberId, double fine) {
+}
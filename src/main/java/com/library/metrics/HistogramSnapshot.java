@@ -0,0 +1,30 @@
+package com.library.metrics;
+
+/**
+ * Point-in-time copy of a LogLinearHistogram.
+ */
+public record HistogramSnapshot(long[] counts, long count, long sum, long max) {
+
+    public double mean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Smallest bucket value that at least percentile % of the recorded
+     * values are at or below (e.g. 99.9 for p999). 0 when empty.
+     */
+    public long valueAt(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Math.min(LogLinearHistogram.highestValueIn(bucket), max);
+            }
+        }
+        return max;
+    }
+}
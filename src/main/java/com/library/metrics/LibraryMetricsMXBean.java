@@ -0,0 +1,30 @@
+package com.library.metrics;
+
+/**
+ * JMX view of the whole service (com.library:type=Metrics): the text
+ * report, Hibernate session and query counters, and the connection pool.
+ */
+public interface LibraryMetricsMXBean {
+
+    String getReport();
+
+    void reset();
+
+    long getSessionsOpened();
+
+    long getSessionsClosed();
+
+    long getTransactions();
+
+    long getQueriesExecuted();
+
+    long getSlowestQueryMillis();
+
+    String getSlowestQuery();
+
+    double getSecondLevelCacheHitRatio();
+
+    int getPoolActiveConnections();
+
+    int getPoolWaitingThreads();
+}
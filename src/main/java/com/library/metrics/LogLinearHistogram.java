@@ -0,0 +1,93 @@
+package com.library.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative long values (latencies in
+ * nanoseconds, row counts) with HDR-style log-linear buckets.
+ *
+ * Values below SUB_BUCKETS get a bucket each; above that every power of two
+ * is split into SUB_BUCKETS equal buckets, so a recorded value is off by at
+ * most 1/SUB_BUCKETS (about 3%) at any magnitude. Values are capped at
+ * MAX_VALUE (about 18 minutes in nanoseconds).
+ *
+ * Counts are striped over a few arrays picked by thread id, so threads
+ * recording at the same time rarely increment the same cache line; the
+ * stripes are summed when a snapshot is taken.
+ */
+public final class LogLinearHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    public static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+    static final int BUCKET_COUNT = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private static final int STRIPES =
+            Integer.highestOneBit(Math.min(4, Math.max(1, Runtime.getRuntime().availableProcessors())));
+
+    private final AtomicLongArray[] stripes = new AtomicLongArray[STRIPES];
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LogLinearHistogram() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new AtomicLongArray(BUCKET_COUNT);
+        }
+    }
+
+    public void record(long value) {
+        long clamped = Math.max(0, Math.min(value, MAX_VALUE));
+        stripes[(int) Thread.currentThread().threadId() & (STRIPES - 1)].getAndIncrement(bucketOf(clamped));
+        sum.add(clamped);
+        max.accumulate(clamped);
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    // Largest value that falls in the bucket
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        long lowest = (long) (SUB_BUCKETS + (bucket - SUB_BUCKETS) % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * Counts at this moment. Not atomic across buckets: values recorded
+     * while the snapshot is taken may or may not be included.
+     */
+    public HistogramSnapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long count = 0;
+        for (AtomicLongArray stripe : stripes) {
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                long n = stripe.get(bucket);
+                counts[bucket] += n;
+                count += n;
+            }
+        }
+        return new HistogramSnapshot(counts, count, sum.sum(), max.get());
+    }
+
+    public void reset() {
+        for (AtomicLongArray stripe : stripes) {
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                stripe.set(bucket, 0);
+            }
+        }
+        sum.reset();
+        max.reset();
+    }
+}
@@ -0,0 +1,44 @@
+package com.library.metrics;
+
+/**
+ * DatabaseService operations that are timed by OperationMetrics.
+ * The label is the service method's name, as shown in reports and JMX.
+ */
+public enum Operation {
+    ADD_BOOK("addBook"),
+    GET_BOOK("getBookById"),
+    LIST_BOOKS("getAllBooks"),
+    BOOKS_PAGE("getBooksPage"),
+    SEARCH_BOOKS("searchBooks"),
+    UPDATE_BOOK("updateBook"),
+    DELETE_BOOK("deleteBook"),
+    ADD_MEMBER("addMember"),
+    GET_MEMBER("getMemberById"),
+    LIST_MEMBERS("getAllMembers"),
+    MEMBERS_PAGE("getMembersPage"),
+    SEARCH_MEMBERS("searchMembers"),
+    UPDATE_MEMBER("updateMember"),
+    DELETE_MEMBER("deleteMember"),
+    ISSUE_BOOK("issueBook"),
+    RETURN_BOOK("returnBook"),
+    ISSUE_BOOKS("issueBooks"),
+    RETURN_BOOKS("returnBooks"),
+    LIST_TRANSACTIONS("getAllTransactions"),
+    TRANSACTIONS_PAGE("getTransactionsPage"),
+    ACTIVE_TRANSACTIONS("getActiveTransactions"),
+    MEMBER_TRANSACTIONS("getTransactionsByMember"),
+    PLACE_HOLD("placeHold"),
+    CANCEL_HOLD("cancelHold"),
+    ACTIVE_HOLDS("getActiveHolds"),
+    EXPIRE_HOLDS("expireHolds");
+
+    private final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+}
@@ -0,0 +1,293 @@
+package com.library.metrics;
+
+import com.library.util.HibernateUtil;
+import com.library.util.PooledConnectionProvider;
+import org.hibernate.stat.Statistics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency, throughput, error and row-count metrics for DatabaseService
+ * operations, plus Hibernate's own Statistics and the connection pool.
+ *
+ * Recording a call costs two System.nanoTime() reads and a few lock-free
+ * increments (see LogLinearHistogram), nothing is logged per call. The
+ * numbers are published over JMX (com.library:type=Metrics and one
+ * com.library:type=Operation bean per operation) and, once start() is
+ * called, written as a text report to logs/metrics.txt every minute.
+ *
+ * Settings (system properties): library.metrics.enabled (true),
+ * library.metrics.dump_seconds (60, 0 to turn the file off), library.log.dir.
+ */
+public class OperationMetrics implements LibraryMetricsMXBean {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final OperationMetrics INSTANCE = new OperationMetrics();
+
+    private final boolean enabled;
+    private final OperationStats[] stats = new OperationStats[Operation.values().length];
+    private final long startedNanos = System.nanoTime();
+    private ScheduledExecutorService dumper;
+
+    private OperationMetrics() {
+        enabled = Boolean.parseBoolean(System.getProperty("library.metrics.enabled", "true"));
+        for (Operation operation : Operation.values()) {
+            stats[operation.ordinal()] = new OperationStats(operation);
+        }
+        if (enabled) {
+            registerMBeans();
+        }
+    }
+
+    public static OperationMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    // ==================== RECORDING ====================
+
+    // Start time to pass to success/failure (0 when metrics are off)
+    public long begin() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    // rows: rows returned, or -1 when the operation doesn't return rows
+    public void success(Operation operation, long started, int rows) {
+        if (started != 0) {
+            stats[operation.ordinal()].success(System.nanoTime() - started, rows);
+        }
+    }
+
+    public void failure(Operation operation, long started) {
+        if (started != 0) {
+            stats[operation.ordinal()].failure(System.nanoTime() - started);
+        }
+    }
+
+    public OperationStatsMXBean getStats(Operation operation) {
+        return stats[operation.ordinal()];
+    }
+
+    // ==================== PERIODIC DUMP ====================
+
+    public synchronized void start() {
+        long interval = Long.getLong("library.metrics.dump_seconds", 60);
+        if (!enabled || interval <= 0 || dumper != null) {
+            return;
+        }
+        Path file = Path.of(System.getProperty("library.log.dir", "logs"), "metrics.txt");
+        long[] previousCalls = new long[stats.length];
+        long[] previousNanos = {System.nanoTime()};
+        dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "library-metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(() -> {
+            long now = System.nanoTime();
+            String report = report(previousCalls, now - previousNanos[0]);
+            previousNanos[0] = now;
+            write(file, report);
+        }, interval, interval, TimeUnit.SECONDS);
+    }
+
+    // Stops the dump after writing a last report
+    public synchronized void shutdown() {
+        if (dumper != null) {
+            dumper.shutdownNow();
+            dumper = null;
+            write(Path.of(System.getProperty("library.log.dir", "logs"), "metrics.txt"), getReport());
+        }
+    }
+
+    // Replaces the file in one step so readers never see half a report
+    private static void write(Path file, String report) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(temp, report, StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("❌ Could not write metrics to " + file + ": " + e.getMessage());
+        }
+    }
+
+    // ==================== REPORT ====================
+
+    @Override
+    public String getReport() {
+        return report(new long[stats.length], System.nanoTime() - startedNanos);
+    }
+
+    /**
+     * Text report of every operation called so far. The rate column is
+     * calls per second since the counts in previousCalls, taken
+     * intervalNanos ago; previousCalls is updated to the current counts.
+     */
+    private String report(long[] previousCalls, long intervalNanos) {
+        StringBuilder out = new StringBuilder(4096);
+        out.append("Library metrics at ").append(LocalDateTime.now().format(TIMESTAMP))
+                .append(" (up ").append(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startedNanos)).append(" s)\n\n");
+        out.append(String.format(Locale.ROOT, "%-24s %9s %7s %9s %9s %9s %9s %9s %9s  %s%n",
+                "operation", "calls", "errors", "rate/s", "mean us", "p50 us", "p99 us", "p999 us", "max us",
+                "rows p50/p99/max"));
+        double seconds = Math.max(1e-9, intervalNanos / 1e9);
+        for (OperationStats operation : stats) {
+            HistogramSnapshot latency = operation.latencySnapshot();
+            int index = operation.operation().ordinal();
+            long calls = latency.count() - previousCalls[index];
+            previousCalls[index] = latency.count();
+            if (latency.count() == 0) {
+                continue;
+            }
+            HistogramSnapshot rows = operation.rowsSnapshot();
+            out.append(String.format(Locale.ROOT, "%-24s %9d %7d %9.1f %9.0f %9d %9d %9d %9d  %s%n",
+                    operation.operation().label(), latency.count(), operation.getErrors(), calls / seconds,
+                    latency.mean() / 1000, latency.valueAt(50) / 1000, latency.valueAt(99) / 1000,
+                    latency.valueAt(99.9) / 1000, latency.max() / 1000,
+                    rows.count() == 0 ? "-" : rows.valueAt(50) + "/" + rows.valueAt(99) + "/" + rows.max()));
+        }
+
+        Statistics hibernate = hibernateStatistics();
+        if (hibernate != null) {
+            out.append("\nHibernate: sessions opened=").append(hibernate.getSessionOpenCount())
+                    .append(", closed=").append(hibernate.getSessionCloseCount())
+                    .append(", transactions=").append(hibernate.getTransactionCount())
+                    .append(", statements prepared=").append(hibernate.getPrepareStatementCount())
+                    .append(", flushes=").append(hibernate.getFlushCount())
+                    .append('\n');
+            out.append("Queries: executed=").append(hibernate.getQueryExecutionCount())
+                    .append(", slowest=").append(hibernate.getQueryExecutionMaxTime()).append(" ms");
+            if (hibernate.getQueryExecutionMaxTimeQueryString() != null) {
+                out.append(" (").append(hibernate.getQueryExecutionMaxTimeQueryString()).append(')');
+            }
+            out.append('\n');
+            out.append("Entities: loaded=").append(hibernate.getEntityLoadCount())
+                    .append(", fetched=").append(hibernate.getEntityFetchCount())
+                    .append(", inserted=").append(hibernate.getEntityInsertCount())
+                    .append(", updated=").append(hibernate.getEntityUpdateCount())
+                    .append('\n');
+            out.append(String.format(Locale.ROOT, "Second-level cache: hits=%d, misses=%d, hit ratio=%.3f%n",
+                    hibernate.getSecondLevelCacheHitCount(), hibernate.getSecondLevelCacheMissCount(),
+                    getSecondLevelCacheHitRatio()));
+        }
+        PooledConnectionProvider.PoolStats pool = HibernateUtil.getPoolStats();
+        if (pool != null) {
+            out.append(pool).append('\n');
+        }
+        return out.toString();
+    }
+
+    @Override
+    public void reset() {
+        for (OperationStats operation : stats) {
+            operation.reset();
+        }
+        Statistics hibernate = hibernateStatistics();
+        if (hibernate != null) {
+            hibernate.clear();
+        }
+    }
+
+    // ==================== HIBERNATE AND POOL ====================
+
+    private static Statistics hibernateStatistics() {
+        if (!HibernateUtil.isReady()) {
+            return null;
+        }
+        Statistics statistics = HibernateUtil.getSessionFactory().getStatistics();
+        return statistics.isStatisticsEnabled() ? statistics : null;
+    }
+
+    @Override
+    public long getSessionsOpened() {
+        Statistics hibernate = hibernateStatistics();
+        return hibernate != null ? hibernate.getSessionOpenCount() : 0;
+    }
+
+    @Override
+    public long getSessionsClosed() {
+        Statistics hibernate = hibernateStatistics();
+        return hibernate != null ? hibernate.getSessionCloseCount() : 0;
+    }
+
+    @Override
+    public long getTransactions() {
+        Statistics hibernate = hibernateStatistics();
+        return hibernate != null ? hibernate.getTransactionCount() : 0;
+    }
+
+    @Override
+    public long getQueriesExecuted() {
+        Statistics hibernate = hibernateStatistics();
+        return hibernate != null ? hibernate.getQueryExecutionCount() : 0;
+    }
+
+    @Override
+    public long getSlowestQueryMillis() {
+        Statistics hibernate = hibernateStatistics();
+        return hibernate != null ? hibernate.getQueryExecutionMaxTime() : 0;
+    }
+
+    @Override
+    public String getSlowestQuery() {
+        Statistics hibernate = hibernateStatistics();
+        return hibernate != null ? hibernate.getQueryExecutionMaxTimeQueryString() : null;
+    }
+
+    @Override
+    public double getSecondLevelCacheHitRatio() {
+        Statistics hibernate = hibernateStatistics();
+        if (hibernate == null) {
+            return 0;
+        }
+        long requests = hibernate.getSecondLevelCacheHitCount() + hibernate.getSecondLevelCacheMissCount();
+        return requests == 0 ? 0 : (double) hibernate.getSecondLevelCacheHitCount() / requests;
+    }
+
+    @Override
+    public int getPoolActiveConnections() {
+        PooledConnectionProvider.PoolStats pool = HibernateUtil.getPoolStats();
+        return pool != null ? pool.active() : 0;
+    }
+
+    @Override
+    public int getPoolWaitingThreads() {
+        PooledConnectionProvider.PoolStats pool = HibernateUtil.getPoolStats();
+        return pool != null ? pool.waitingThreads() : 0;
+    }
+
+    // ==================== JMX ====================
+
+    private void registerMBeans() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            register(server, new ObjectName("com.library:type=Metrics"), this);
+            for (OperationStats operation : stats) {
+                register(server, new ObjectName("com.library:type=Operation,name=" + operation.operation().label()), operation);
+            }
+        } catch (JMException e) {
+            System.err.println("❌ Could not register metrics MBeans: " + e.getMessage());
+        }
+    }
+
+    private static void register(MBeanServer server, ObjectName name, Object bean) throws JMException {
+        if (!server.isRegistered(name)) {
+            server.registerMBean(bean, name);
+        }
+    }
+}
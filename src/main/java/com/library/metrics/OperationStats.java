@@ -0,0 +1,102 @@
+package com.library.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Calls, errors, latency and rows returned for one operation.
+ */
+final class OperationStats implements OperationStatsMXBean {
+
+    private static final long NANOS_PER_MICRO = 1000;
+
+    private final Operation operation;
+    private final LogLinearHistogram latency = new LogLinearHistogram();
+    private final LogLinearHistogram rows = new LogLinearHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    OperationStats(Operation operation) {
+        this.operation = operation;
+    }
+
+    Operation operation() {
+        return operation;
+    }
+
+    void success(long nanos, int rowCount) {
+        latency.record(nanos);
+        if (rowCount >= 0) {
+            rows.record(rowCount);
+        }
+    }
+
+    void failure(long nanos) {
+        latency.record(nanos);
+        errors.increment();
+    }
+
+    HistogramSnapshot latencySnapshot() {
+        return latency.snapshot();
+    }
+
+    HistogramSnapshot rowsSnapshot() {
+        return rows.snapshot();
+    }
+
+    void reset() {
+        latency.reset();
+        rows.reset();
+        errors.reset();
+    }
+
+    // ==================== MXBEAN ====================
+
+    @Override
+    public long getCalls() {
+        return latency.snapshot().count();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return latency.snapshot().mean() / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public long getP50Micros() {
+        return latency.snapshot().valueAt(50) / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public long getP99Micros() {
+        return latency.snapshot().valueAt(99) / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public long getP999Micros() {
+        return latency.snapshot().valueAt(99.9) / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public long getMaxMicros() {
+        return latency.snapshot().max() / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public long getRowsP50() {
+        return rows.snapshot().valueAt(50);
+    }
+
+    @Override
+    public long getRowsP99() {
+        return rows.snapshot().valueAt(99);
+    }
+
+    @Override
+    public long getRowsMax() {
+        return rows.snapshot().max();
+    }
+}
@@ -0,0 +1,29 @@
+package com.library.metrics;
+
+/**
+ * JMX view of one operation (com.library:type=Operation,name=&lt;method&gt;).
+ * Latencies are in microseconds and cover every call, including failed ones.
+ */
+public interface OperationStatsMXBean {
+
+    long getCalls();
+
+    long getErrors();
+
+    double getMeanMicros();
+
+    long getP50Micros();
+
+    long getP99Micros();
+
+    long getP999Micros();
+
+    long getMaxMicros();
+
+    // Rows returned by list and search calls (0 for other operations)
+    long getRowsP50();
+
+    long getRowsP99();
+
+    long getRowsMax();
+}
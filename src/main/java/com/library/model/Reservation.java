@@ -0,0 +1,125 @@
+package com.library.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A member's hold on a book with no copies left.
+ *
+ * Status: WAITING in the book's queue, READY when a returned copy has been
+ * set aside for the member (until expiryDate), then FULFILLED when it is
+ * issued to them, EXPIRED if not collected in time, or CANCELLED.
+ */
+@Entity
+@Table(name = "Reservations")
+public class Reservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservation_seq")
+    @SequenceGenerator(name = "reservation_seq", sequenceName = "reservation_seq", allocationSize = 50)
+    @Column(name = "reservation_id")
+    private Long reservationId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "book_id", nullable = false)
+    private Book book;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "member_id", nullable = false)
+    private Member member;
+
+    // Queue order: first come, first served
+    @Column(name = "reserved_at", nullable = false)
+    private LocalDateTime reservedAt;
+
+    @Column(name = "ready_date")
+    private LocalDate readyDate;
+
+    @Column(name = "expiry_date")
+    private LocalDate expiryDate;
+
+    @Column(name = "status", length = 20)
+    private String status;
+
+    // Constructors
+    public Reservation() {
+        this.reservedAt = LocalDateTime.now();
+        this.status = "WAITING";
+    }
+
+    public Reservation(Book book, Member member) {
+        this();
+        this.book = book;
+        this.member = member;
+    }
+
+    // Getters and Setters
+    public Long getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(Long reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public Book getBook() {
+        return book;
+    }
+
+    public void setBook(Book book) {
+        this.book = book;
+    }
+
+    public Member getMember() {
+        return member;
+    }
+
+    public void setMember(Member member) {
+        this.member = member;
+    }
+
+    public LocalDateTime getReservedAt() {
+        return reservedAt;
+    }
+
+    public void setReservedAt(LocalDateTime reservedAt) {
+        this.reservedAt = reservedAt;
+    }
+
+    public LocalDate getReadyDate() {
+        return readyDate;
+    }
+
+    public void setReadyDate(LocalDate readyDate) {
+        this.readyDate = readyDate;
+    }
+
+    public LocalDate getExpiryDate() {
+        return expiryDate;
+    }
+
+    public void setExpiryDate(LocalDate expiryDate) {
+        this.expiryDate = expiryDate;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    @Override
+    public String toString() {
+        return "Reservation{" +
+                "reservationId=" + reservationId +
+                ", bookId=" + (book != null ? book.getBookId() : null) +
+                ", memberId=" + (member != null ? member.getMemberId() : null) +
+                ", reservedAt=" + reservedAt +
+                ", expiryDate=" + expiryDate +
+                ", status='" + status + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,219 @@
+package com.library.service;
+
+import com.library.model.Book;
+import com.library.model.Member;
+import com.library.model.Reservation;
+import com.library.model.Transaction;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+
+/**
+ * Asynchronous facade over DatabaseService.
+ * Every call runs on its own virtual thread so a slow database round trip
+ * never blocks the caller (the JavaFX Application Thread in particular).
+ * Cancelling a returned future interrupts the underlying call.
+ */
+public class AsyncDatabaseService {
+
+    private static final AsyncDatabaseService INSTANCE = new AsyncDatabaseService(DatabaseService.getInstance());
+
+    private final DatabaseService databaseService;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private AsyncDatabaseService(DatabaseService databaseService) {
+        this.databaseService = databaseService;
+    }
+
+    public static AsyncDatabaseService getInstance() {
+        return INSTANCE;
+    }
+
+    // ==================== BOOK OPERATIONS ====================
+
+    public CompletableFuture<Void> addBook(Book book) {
+        return submit(() -> {
+            databaseService.addBook(book);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Book> getBookById(Long id) {
+        return submit(() -> databaseService.getBookById(id));
+    }
+
+    public CompletableFuture<List<Book>> getAllBooks() {
+        return submit(databaseService::getAllBooks);
+    }
+
+    public CompletableFuture<Page<Book>> getBooksPage(PageRequest request) {
+        return submit(() -> databaseService.getBooksPage(request));
+    }
+
+    public CompletableFuture<List<Book>> searchBooks(String keyword) {
+        return submit(() -> databaseService.searchBooks(keyword));
+    }
+
+    // Answered from memory without blocking (-1 until the catalogue is loaded), so it is called directly rather than submitted
+    public int getAvailableCopies(long bookId) {
+        return databaseService.getAvailableCopies(bookId);
+    }
+
+    public CompletableFuture<Void> updateBook(Book book) {
+        return submit(() -> {
+            databaseService.updateBook(book);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> deleteBook(Long bookId) {
+        return submit(() -> {
+            databaseService.deleteBook(bookId);
+            return null;
+        });
+    }
+
+    public CompletableFuture<ImportProgress> importCatalogue(Path file, ImportListener listener) {
+        return submit(() -> databaseService.importCatalogue(file, listener));
+    }
+
+    // ==================== MEMBER OPERATIONS ====================
+
+    public CompletableFuture<Void> addMember(Member member) {
+        return submit(() -> {
+            databaseService.addMember(member);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Member> getMemberById(Long id) {
+        return submit(() -> databaseService.getMemberById(id));
+    }
+
+    public CompletableFuture<List<Member>> getAllMembers() {
+        return submit(databaseService::getAllMembers);
+    }
+
+    public CompletableFuture<Page<Member>> getMembersPage(PageRequest request) {
+        return submit(() -> databaseService.getMembersPage(request));
+    }
+
+    public CompletableFuture<List<Member>> searchMembers(String keyword) {
+        return submit(() -> databaseService.searchMembers(keyword));
+    }
+
+    public CompletableFuture<Void> updateMember(Member member) {
+        return submit(() -> {
+            databaseService.updateMember(member);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> deleteMember(Long memberId) {
+        return submit(() -> {
+            databaseService.deleteMember(memberId);
+            return null;
+        });
+    }
+
+    // ==================== TRANSACTION OPERATIONS ====================
+
+    public CompletableFuture<Transaction> issueBook(Long bookId, Long memberId) {
+        return submit(() -> databaseService.issueBook(bookId, memberId));
+    }
+
+    public CompletableFuture<Transaction> returnBook(Long transactionId) {
+        return submit(() -> databaseService.returnBook(transactionId));
+    }
+
+    public CompletableFuture<List<BatchItemResult>> issueBooks(List<LoanRequest> requests) {
+        return submit(() -> databaseService.issueBooks(requests));
+    }
+
+    public CompletableFuture<List<BatchItemResult>> returnBooks(List<Long> transactionIds) {
+        return submit(() -> databaseService.returnBooks(transactionIds));
+    }
+
+    public CompletableFuture<List<Transaction>> getAllTransactions() {
+        return submit(databaseService::getAllTransactions);
+    }
+
+    public CompletableFuture<Page<Transaction>> getTransactionsPage(PageRequest request) {
+        return submit(() -> databaseService.getTransactionsPage(request));
+    }
+
+    public CompletableFuture<List<Transaction>> getActiveTransactions() {
+        return submit(databaseService::getActiveTransactions);
+    }
+
+    public CompletableFuture<List<Transaction>> getTransactionsByMember(Long memberId) {
+        return submit(() -> databaseService.getTransactionsByMember(memberId));
+    }
+
+    // ==================== HOLD OPERATIONS ====================
+
+    public CompletableFuture<Reservation> placeHold(Long bookId, Long memberId) {
+        return submit(() -> databaseService.placeHold(bookId, memberId));
+    }
+
+    public CompletableFuture<Void> cancelHold(Long reservationId) {
+        return submit(() -> {
+            databaseService.cancelHold(reservationId);
+            return null;
+        });
+    }
+
+    public CompletableFuture<List<Reservation>> getActiveHolds() {
+        return submit(databaseService::getActiveHolds);
+    }
+
+    // ==================== EXPORT ====================
+
+    public CompletableFuture<Long> export(ExportDataset dataset, ExportFormat format, Path file, LongConsumer progress) {
+        return submit(() -> databaseService.export(dataset, format, file, progress));
+    }
+
+    // ==================== UNIT OF WORK ====================
+
+    /**
+     * Runs several DatabaseService calls on one virtual thread, in one
+     * session and transaction (see DatabaseService.inUnitOfWork).
+     */
+    public <T> CompletableFuture<T> inUnitOfWork(Function<DatabaseService, T> work) {
+        return submit(() -> databaseService.inUnitOfWork(() -> work.apply(databaseService)));
+    }
+
+    // ==================== EXECUTION ====================
+
+    /**
+     * Runs any blocking call on a virtual thread. Cancelling the returned
+     * future interrupts the thread running the call.
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                result.complete(work.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,124 @@
+package com.library.service;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Book id -> copies on the shelf, as an open-addressing hash table of
+ * primitive longs and ints: no boxing and no entry objects.
+ *
+ * Reads take no lock. The table is published through a volatile field and
+ * its slots are read with volatile semantics; a key is written after its
+ * count, so a reader that finds the key also sees the count. Writes are
+ * serialized. A table that gets half full is copied into one twice the
+ * size and swapped in.
+ */
+final class AvailabilityMap {
+
+    static final int MISSING = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final class Table {
+        // 0 marks a free slot (ids start at 1)
+        final AtomicLongArray keys;
+        final AtomicIntegerArray counts;
+        final int mask;
+
+        Table(int capacity) {
+            keys = new AtomicLongArray(capacity);
+            counts = new AtomicIntegerArray(capacity);
+            mask = capacity - 1;
+        }
+    }
+
+    private volatile Table table = new Table(INITIAL_CAPACITY);
+    // Guarded by this
+    private int used;
+    private int size;
+
+    // Copies on the shelf, or MISSING for a book not in the map
+    int get(long bookId) {
+        Table current = table;
+        for (int i = slot(bookId, current.mask); ; i = (i + 1) & current.mask) {
+            long key = current.keys.get(i);
+            if (key == bookId) {
+                return current.counts.get(i);
+            }
+            if (key == 0) {
+                return MISSING;
+            }
+        }
+    }
+
+    synchronized void put(long bookId, int copies) {
+        if (bookId <= 0 || copies < 0) {
+            return;
+        }
+        Table current = table;
+        int i = find(current, bookId);
+        if (current.keys.get(i) == bookId) {
+            if (current.counts.get(i) == MISSING) {
+                size++;
+            }
+            current.counts.set(i, copies);
+            return;
+        }
+        if ((used + 1) * 2 > current.keys.length()) {
+            current = grow(current);
+            i = find(current, bookId);
+        }
+        current.counts.set(i, copies);
+        current.keys.set(i, bookId);
+        used++;
+        size++;
+    }
+
+    // The slot stays taken (probe chains run through it) and reads as MISSING
+    synchronized void remove(long bookId) {
+        Table current = table;
+        int i = find(current, bookId);
+        if (current.keys.get(i) == bookId && current.counts.get(i) != MISSING) {
+            current.counts.set(i, MISSING);
+            size--;
+        }
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    // Slot holding bookId, or the free slot where it would go
+    private static int find(Table table, long bookId) {
+        for (int i = slot(bookId, table.mask); ; i = (i + 1) & table.mask) {
+            long key = table.keys.get(i);
+            if (key == bookId || key == 0) {
+                return i;
+            }
+        }
+    }
+
+    // Copies the live entries into a table twice the size (removed books are dropped)
+    private Table grow(Table current) {
+        Table larger = new Table(current.keys.length() * 2);
+        int live = 0;
+        for (int i = 0; i < current.keys.length(); i++) {
+            long key = current.keys.get(i);
+            int count = current.counts.get(i);
+            if (key != 0 && count != MISSING) {
+                int j = find(larger, key);
+                larger.counts.set(j, count);
+                larger.keys.set(j, key);
+                live++;
+            }
+        }
+        used = live;
+        table = larger;
+        return larger;
+    }
+
+    private static int slot(long bookId, int mask) {
+        long hash = bookId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,18 @@
+package com.library.service;
+
+import com.library.model.Transaction;
+
+/**
+ * Outcome of one item of a batch issue/return, in the order the items were given.
+ * transaction is the issued/returned loan on success, null otherwise.
+ */
+public record BatchItemResult(int index, boolean success, String message, Transaction transaction) {
+
+    static BatchItemResult ok(int index, Transaction transaction) {
+        return new BatchItemResult(index, true, "OK", transaction);
+    }
+
+    static BatchItemResult failed(int index, String message) {
+        return new BatchItemResult(index, false, message, null);
+    }
+}
@@ -0,0 +1,274 @@
+package com.library.service;
+
+import com.library.model.Book;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory inverted index over the book catalogue (title, author, ISBN, category).
+ *
+ * Terms are case-folded words kept in a sorted map, so a query word matches
+ * every indexed term it is a prefix of. All query words must match; results
+ * are ranked by which fields matched and whether the match was exact.
+ * Searches return book ids; the books themselves are kept once, in the
+ * CompactCatalogue. Reads are lock-free; writes are serialized.
+ */
+public class BookSearchIndex {
+
+    // Field bits stored per posting, and their ranking weights
+    private static final int TITLE = 1;
+    private static final int AUTHOR = 2;
+    private static final int ISBN = 4;
+    private static final int CATEGORY = 8;
+    private static final int[] FIELDS = {TITLE, AUTHOR, ISBN, CATEGORY};
+    private static final int[] WEIGHTS = {8, 4, 16, 2};
+
+    // term -> (bookId -> fields the term occurs in)
+    private final ConcurrentSkipListMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Long, String[]> termsByBook = new ConcurrentHashMap<>();
+
+    // ==================== MAINTENANCE ====================
+
+    public void add(Book book) {
+        if (book == null || book.getBookId() == null) {
+            return;
+        }
+        add(book.getBookId(), book.getTitle(), book.getAuthor(), book.getIsbn(), book.getCategory());
+    }
+
+    // Indexes the fields as given, e.g. straight from a projection query
+    public synchronized void add(long bookId, String title, String author, String isbn, String category) {
+        remove(bookId);
+
+        Map<String, Integer> terms = new HashMap<>();
+        collect(terms, title, TITLE);
+        collect(terms, author, AUTHOR);
+        collect(terms, isbn, ISBN);
+        collect(terms, category, CATEGORY);
+
+        Long id = bookId;
+        for (Map.Entry<String, Integer> term : terms.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), k -> new ConcurrentHashMap<>()).put(id, term.getValue());
+        }
+        termsByBook.put(id, terms.keySet().toArray(new String[0]));
+    }
+
+    // Re-indexes the book (title/author/etc. may have changed)
+    public void update(Book book) {
+        add(book);
+    }
+
+    public synchronized void remove(Long bookId) {
+        String[] terms = termsByBook.remove(bookId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Integer> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(bookId);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        postings.clear();
+        termsByBook.clear();
+    }
+
+    public int size() {
+        return termsByBook.size();
+    }
+
+    // ==================== QUERY ====================
+
+    /**
+     * Ids of the books matching every word of the query (each word as a
+     * prefix), best match first, at most limit results. A query with no
+     * words matches nothing here: list the catalogue instead (see
+     * hasWords).
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> words = queryTerms(query);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+
+        // Expand only the rarest word through the postings; check the other
+        // words against each candidate's own (short) term list
+        String rarest = words.get(0);
+        long rarestCount = Long.MAX_VALUE;
+        for (String word : words) {
+            long count = estimate(word, rarestCount);
+            if (count < rarestCount) {
+                rarest = word;
+                rarestCount = count;
+            }
+        }
+        if (rarestCount == 0) {
+            return List.of();
+        }
+
+        Map<Long, Integer> scores = score(rarest);
+        for (String word : words) {
+            if (word.equals(rarest)) {
+                continue;
+            }
+            scores.entrySet().removeIf(e -> {
+                int score = scoreFor(e.getKey(), word);
+                e.setValue(e.getValue() + score);
+                return score == 0;
+            });
+        }
+
+        // Top-k by score (ties by id) without sorting every candidate
+        Comparator<Map.Entry<Long, Integer>> ranking = Map.Entry.<Long, Integer>comparingByValue()
+                .thenComparing(Map.Entry.<Long, Integer>comparingByKey().reversed());
+        PriorityQueue<Map.Entry<Long, Integer>> top = new PriorityQueue<>(ranking);
+        for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+            if (top.size() < limit) {
+                top.add(entry);
+            } else if (ranking.compare(entry, top.peek()) > 0) {
+                top.poll();
+                top.add(entry);
+            }
+        }
+
+        List<Long> results = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            results.add(top.poll().getKey());
+        }
+        Collections.reverse(results);
+        return results;
+    }
+
+    // Whether the query has any word to search for
+    public static boolean hasWords(String query) {
+        return !queryTerms(query).isEmpty();
+    }
+
+    private NavigableMap<String, Map<Long, Integer>> range(String word) {
+        return postings.subMap(word, true, word + Character.MAX_VALUE, false);
+    }
+
+    // Number of postings under the prefix, counting no further than cap
+    private long estimate(String word, long cap) {
+        long count = 0;
+        for (Map<Long, Integer> docs : range(word).values()) {
+            count += docs.size();
+            if (count >= cap) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    // Best score of word as a prefix of any term of one book, 0 if none
+    private int scoreFor(Long bookId, String word) {
+        String[] terms = termsByBook.get(bookId);
+        int best = 0;
+        if (terms == null) {
+            return best;
+        }
+        for (String term : terms) {
+            if (term.startsWith(word)) {
+                Map<Long, Integer> docs = postings.get(term);
+                Integer fields = docs != null ? docs.get(bookId) : null;
+                if (fields != null) {
+                    best = Math.max(best, weight(fields) * (term.length() == word.length() ? 2 : 1));
+                }
+            }
+        }
+        return best;
+    }
+
+    // bookId -> best score of any indexed term starting with word
+    private Map<Long, Integer> score(String word) {
+        Map<Long, Integer> scores = new HashMap<>();
+        for (Map.Entry<String, Map<Long, Integer>> term : range(word).entrySet()) {
+            boolean exact = term.getKey().length() == word.length();
+            for (Map.Entry<Long, Integer> posting : term.getValue().entrySet()) {
+                int score = weight(posting.getValue()) * (exact ? 2 : 1);
+                scores.merge(posting.getKey(), score, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private static int weight(int fieldMask) {
+        int weight = 0;
+        for (int i = 0; i < FIELDS.length; i++) {
+            if ((fieldMask & FIELDS[i]) != 0) {
+                weight += WEIGHTS[i];
+            }
+        }
+        return weight;
+    }
+
+    // ==================== TOKENIZING ====================
+
+    /**
+     * Words are split on anything but letters, digits and hyphens.
+     * Hyphenated words are indexed both whole ("9780132350884" for
+     * "978-0132350884") and by their parts ("self", "help").
+     */
+    private static void collect(Map<String, Integer> terms, String text, int field) {
+        for (String word : words(text)) {
+            String joined = word.replace("-", "");
+            if (!joined.isEmpty()) {
+                terms.merge(joined, field, (a, b) -> a | b);
+            }
+            if (word.indexOf('-') >= 0) {
+                for (String part : word.split("-")) {
+                    if (!part.isEmpty()) {
+                        terms.merge(part, field, (a, b) -> a | b);
+                    }
+                }
+            }
+        }
+    }
+
+    private static List<String> queryTerms(String query) {
+        List<String> terms = new ArrayList<>();
+        for (String word : words(query)) {
+            String joined = word.replace("-", "");
+            if (!joined.isEmpty()) {
+                terms.add(joined);
+            }
+        }
+        return terms;
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        String folded = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length()
+                    && (Character.isLetterOrDigit(folded.charAt(i)) || folded.charAt(i) == '-');
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+}
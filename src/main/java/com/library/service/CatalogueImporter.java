@@ -0,0 +1,370 @@
+package com.library.service;
+
+import com.library.model.Book;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+/**
+ * Streaming bulk import of a catalogue file (CSV, or MARC text for *.mrk).
+ *
+ * Records are read one at a time and imported in chunks of CHUNK_SIZE, each
+ * chunk in its own database transaction: validated, de-duplicated by ISBN
+ * (within the chunk and against the catalogue), persisted in JDBC batches
+ * and committed. Refused records go to "file.rejects.csv". After every
+ * commit a checkpoint ("file.checkpoint") records how far the import got,
+ * so running the import again after a failure or cancellation resumes
+ * with the next chunk. One importer runs one import.
+ */
+class CatalogueImporter {
+
+    private static final int CHUNK_SIZE = 1000;
+    // Matches hibernate.jdbc.batch_size
+    private static final int FLUSH_INTERVAL = 50;
+
+    private final SessionFactory sessionFactory;
+    private final Consumer<Book> onImported;
+
+    private long recordsRead;
+    private long imported;
+    private long duplicates;
+    private long rejected;
+
+    CatalogueImporter(SessionFactory sessionFactory, Consumer<Book> onImported) {
+        this.sessionFactory = sessionFactory;
+        this.onImported = onImported;
+    }
+
+    ImportProgress importFile(Path file, ImportListener listener) throws IOException {
+        Path rejectsFile = sibling(file, ".rejects.csv");
+        Path checkpointFile = sibling(file, ".checkpoint");
+        long totalBytes = Files.size(file);
+        long modified = Files.getLastModifiedTime(file).toMillis();
+
+        long resumeAt = readCheckpoint(checkpointFile, totalBytes, modified);
+        if (resumeAt > 0) {
+            System.out.println("Resuming import of " + file.getFileName() + " after " + resumeAt + " records");
+        }
+
+        CountingInputStream bytes = new CountingInputStream(Files.newInputStream(file));
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(bytes, StandardCharsets.UTF_8));
+             Writer rejects = openRejects(rejectsFile, resumeAt > 0);
+             Session session = sessionFactory.openSession()) {
+
+            // A bulk load should not push the rest of the catalogue out of the cache
+            session.setCacheMode(CacheMode.IGNORE);
+            CatalogueReader reader = isMarc(file) ? new MarcCatalogueReader(in) : new CsvCatalogueReader(in);
+
+            List<CatalogueRecord> chunk = new ArrayList<>(CHUNK_SIZE);
+            CatalogueRecord record;
+            long skipped = 0;
+            while ((record = reader.next()) != null) {
+                if (skipped < resumeAt) {
+                    skipped++;
+                    continue;
+                }
+                chunk.add(record);
+                if (chunk.size() == CHUNK_SIZE) {
+                    importChunk(session, chunk, rejects);
+                    saveCheckpoint(checkpointFile, totalBytes, modified);
+                    listener.onProgress(progress(bytes.count, totalBytes, rejectsFile));
+                    chunk.clear();
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new CancellationException("Import cancelled after " + recordsRead + " records");
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(session, chunk, rejects);
+            }
+        }
+
+        Files.deleteIfExists(checkpointFile);
+        ImportProgress result = progress(totalBytes, totalBytes, rejectsFile);
+        listener.onProgress(result);
+        System.out.println("✅ Catalogue import finished: " + imported + " imported, "
+                + duplicates + " duplicates, " + rejected + " rejected");
+        return result;
+    }
+
+    // ==================== CHUNKS ====================
+
+    private void importChunk(Session session, List<CatalogueRecord> chunk, Writer rejects) throws IOException {
+        List<String> refused = new ArrayList<>();
+        Map<String, CatalogueRecord> accepted = new LinkedHashMap<>();
+        long chunkDuplicates = 0;
+        long chunkRejected = 0;
+
+        for (CatalogueRecord record : chunk) {
+            String error = validate(record);
+            if (error != null) {
+                refused.add(rejectLine(record, error));
+                chunkRejected++;
+            } else if (accepted.putIfAbsent(normalizeIsbn(record.isbn()), record) != null) {
+                refused.add(rejectLine(record, "Duplicate ISBN in file"));
+                chunkDuplicates++;
+            }
+        }
+
+        List<Book> books = new ArrayList<>(accepted.size());
+        try {
+            session.beginTransaction();
+
+            Set<String> existing = existingIsbns(session, accepted.keySet());
+            for (Map.Entry<String, CatalogueRecord> entry : accepted.entrySet()) {
+                CatalogueRecord record = entry.getValue();
+                if (existing.contains(entry.getKey())) {
+                    refused.add(rejectLine(record, "ISBN already in catalogue"));
+                    chunkDuplicates++;
+                } else {
+                    books.add(new Book(record.title().strip(), record.author().strip(), entry.getKey(),
+                            blankToNull(record.category()), copies(record.copies())));
+                }
+            }
+
+            int pending = 0;
+            for (Book book : books) {
+                session.persist(book);
+                if (++pending % FLUSH_INTERVAL == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            session.getTransaction().commit();
+            session.clear();
+        } catch (Exception e) {
+            if (session.getTransaction() != null && session.getTransaction().isActive()) {
+                session.getTransaction().rollback();
+            }
+            session.clear();
+            System.err.println("Error importing catalogue near line " + chunk.get(0).line() + ": " + e.getMessage());
+            throw e;
+        }
+
+        // Only counted and reported once the chunk is committed
+        for (String line : refused) {
+            rejects.write(line);
+        }
+        rejects.flush();
+        recordsRead += chunk.size();
+        imported += books.size();
+        duplicates += chunkDuplicates;
+        rejected += chunkRejected;
+        books.forEach(onImported);
+    }
+
+    private static Set<String> existingIsbns(Session session, Set<String> isbns) {
+        if (isbns.isEmpty()) {
+            return Set.of();
+        }
+        // CHUNK_SIZE keeps this within Oracle's 1000-element IN list
+        return Set.copyOf(session.createQuery("SELECT b.isbn FROM Book b WHERE b.isbn IN :isbns", String.class)
+                .setParameterList("isbns", isbns)
+                .list());
+    }
+
+    // ==================== VALIDATION ====================
+
+    // Reason the record cannot be imported, or null if it is valid
+    static String validate(CatalogueRecord record) {
+        if (isBlank(record.title())) {
+            return "Missing title";
+        }
+        if (record.title().strip().length() > 200) {
+            return "Title longer than 200 characters";
+        }
+        if (isBlank(record.author())) {
+            return "Missing author";
+        }
+        if (record.author().strip().length() > 100) {
+            return "Author longer than 100 characters";
+        }
+        if (isBlank(record.isbn())) {
+            return "Missing ISBN";
+        }
+        if (!isValidIsbn(normalizeIsbn(record.isbn()))) {
+            return "Invalid ISBN: " + record.isbn().strip();
+        }
+        if (record.category() != null && record.category().strip().length() > 50) {
+            return "Category longer than 50 characters";
+        }
+        if (copies(record.copies()) == null) {
+            return "Copies must be a whole number from 1 to 10000";
+        }
+        return null;
+    }
+
+    // ISBN without hyphens or spaces, check digit X upper-cased
+    static String normalizeIsbn(String isbn) {
+        if (isbn == null) {
+            return null;
+        }
+        return isbn.replace("-", "").replace(" ", "").strip().toUpperCase(Locale.ROOT);
+    }
+
+    // ISBN-10 or ISBN-13 with a correct check digit
+    static boolean isValidIsbn(String isbn) {
+        if (isbn.length() == 13 && isbn.chars().allMatch(Character::isDigit)) {
+            int sum = 0;
+            for (int i = 0; i < 13; i++) {
+                sum += (isbn.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+            }
+            return sum % 10 == 0;
+        }
+        if (isbn.length() == 10 && isbn.substring(0, 9).chars().allMatch(Character::isDigit)) {
+            char check = isbn.charAt(9);
+            if (!Character.isDigit(check) && check != 'X') {
+                return false;
+            }
+            int sum = 0;
+            for (int i = 0; i < 9; i++) {
+                sum += (isbn.charAt(i) - '0') * (10 - i);
+            }
+            sum += check == 'X' ? 10 : check - '0';
+            return sum % 11 == 0;
+        }
+        return false;
+    }
+
+    // Blank means one copy; null if not a sensible number
+    private static Integer copies(String value) {
+        if (isBlank(value)) {
+            return 1;
+        }
+        try {
+            int copies = Integer.parseInt(value.strip());
+            return copies >= 1 && copies <= 10000 ? copies : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static String blankToNull(String value) {
+        return isBlank(value) ? null : value.strip();
+    }
+
+    // ==================== FILES ====================
+
+    private static boolean isMarc(Path file) {
+        return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".mrk");
+    }
+
+    private static Path sibling(Path file, String suffix) {
+        return file.resolveSibling(file.getFileName() + suffix);
+    }
+
+    private static Writer openRejects(Path rejectsFile, boolean append) throws IOException {
+        Writer writer = Files.newBufferedWriter(rejectsFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+        if (!append) {
+            writer.write("line,reason,record\n");
+        }
+        return writer;
+    }
+
+    private static String rejectLine(CatalogueRecord record, String reason) {
+        return record.line() + "," + quote(reason) + "," + quote(record.raw()) + "\n";
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    // Records already imported, if the checkpoint belongs to this exact file
+    private long readCheckpoint(Path checkpointFile, long size, long modified) throws IOException {
+        if (!Files.exists(checkpointFile)) {
+            return 0;
+        }
+        Properties checkpoint = new Properties();
+        try (Reader in = Files.newBufferedReader(checkpointFile, StandardCharsets.UTF_8)) {
+            checkpoint.load(in);
+        }
+        if (!String.valueOf(size).equals(checkpoint.getProperty("size"))
+                || !String.valueOf(modified).equals(checkpoint.getProperty("modified"))) {
+            System.out.println("Import file changed since the last attempt, starting over");
+            return 0;
+        }
+        recordsRead = Long.parseLong(checkpoint.getProperty("records", "0"));
+        imported = Long.parseLong(checkpoint.getProperty("imported", "0"));
+        duplicates = Long.parseLong(checkpoint.getProperty("duplicates", "0"));
+        rejected = Long.parseLong(checkpoint.getProperty("rejected", "0"));
+        return recordsRead;
+    }
+
+    // Written to a temporary file and moved into place, so a crash never leaves half a checkpoint
+    private void saveCheckpoint(Path checkpointFile, long size, long modified) throws IOException {
+        Properties checkpoint = new Properties();
+        checkpoint.setProperty("size", String.valueOf(size));
+        checkpoint.setProperty("modified", String.valueOf(modified));
+        checkpoint.setProperty("records", String.valueOf(recordsRead));
+        checkpoint.setProperty("imported", String.valueOf(imported));
+        checkpoint.setProperty("duplicates", String.valueOf(duplicates));
+        checkpoint.setProperty("rejected", String.valueOf(rejected));
+
+        Path temp = sibling(checkpointFile, ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            checkpoint.store(out, "Catalogue import checkpoint");
+        }
+        Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private ImportProgress progress(long bytesRead, long totalBytes, Path rejectsFile) {
+        return new ImportProgress(recordsRead, imported, duplicates, rejected, bytesRead, totalBytes, rejectsFile);
+    }
+
+    // Tracks how far into the file the reader is, for progress reporting
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
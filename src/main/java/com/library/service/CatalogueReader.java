@@ -0,0 +1,13 @@
+package com.library.service;
+
+import java.io.IOException;
+
+/**
+ * Reads an import file one record at a time, so memory use does not
+ * depend on the size of the file.
+ */
+interface CatalogueReader {
+
+    // Next record, or null at the end of the file
+    CatalogueRecord next() throws IOException;
+}
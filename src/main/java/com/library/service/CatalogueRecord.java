@@ -0,0 +1,10 @@
+package com.library.service;
+
+/**
+ * One book as read from an import file, before validation.
+ * line is where the record starts in the file; raw is its original text
+ * (written to the rejects file if the record is refused).
+ */
+record CatalogueRecord(long line, String title, String author, String isbn,
+                       String category, String copies, String raw) {
+}
@@ -0,0 +1,5 @@
+package com.library.service;
+
+// All-time loans and fines collected for one book category, with its loans still out
+public record CategoryCirculation(String category, long loans, long openLoans, double finesCollected) {
+}
@@ -0,0 +1,440 @@
+package com.library.service;
+
+import com.library.util.HibernateUtil;
+import com.library.util.LibraryEvent;
+import com.library.util.LibraryEventListener;
+import com.library.util.LibraryLogger;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.sql.Connection;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Circulation figures for the dashboard: loans per title, category and
+ * day, loans out and overdue, fines collected. They are kept in memory
+ * and updated from the issue / return events on the LibraryLogger bus,
+ * so reading them costs the same however long the loan history is.
+ *
+ * start() registers the listener and builds the starting figures in the
+ * background with a few GROUP BY queries, all reading one snapshot. Events
+ * that arrive meanwhile are held and applied afterwards, skipping loans
+ * the queries already counted. Only this application's own issues and
+ * returns are seen: loans written by another process show up after
+ * rebuild().
+ *
+ * Daily and per-title figures cover library.stats.months months (12,
+ * counting the current one), and older ones are dropped as the months
+ * go by; category totals cover the whole history.
+ */
+public class CirculationStatistics implements LibraryEventListener {
+
+    private static final String NO_CATEGORY = "Uncategorized";
+
+    private static final String CATEGORY_QUERY =
+            "SELECT b.category, COUNT(t), SUM(CASE WHEN t.returnDate IS NOT NULL THEN t.fineAmount ELSE 0 END) "
+                    + "FROM Transaction t JOIN t.book b GROUP BY b.category";
+    // The date range conditions match index idx_txn_issue_date / idx_txn_return_date (migration V3)
+    private static final String ISSUED_PER_DAY_QUERY =
+            "SELECT t.issueDate, COUNT(t) FROM Transaction t WHERE t.issueDate >= :from GROUP BY t.issueDate";
+    private static final String RETURNED_PER_DAY_QUERY =
+            "SELECT t.returnDate, COUNT(t), SUM(t.fineAmount) FROM Transaction t "
+                    + "WHERE t.returnDate >= :from GROUP BY t.returnDate";
+    private static final String TITLE_LOANS_QUERY =
+            "SELECT b.bookId, b.title, b.category, year(t.issueDate), month(t.issueDate), COUNT(t) "
+                    + "FROM Transaction t JOIN t.book b WHERE t.issueDate >= :from "
+                    + "GROUP BY b.bookId, b.title, b.category, year(t.issueDate), month(t.issueDate)";
+    private static final String OPEN_LOANS_QUERY =
+            "SELECT t.transactionId, b.category, t.dueDate FROM Transaction t JOIN t.book b "
+                    + "WHERE t.status IN ('ISSUED', 'OVERDUE')";
+    private static final String RECENT_LOANS_QUERY =
+            "SELECT t.transactionId FROM Transaction t WHERE t.issueDate >= :since";
+
+    private static final CirculationStatistics INSTANCE = new CirculationStatistics();
+
+    private final int months;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicBoolean building = new AtomicBoolean();
+    // Replaced by a completed future once a build succeeds after a failed one
+    private volatile CompletableFuture<Void> ready = new CompletableFuture<>();
+
+    // Guarded by this; events are held in pending while a build is running
+    private Rollups rollups;
+    private final List<HeldEvent> pending = new ArrayList<>();
+
+    private CirculationStatistics() {
+        this.months = Math.max(1, Integer.getInteger("library.stats.months", 12));
+        this.rollups = new Rollups(firstMonth(LocalDate.now()));
+    }
+
+    public static CirculationStatistics getInstance() {
+        return INSTANCE;
+    }
+
+    // Built on first use by the build thread (see HibernateUtil), so start() never waits for it
+    private static SessionFactory sessionFactory() {
+        SessionFactory factory = HibernateUtil.getSessionFactory();
+        if (factory == null) {
+            throw new IllegalStateException("Database not available");
+        }
+        return factory;
+    }
+
+    // ==================== LIFECYCLE ====================
+
+    // Starts following the event bus and builds the starting figures in the background
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        LibraryLogger.getInstance().addListener(this);
+        Thread builder = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                System.err.println("❌ Circulation statistics not available: " + e.getMessage());
+            }
+        }, "library-stats-build");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    /**
+     * Completes once the starting figures are in. Fails while no build has
+     * succeeded yet (e.g. the database was down); the next successful
+     * rebuild() makes later calls complete normally. Cancelling the
+     * returned future does not affect the statistics.
+     */
+    public CompletableFuture<Void> whenReady() {
+        return ready.copy();
+    }
+
+    /**
+     * Recomputes every figure from the database, e.g. to pick up loans made
+     * by another desk. Blocks until done; throws IllegalStateException if a
+     * rebuild is already running.
+     */
+    public void rebuild() {
+        if (!building.compareAndSet(false, true)) {
+            throw new IllegalStateException("Circulation statistics are already being rebuilt");
+        }
+        long start = System.currentTimeMillis();
+        Rollups built = null;
+        try {
+            built = load(LocalDate.now());
+        } catch (RuntimeException e) {
+            ready.completeExceptionally(e);
+            throw e;
+        } finally {
+            // On failure the held events still count, on top of the figures we had
+            synchronized (this) {
+                if (built != null) {
+                    rollups = built;
+                }
+                pending.forEach(this::apply);
+                pending.clear();
+                building.set(false);
+            }
+        }
+        if (!ready.complete(null) && ready.isCompletedExceptionally()) {
+            ready = CompletableFuture.completedFuture(null);
+        }
+        System.out.println("✅ Circulation statistics built in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    // ==================== EVENTS ====================
+
+    @Override
+    public synchronized void onEvent(LibraryEvent event) {
+        if (event.getType() == LibraryEvent.Type.FINE_ASSESSED) {
+            // The fine already came with BOOK_RETURNED
+            return;
+        }
+        long day = LocalDate.ofInstant(Instant.ofEpochMilli(event.getTimestamp()), zone).toEpochDay();
+        if (building.get()) {
+            pending.add(new HeldEvent(event.getType(), day, event.getTransactionId(), event.getBookId(),
+                    event.getBookTitle(), event.getBookCategory(), event.getDueDate(), event.getFine()));
+        } else {
+            apply(event.getType(), day, event.getTransactionId(), event.getBookId(), event.getBookTitle(),
+                    event.getBookCategory(), event.getDueDate(), event.getFine());
+        }
+    }
+
+    // An event copied while a rebuild runs (the LibraryEvent itself is reused)
+    private record HeldEvent(LibraryEvent.Type type, long day, long transactionId, long bookId,
+                             String title, String category, LocalDate dueDate, double fine) {
+    }
+
+    private void apply(HeldEvent event) {
+        apply(event.type, event.day, event.transactionId, event.bookId, event.title,
+                event.category, event.dueDate, event.fine);
+    }
+
+    private void apply(LibraryEvent.Type type, long day, long transactionId, long bookId,
+                       String title, String category, LocalDate dueDate, double fine) {
+        rollups.slide(firstMonth(LocalDate.ofEpochDay(day)), day);
+        if (type == LibraryEvent.Type.BOOK_ISSUED) {
+            rollups.issued(transactionId, day, bookId, title, category, dueDate);
+        } else if (type == LibraryEvent.Type.BOOK_RETURNED) {
+            rollups.returned(transactionId, day, fine);
+        }
+    }
+
+    // ==================== QUERIES ====================
+
+    public synchronized CirculationSummary getSummary(LocalDate today) {
+        long loans = 0;
+        long open = 0;
+        double fines = 0;
+        for (CategoryTotals totals : rollups.categories.values()) {
+            loans += totals.loans;
+            open += totals.openLoans;
+            fines += totals.fines;
+        }
+        long overdue = 0;
+        for (int count : rollups.openByDueDay.headMap(today.toEpochDay()).values()) {
+            overdue += count;
+        }
+        return new CirculationSummary(loans, open, overdue, fines);
+    }
+
+    // Most borrowed titles in a month, most loans first (empty for months outside the window)
+    public synchronized List<TitleLoans> getTopTitles(YearMonth month, int limit) {
+        Map<Long, long[]> loans = rollups.titleLoans.get(month);
+        if (loans == null || limit <= 0) {
+            return List.of();
+        }
+        Comparator<Map.Entry<Long, long[]>> byLoans = Comparator.comparingLong(entry -> entry.getValue()[0]);
+        PriorityQueue<Map.Entry<Long, long[]>> top = new PriorityQueue<>(limit + 1, byLoans);
+        for (Map.Entry<Long, long[]> entry : loans.entrySet()) {
+            top.add(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<TitleLoans> result = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            Map.Entry<Long, long[]> entry = top.poll();
+            TitleInfo info = rollups.titles.get(entry.getKey());
+            result.add(new TitleLoans(entry.getKey(), info != null ? info.title : null,
+                    info != null ? info.category : NO_CATEGORY, entry.getValue()[0]));
+        }
+        return result.reversed();
+    }
+
+    // Every category, most loans first
+    public synchronized List<CategoryCirculation> getCategories() {
+        List<CategoryCirculation> result = new ArrayList<>(rollups.categories.size());
+        for (CategoryTotals totals : rollups.categories.values()) {
+            result.add(new CategoryCirculation(totals.name, totals.loans, totals.openLoans, totals.fines));
+        }
+        result.sort(Comparator.comparingLong(CategoryCirculation::loans).reversed());
+        return result;
+    }
+
+    // One entry per day from..to, days without activity included (zero outside the window)
+    public synchronized List<DailyCirculation> getDaily(LocalDate from, LocalDate to) {
+        List<DailyCirculation> result = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            DayTotals totals = rollups.days.get(date.toEpochDay());
+            result.add(totals != null
+                    ? new DailyCirculation(date, totals.issued, totals.returned, totals.fines)
+                    : new DailyCirculation(date, 0, 0, 0));
+        }
+        return result;
+    }
+
+    // ==================== BUILDING ====================
+
+    private YearMonth firstMonth(LocalDate today) {
+        return YearMonth.from(today).minusMonths(months - 1);
+    }
+
+    // The starting figures, from GROUP BY queries in one read-only transaction
+    private Rollups load(LocalDate today) {
+        Rollups built = new Rollups(firstMonth(today));
+        built.builtOn = today.toEpochDay();
+        LocalDate from = built.firstMonth.atDay(1);
+        try (StatelessSession session = sessionFactory().openStatelessSession()) {
+            session.beginTransaction();
+            try {
+                // One snapshot for every query, so the loans counted are exactly those listed below
+                // (the pool resets the isolation level when the connection is returned)
+                session.doWork(connection -> connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE));
+
+                for (Object[] row : session.createQuery(CATEGORY_QUERY, Object[].class).list()) {
+                    CategoryTotals totals = built.category((String) row[0]);
+                    totals.loans += (Long) row[1];
+                    totals.fines += number(row[2]);
+                }
+                for (Object[] row : session.createQuery(ISSUED_PER_DAY_QUERY, Object[].class)
+                        .setParameter("from", from).list()) {
+                    built.day(((LocalDate) row[0]).toEpochDay()).issued += (Long) row[1];
+                }
+                for (Object[] row : session.createQuery(RETURNED_PER_DAY_QUERY, Object[].class)
+                        .setParameter("from", from).list()) {
+                    DayTotals totals = built.day(((LocalDate) row[0]).toEpochDay());
+                    totals.returned += (Long) row[1];
+                    totals.fines += number(row[2]);
+                }
+                for (Object[] row : session.createQuery(TITLE_LOANS_QUERY, Object[].class)
+                        .setParameter("from", from).list()) {
+                    Long bookId = (Long) row[0];
+                    built.title(bookId, (String) row[1], (String) row[2]);
+                    YearMonth month = YearMonth.of(((Number) row[3]).intValue(), ((Number) row[4]).intValue());
+                    built.titleLoans.computeIfAbsent(month, m -> new HashMap<>())
+                            .computeIfAbsent(bookId, id -> new long[1])[0] += (Long) row[5];
+                }
+
+                // A return committed after the snapshot is still to come as an event
+                for (Object[] row : session.createQuery(OPEN_LOANS_QUERY, Object[].class).list()) {
+                    built.open((Long) row[0], built.category((String) row[1]), (LocalDate) row[2]);
+                }
+                // Loans counted above whose issue event may still be on its way (they were just made)
+                built.countedRecently.addAll(session.createQuery(RECENT_LOANS_QUERY, Long.class)
+                        .setParameter("since", today.minusDays(1))
+                        .list());
+                session.getTransaction().commit();
+            } catch (RuntimeException e) {
+                if (session.getTransaction().isActive()) {
+                    session.getTransaction().rollback();
+                }
+                throw e;
+            }
+        }
+        return built;
+    }
+
+    private static double number(Object value) {
+        return value != null ? ((Number) value).doubleValue() : 0;
+    }
+
+    // ==================== ROLLUPS ====================
+
+    private static final class CategoryTotals {
+        final String name;
+        long loans;
+        long openLoans;
+        double fines;
+
+        CategoryTotals(String name) {
+            this.name = name;
+        }
+    }
+
+    private static final class DayTotals {
+        long issued;
+        long returned;
+        double fines;
+    }
+
+    private record TitleInfo(String title, String category) {
+    }
+
+    // A loan still out: counted in openByDueDay and in its category until returned
+    private record OpenLoan(CategoryTotals category, long dueDay) {
+    }
+
+    private static final class Rollups {
+        YearMonth firstMonth;
+        long firstDay;
+        final Map<String, CategoryTotals> categories = new HashMap<>();
+        final Map<Long, OpenLoan> openLoans = new HashMap<>();
+        // Open loans per due date (epoch day): overdue = every due date before today
+        final TreeMap<Long, Integer> openByDueDay = new TreeMap<>();
+        final TreeMap<Long, DayTotals> days = new TreeMap<>();
+        final TreeMap<YearMonth, Map<Long, long[]>> titleLoans = new TreeMap<>();
+        final Map<Long, TitleInfo> titles = new HashMap<>();
+        // Loans issued since the day before the build that the queries counted; their events are skipped
+        final Set<Long> countedRecently = new HashSet<>();
+        long builtOn;
+
+        Rollups(YearMonth firstMonth) {
+            this.firstMonth = firstMonth;
+            this.firstDay = firstMonth.atDay(1).toEpochDay();
+        }
+
+        // Drops daily and per-title figures that fell out of the window, and build ids no event can still need
+        void slide(YearMonth first, long today) {
+            if (!countedRecently.isEmpty() && today > builtOn + 1) {
+                countedRecently.clear();
+            }
+            if (!first.isAfter(firstMonth)) {
+                return;
+            }
+            firstMonth = first;
+            firstDay = first.atDay(1).toEpochDay();
+            days.headMap(firstDay).clear();
+            titleLoans.headMap(first).clear();
+            titles.keySet().removeIf(bookId -> titleLoans.values().stream().noneMatch(loans -> loans.containsKey(bookId)));
+        }
+
+        CategoryTotals category(String name) {
+            return categories.computeIfAbsent(name != null ? name : NO_CATEGORY, CategoryTotals::new);
+        }
+
+        DayTotals day(long epochDay) {
+            return days.computeIfAbsent(epochDay, d -> new DayTotals());
+        }
+
+        void title(long bookId, String title, String category) {
+            titles.put(bookId, new TitleInfo(title, category != null ? category : NO_CATEGORY));
+        }
+
+        void open(long transactionId, CategoryTotals category, LocalDate dueDate) {
+            long dueDay = dueDate != null ? dueDate.toEpochDay() : Long.MAX_VALUE;
+            openLoans.put(transactionId, new OpenLoan(category, dueDay));
+            openByDueDay.merge(dueDay, 1, Integer::sum);
+            category.openLoans++;
+        }
+
+        void issued(long transactionId, long day, long bookId, String title, String category, LocalDate dueDate) {
+            if (countedRecently.contains(transactionId) || openLoans.containsKey(transactionId)) {
+                return;
+            }
+            CategoryTotals totals = category(category);
+            totals.loans++;
+            open(transactionId, totals, dueDate);
+            if (day >= firstDay) {
+                day(day).issued++;
+                if (title != null || !titles.containsKey(bookId)) {
+                    title(bookId, title, category);
+                }
+                YearMonth month = YearMonth.from(LocalDate.ofEpochDay(day));
+                titleLoans.computeIfAbsent(month, m -> new HashMap<>())
+                        .computeIfAbsent(bookId, id -> new long[1])[0]++;
+            }
+        }
+
+        // Only loans known to be out count, so a return the queries already saw is skipped
+        void returned(long transactionId, long day, double fine) {
+            OpenLoan loan = openLoans.remove(transactionId);
+            if (loan == null) {
+                return;
+            }
+            openByDueDay.computeIfPresent(loan.dueDay(), (dueDay, count) -> count > 1 ? count - 1 : null);
+            loan.category().openLoans--;
+            loan.category().fines += fine;
+            if (day >= firstDay) {
+                DayTotals totals = day(day);
+                totals.returned++;
+                totals.fines += fine;
+            }
+        }
+    }
+}
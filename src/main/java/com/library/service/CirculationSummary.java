@@ -0,0 +1,8 @@
+package com.library.service;
+
+/**
+ * Headline circulation figures (see CirculationStatistics).
+ * finesCollected is the total of fines charged on returned loans.
+ */
+public record CirculationSummary(long loans, long openLoans, long overdueLoans, double finesCollected) {
+}
@@ -0,0 +1,390 @@
+package com.library.service;
+
+import com.library.model.Book;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * The book catalogue held column by column instead of as Book entities:
+ * ids in a sorted long[], copy counts in int[]s, authors and categories as
+ * int codes into shared dictionaries (each distinct name stored once),
+ * titles and ISBNs as length-prefixed UTF-8 in one byte[]. A book costs
+ * a few dozen bytes plus its text, against several hundred as an entity.
+ *
+ * Rows are found by binary search on the id column. Books are turned back
+ * into (detached) Book objects only when asked for, e.g. for one page of
+ * search results.
+ *
+ * Reads are optimistic (StampedLock) and only take the read lock if they
+ * raced a write; writes are serialized.
+ */
+public class CompactCatalogue {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    // Marks a null title/ISBN offset or author/category code
+    private static final int NONE = -1;
+
+    private final StampedLock lock = new StampedLock();
+
+    // Columns, one entry per row, rows in id order
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] titles = new int[INITIAL_CAPACITY];
+    private int[] isbns = new int[INITIAL_CAPACITY];
+    private int[] authors = new int[INITIAL_CAPACITY];
+    private int[] categories = new int[INITIAL_CAPACITY];
+    private int[] totalCopies = new int[INITIAL_CAPACITY];
+    private int[] availableCopies = new int[INITIAL_CAPACITY];
+    // createdAt as nanoseconds since the epoch (UTC); Long.MIN_VALUE for none
+    private long[] created = new long[INITIAL_CAPACITY];
+    private int size;
+
+    private final Dictionary authorNames = new Dictionary();
+    private final Dictionary categoryNames = new Dictionary();
+
+    // Titles and ISBNs: a 2-byte length, then the UTF-8 bytes
+    private byte[] text = new byte[INITIAL_CAPACITY * 32];
+    private int textUsed;
+    // Bytes of replaced or removed strings, reclaimed by compactText()
+    private int textWasted;
+
+    // Each distinct string once, referenced by its code
+    private static final class Dictionary {
+        private String[] values = new String[64];
+        private int size;
+        private final Map<String, Integer> codes = new HashMap<>();
+
+        int codeOf(String value) {
+            if (value == null) {
+                return NONE;
+            }
+            Integer code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size] = value;
+            codes.put(value, size);
+            return size++;
+        }
+
+        String valueOf(int code) {
+            return code == NONE ? null : values[code];
+        }
+
+        long footprintBytes() {
+            long bytes = 16L + values.length * 4L;
+            for (int i = 0; i < size; i++) {
+                // String + its byte[] (Latin-1), plus the HashMap entry and boxed code
+                bytes += 40 + values[i].length() + 48;
+            }
+            return bytes;
+        }
+    }
+
+    // ==================== MAINTENANCE ====================
+
+    // Adds the book, or replaces its row
+    public void put(Book book) {
+        if (book == null || book.getBookId() == null) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            long id = book.getBookId();
+            int row = Arrays.binarySearch(ids, 0, size, id);
+            if (row < 0) {
+                row = insertRow(-row - 1, id);
+                titles[row] = NONE;
+                isbns[row] = NONE;
+            }
+            replaceText(titles, row, book.getTitle());
+            replaceText(isbns, row, book.getIsbn());
+            authors[row] = authorNames.codeOf(book.getAuthor());
+            categories[row] = categoryNames.codeOf(book.getCategory());
+            totalCopies[row] = book.getTotalCopies() != null ? book.getTotalCopies() : 0;
+            availableCopies[row] = book.getAvailableCopies() != null ? book.getAvailableCopies() : 0;
+            created[row] = toNanos(book.getCreatedAt());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // A copy count changed without the rest of the book being reloaded
+    public void setAvailableCopies(long bookId, int copies) {
+        long stamp = lock.writeLock();
+        try {
+            int row = Arrays.binarySearch(ids, 0, size, bookId);
+            if (row >= 0) {
+                availableCopies[row] = copies;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void remove(long bookId) {
+        long stamp = lock.writeLock();
+        try {
+            int row = Arrays.binarySearch(ids, 0, size, bookId);
+            if (row < 0) {
+                return;
+            }
+            textWasted += textLength(titles[row]) + textLength(isbns[row]);
+            int tail = size - row - 1;
+            System.arraycopy(ids, row + 1, ids, row, tail);
+            System.arraycopy(titles, row + 1, titles, row, tail);
+            System.arraycopy(isbns, row + 1, isbns, row, tail);
+            System.arraycopy(authors, row + 1, authors, row, tail);
+            System.arraycopy(categories, row + 1, categories, row, tail);
+            System.arraycopy(totalCopies, row + 1, totalCopies, row, tail);
+            System.arraycopy(availableCopies, row + 1, availableCopies, row, tail);
+            System.arraycopy(created, row + 1, created, row, tail);
+            size--;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Releases the spare capacity left by growing, e.g. after the bulk load
+    public void trimToSize() {
+        long stamp = lock.writeLock();
+        try {
+            int capacity = Math.max(size, 16);
+            ids = Arrays.copyOf(ids, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+            isbns = Arrays.copyOf(isbns, capacity);
+            authors = Arrays.copyOf(authors, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            totalCopies = Arrays.copyOf(totalCopies, capacity);
+            availableCopies = Arrays.copyOf(availableCopies, capacity);
+            created = Arrays.copyOf(created, capacity);
+            if (textWasted > 0) {
+                compactText();
+            }
+            text = Arrays.copyOf(text, textUsed);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // ==================== QUERIES ====================
+
+    public int size() {
+        return read(() -> size);
+    }
+
+    public boolean contains(long bookId) {
+        return read(() -> Arrays.binarySearch(ids, 0, size, bookId) >= 0);
+    }
+
+    // The book as a new detached Book, or null if it is not in the catalogue
+    public Book get(long bookId) {
+        return read(() -> {
+            int row = Arrays.binarySearch(ids, 0, size, bookId);
+            return row >= 0 ? toBook(row) : null;
+        });
+    }
+
+    // The books of the given ids that are in the catalogue, in the same order
+    public List<Book> getAll(List<Long> bookIds) {
+        return read(() -> {
+            List<Book> books = new ArrayList<>(bookIds.size());
+            for (Long bookId : bookIds) {
+                int row = Arrays.binarySearch(ids, 0, size, bookId);
+                if (row >= 0) {
+                    books.add(toBook(row));
+                }
+            }
+            return books;
+        });
+    }
+
+    // Up to limit books with ids above afterId, in id order (a page at a time over the whole catalogue)
+    public List<Book> after(long afterId, int limit) {
+        return read(() -> {
+            int row = Arrays.binarySearch(ids, 0, size, afterId);
+            row = row >= 0 ? row + 1 : -row - 1;
+            List<Book> books = new ArrayList<>(Math.max(0, Math.min(limit, size - row)));
+            for (; row < size && books.size() < limit; row++) {
+                books.add(toBook(row));
+            }
+            return books;
+        });
+    }
+
+    // Approximate heap used by the columns, dictionaries and text (for the logs and benchmarks)
+    public long footprintBytes() {
+        return read(() -> 16L * 8 + ids.length * 8L * 2 + ids.length * 4L * 6
+                + 16L + text.length + authorNames.footprintBytes() + categoryNames.footprintBytes());
+    }
+
+    /**
+     * Runs a read optimistically; if a write happened meanwhile (its result
+     * may then be torn, or it may have failed on arrays being resized) it is
+     * run again under the read lock.
+     */
+    private <T> T read(Supplier<T> reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = reader.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException raced) {
+                if (lock.validate(stamp)) {
+                    throw raced;
+                }
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private Book toBook(int row) {
+        Book book = new Book();
+        book.setBookId(ids[row]);
+        book.setTitle(readText(titles[row]));
+        book.setIsbn(readText(isbns[row]));
+        book.setAuthor(authorNames.valueOf(authors[row]));
+        book.setCategory(categoryNames.valueOf(categories[row]));
+        book.setTotalCopies(totalCopies[row]);
+        book.setAvailableCopies(availableCopies[row]);
+        book.setCreatedAt(fromNanos(created[row]));
+        return book;
+    }
+
+    // ==================== STORAGE ====================
+
+    // Opens a row at index for id, growing the columns when full
+    private int insertRow(int index, long id) {
+        if (size == ids.length) {
+            int capacity = Math.max(ids.length * 2, 16);
+            ids = Arrays.copyOf(ids, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+            isbns = Arrays.copyOf(isbns, capacity);
+            authors = Arrays.copyOf(authors, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            totalCopies = Arrays.copyOf(totalCopies, capacity);
+            availableCopies = Arrays.copyOf(availableCopies, capacity);
+            created = Arrays.copyOf(created, capacity);
+        }
+        // Ids come from a sequence, so nearly every new book goes at the end
+        int tail = size - index;
+        if (tail > 0) {
+            System.arraycopy(ids, index, ids, index + 1, tail);
+            System.arraycopy(titles, index, titles, index + 1, tail);
+            System.arraycopy(isbns, index, isbns, index + 1, tail);
+            System.arraycopy(authors, index, authors, index + 1, tail);
+            System.arraycopy(categories, index, categories, index + 1, tail);
+            System.arraycopy(totalCopies, index, totalCopies, index + 1, tail);
+            System.arraycopy(availableCopies, index, availableCopies, index + 1, tail);
+            System.arraycopy(created, index, created, index + 1, tail);
+        }
+        ids[index] = id;
+        size++;
+        return index;
+    }
+
+    // Points column[row] at value in the text area, reusing the current bytes when unchanged
+    private void replaceText(int[] column, int row, String value) {
+        int offset = column[row];
+        if (value == null) {
+            textWasted += textLength(offset);
+            column[row] = NONE;
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (offset != NONE && Arrays.equals(text, offset + 2, offset + textLength(offset), bytes, 0, bytes.length)) {
+            return;
+        }
+        textWasted += textLength(offset);
+        // Unlinked before compacting, so the replaced string is dropped rather than copied
+        column[row] = NONE;
+        if (textWasted > INITIAL_CAPACITY * 32 && textWasted > textUsed / 2) {
+            compactText();
+        }
+        column[row] = appendText(bytes);
+    }
+
+    private int appendText(byte[] bytes) {
+        // Columns are at most 200 characters, well within a 2-byte length
+        int length = Math.min(bytes.length, 0xFFFF);
+        if (textUsed + 2 + length > text.length) {
+            text = Arrays.copyOf(text, Math.max(text.length * 2, textUsed + 2 + length + 1024));
+        }
+        int offset = textUsed;
+        text[offset] = (byte) (length >>> 8);
+        text[offset + 1] = (byte) length;
+        System.arraycopy(bytes, 0, text, offset + 2, length);
+        textUsed += 2 + length;
+        return offset;
+    }
+
+    // Copies the live strings into a new text area, dropping replaced ones
+    private void compactText() {
+        byte[] old = text;
+        text = new byte[Math.max(INITIAL_CAPACITY * 32, textUsed - textWasted)];
+        textUsed = 0;
+        textWasted = 0;
+        for (int row = 0; row < size; row++) {
+            titles[row] = copyText(old, titles[row]);
+            isbns[row] = copyText(old, isbns[row]);
+        }
+    }
+
+    private int copyText(byte[] from, int offset) {
+        if (offset == NONE) {
+            return NONE;
+        }
+        int length = ((from[offset] & 0xFF) << 8) | (from[offset + 1] & 0xFF);
+        return appendText(Arrays.copyOfRange(from, offset + 2, offset + 2 + length));
+    }
+
+    // Bytes the string takes in the text area, prefix included
+    private int textLength(int offset) {
+        if (offset == NONE) {
+            return 0;
+        }
+        return 2 + (((text[offset] & 0xFF) << 8) | (text[offset + 1] & 0xFF));
+    }
+
+    private String readText(int offset) {
+        if (offset == NONE) {
+            return null;
+        }
+        return new String(text, offset + 2, textLength(offset) - 2, StandardCharsets.UTF_8);
+    }
+
+    private static long toNanos(LocalDateTime time) {
+        if (time == null) {
+            return Long.MIN_VALUE;
+        }
+        Instant instant = time.toInstant(ZoneOffset.UTC);
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    private static LocalDateTime fromNanos(long nanos) {
+        if (nanos == Long.MIN_VALUE) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+}
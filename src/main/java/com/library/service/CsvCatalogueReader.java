@@ -0,0 +1,119 @@
+package com.library.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streams books from a CSV file (RFC 4180 quoting, quoted fields may span lines).
+ * The first row names the columns, in any order:
+ * title, author, isbn (required), category, copies (optional).
+ */
+class CsvCatalogueReader implements CatalogueReader {
+
+    private static final String[] COLUMNS = {"title", "author", "isbn", "category", "copies"};
+
+    private final BufferedReader in;
+    private long line = 1;
+    private int[] columnIndex;
+
+    CsvCatalogueReader(BufferedReader in) {
+        this.in = in;
+    }
+
+    @Override
+    public CatalogueRecord next() throws IOException {
+        if (columnIndex == null) {
+            readHeader();
+        }
+        while (true) {
+            long start = line;
+            StringBuilder raw = new StringBuilder();
+            List<String> fields = readRow(raw);
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            return new CatalogueRecord(start, column(fields, 0), column(fields, 1), column(fields, 2),
+                    column(fields, 3), column(fields, 4), raw.toString());
+        }
+    }
+
+    private void readHeader() throws IOException {
+        List<String> header = readRow(new StringBuilder());
+        if (header == null) {
+            throw new IOException("CSV file is empty");
+        }
+        columnIndex = new int[COLUMNS.length];
+        for (int c = 0; c < COLUMNS.length; c++) {
+            columnIndex[c] = -1;
+            for (int i = 0; i < header.size(); i++) {
+                String name = header.get(i).strip().toLowerCase(Locale.ROOT).replace("\uFEFF", "");
+                if (name.equals(COLUMNS[c]) || (c == 4 && name.equals("total_copies"))) {
+                    columnIndex[c] = i;
+                }
+            }
+        }
+        if (columnIndex[0] < 0 || columnIndex[1] < 0 || columnIndex[2] < 0) {
+            throw new IOException("CSV header must name the title, author and isbn columns");
+        }
+    }
+
+    private String column(List<String> fields, int column) {
+        int index = columnIndex[column];
+        return index >= 0 && index < fields.size() ? fields.get(index) : null;
+    }
+
+    // One row's fields, or null at the end of the file; raw receives the row's text
+    private List<String> readRow(StringBuilder raw) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+
+        int c;
+        while ((c = in.read()) != -1) {
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    in.mark(1);
+                    if (in.read() == '"') {
+                        field.append('"');
+                        raw.append('"');
+                    } else {
+                        in.reset();
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+                raw.append((char) c);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+                raw.append('"');
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                raw.append(',');
+            } else if (c == '\n') {
+                line++;
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+                raw.append((char) c);
+            }
+        }
+        if (!any) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,7 @@
+package com.library.service;
+
+import java.time.LocalDate;
+
+// Loans issued and returned on one day, and the fines charged on those returns
+public record DailyCirculation(LocalDate date, long issued, long returned, double fines) {
+}
@@ -1,265 +1,611 @@
 package com.library.service;
+import com.library.metrics.Operation;
+import com.library.metrics.OperationMetrics;
 import com.library.util.LibraryLogger;
 import com.library.model.Book;
 import com.library.model.Member;
+import com.library.model.Reservation;
 import com.library.model.Transaction;
 import com.library.util.HibernateUtil;
+import jakarta.persistence.LockModeType;
+import org.hibernate.LockMode;
+import org.hibernate.PessimisticLockException;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.exception.LockAcquisitionException;
 import org.hibernate.query.Query;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 public class DatabaseService {
 
-    private static DatabaseService instance;
-    private final SessionFactory sessionFactory;
+    // Retries for lock conflicts on issue/return
+    private static final int MAX_LOCK_ATTEMPTS = 3;
+    private static final int IN_CLAUSE_LIMIT = 1000;
+
+    // Second-level query cache region for catalogue lists (see application.conf)
+    private static final String CATALOGUE_QUERY_REGION = "library-catalogue-queries";
+
+    // How long a copy set aside for a hold waits to be collected
+    private static final int HOLD_PICKUP_DAYS = Integer.getInteger("library.holds.pickup_days", 3);
+
+    // Loads a transaction's book and member in the same select (avoids N+1)
+    private static final String TRANSACTION_WITH_BOOK_AND_MEMBER =
+            "SELECT t FROM Transaction t JOIN FETCH t.book JOIN FETCH t.member";
+
+    // Eagerly created on class load, safe to share across threads
+    private static final DatabaseService INSTANCE = new DatabaseService();
+
+    /*
+     * In-memory catalogue: the books in compact columnar form, their search
+     * index and the availability snapshot (copies on the shelf by book id,
+     * read without locks or queries). Loaded together at startup (from the
+     * database or a snapshot file), or on first use, and kept in sync by
+     * the write methods. A reload builds new ones and swaps them in.
+     */
+    private static final int SEARCH_LIMIT = 200;
+    private static final int INDEX_LOAD_BATCH = 5000;
+    private final Object catalogueLock = new Object();
+    private volatile CompactCatalogue catalogue = new CompactCatalogue();
+    private volatile BookSearchIndex bookIndex = new BookSearchIndex();
+    private volatile AvailabilityMap availability = new AvailabilityMap();
+    private volatile boolean catalogueLoaded;
+    // Books committed while a load from the database runs; read again once it is swapped in
+    private volatile Set<Long> booksChangedDuringLoad;
+
+    // Typeahead member lookup, built on first search and kept in sync by the write methods
+    private static final int MEMBER_SEARCH_LIMIT = 20;
+    private final Object memberIndexLock = new Object();
+    private volatile MemberSearchIndex memberIndex = new MemberSearchIndex();
+    private volatile boolean memberIndexLoaded;
+    private volatile Set<Long> membersChangedDuringLoad;
+
+    /*
+     * Started from a snapshot file (see loadSnapshot): book, member and
+     * open loan lists are served from it until reconcileSnapshot() has
+     * reloaded from the database, or until the first committed write
+     * (see stopServingSnapshot).
+     */
+    private volatile boolean servingSnapshot;
+    private volatile List<Transaction> snapshotLoans;
+
+    // Active holds by book, loaded on first use and kept in sync by the hold-aware methods
+    private final HoldQueues holdQueues = new HoldQueues();
+    private volatile boolean holdQueuesLoaded;
+
+    private final OperationMetrics metrics = OperationMetrics.getInstance();
+
+    // The unit of work the current thread is inside, if any (see inUnitOfWork)
+    private final ThreadLocal<UnitOfWork> currentUnit = new ThreadLocal<>();
 
     // Private constructor (Singleton)
     private DatabaseService() {
-        this.sessionFactory = HibernateUtil.getSessionFactory();
     }
 
     // Get Singleton instance
     public static DatabaseService getInstance() {
-        if (instance == null) {
-            instance = new DatabaseService();
+        return INSTANCE;
+    }
+
+    // Built on first use (see HibernateUtil), so a warm start from a snapshot doesn't wait for it
+    private static SessionFactory sessionFactory() {
+        SessionFactory factory = HibernateUtil.getSessionFactory();
+        if (factory == null) {
+            throw new IllegalStateException("Database not available");
         }
-        return instance;
+        return factory;
     }
 
-    // ==================== BOOK OPERATIONS ====================
+    // ==================== UNIT OF WORK ====================
 
-    public void addBook(Book book) {
-        Session session = sessionFactory.openSession();
+    /**
+     * Runs work with every DatabaseService call it makes on this thread
+     * sharing one Session and one database transaction: entities loaded by
+     * one call are reused by the next from the first-level cache, and the
+     * whole unit commits at the end or not at all. A failed call inside the
+     * unit rolls everything back, even if work catches its exception.
+     * Entities returned inside the unit are managed, so changes made to them
+     * there are saved on commit. A nested call joins the outer unit.
+     *
+     * Search index updates and circulation events are only published once
+     * the unit has committed.
+     */
+    public <T> T inUnitOfWork(Supplier<T> work) {
+        if (currentUnit.get() != null) {
+            return work.get();
+        }
+        UnitOfWork unit = new UnitOfWork(sessionFactory().openSession());
+        currentUnit.set(unit);
         try {
-            session.beginTransaction();
-            session.persist(book);
-            session.getTransaction().commit();
-            System.out.println("Book added: " + book.getTitle());
-        } catch (Exception e) {
-            if (session.getTransaction() != null) {
-                session.getTransaction().rollback();
-            }
-            System.err.println("Error adding book: " + e.getMessage());
+            T result = work.get();
+            unit.commit();
+            return result;
+        } catch (RuntimeException | Error e) {
+            unit.rollback();
+            System.err.println("Error in unit of work: " + e.getMessage());
             throw e;
         } finally {
-            session.close();
+            currentUnit.remove();
+            unit.close();
         }
     }
 
-    public Book getBookById(Long id) {
-        Session session = sessionFactory.openSession();
-        try {
-            return session.get(Book.class, id);
-        } finally {
+    public void inUnitOfWork(Runnable work) {
+        inUnitOfWork(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    // The current unit's session, or a new session of the operation's own
+    private Session openSession() {
+        UnitOfWork unit = currentUnit.get();
+        return unit != null ? unit.session() : sessionFactory().openSession();
+    }
+
+    private void begin(Session session) {
+        if (currentUnit.get() == null) {
+            session.beginTransaction();
+        }
+    }
+
+    // Inside a unit only flushes, so constraint errors still surface in the failing call
+    private void commit(Session session) {
+        if (currentUnit.get() != null) {
+            session.flush();
+        } else {
+            session.getTransaction().commit();
+        }
+        if (servingSnapshot) {
+            afterCommit(this::stopServingSnapshot);
+        }
+    }
+
+    private void rollback(Session session) {
+        UnitOfWork unit = currentUnit.get();
+        if (unit != null) {
+            unit.markRollbackOnly();
+        } else if (session.getTransaction() != null && session.getTransaction().isActive()) {
+            session.getTransaction().rollback();
+        }
+    }
+
+    private void close(Session session) {
+        if (currentUnit.get() == null) {
             session.close();
         }
     }
 
-    public List<Book> getAllBooks() {
-        Session session = sessionFactory.openSession();
+    // Runs action now, or once the current unit has committed
+    private void afterCommit(Runnable action) {
+        UnitOfWork unit = currentUnit.get();
+        if (unit != null) {
+            unit.afterCommit(action);
+        } else {
+            action.run();
+        }
+    }
+
+    // Runs action now, or once the current unit has finished either way
+    private void afterCompletion(Runnable action) {
+        UnitOfWork unit = currentUnit.get();
+        if (unit != null) {
+            unit.afterCompletion(action);
+        } else {
+            action.run();
+        }
+    }
+
+    // JDBC copy updates bypass the session: books a unit read earlier still hold the old counts
+    private void refreshInUnit(Session session, Collection<Book> books) {
+        if (currentUnit.get() != null) {
+            books.forEach(session::refresh);
+        }
+    }
+
+    // For work that must not fill the current unit's session (loading the search indexes)
+    private void outsideUnitOfWork(Runnable work) {
+        UnitOfWork unit = currentUnit.get();
+        currentUnit.remove();
         try {
-            return session.createQuery("FROM Book", Book.class).list();
+            work.run();
         } finally {
-            session.close();
+            if (unit != null) {
+                currentUnit.set(unit);
+            }
         }
     }
 
+    // ==================== BOOK OPERATIONS ====================
+
+    public void addBook(Book book) {
+        timed(Operation.ADD_BOOK, () -> {
+            Session session = openSession();
+            try {
+                begin(session);
+                session.persist(book);
+                commit(session);
+                System.out.println("Book added: " + book.getTitle());
+                indexBook(book);
+            } catch (Exception e) {
+                rollback(session);
+                System.err.println("Error adding book: " + e.getMessage());
+                throw e;
+            } finally {
+                close(session);
+            }
+        });
+    }
+
+    public Book getBookById(Long id) {
+        return timed(Operation.GET_BOOK, () -> {
+            Session session = openSession();
+            try {
+                return session.get(Book.class, id);
+            } finally {
+                close(session);
+            }
+        });
+    }
+
+    public List<Book> getAllBooks() {
+        return timed(Operation.LIST_BOOKS, () -> {
+            if (servingSnapshot) {
+                return allCatalogueBooks();
+            }
+            Session session = openSession();
+            try {
+                return session.createQuery("FROM Book", Book.class)
+                        .setCacheable(true)
+                        .setCacheRegion(CATALOGUE_QUERY_REGION)
+                        .list();
+            } finally {
+                close(session);
+            }
+        });
+    }
+
+    // Keyset-paginated catalogue, sortable by id / title / created date
+    public Page<Book> getBooksPage(PageRequest request) {
+        return timed(Operation.BOOKS_PAGE, () -> {
+            String sortPath = switch (request.sort()) {
+                case ID -> "e.bookId";
+                case TITLE -> "e.title";
+                case DATE -> "e.createdAt";
+            };
+            return keysetPage(Book.class, "", "e.bookId", sortPath, request, CATALOGUE_QUERY_REGION);
+        });
+    }
+
+    /**
+     * Served from memory: title/author/ISBN/category word prefixes, best
+     * match first; a blank query lists the first books by id. The books
+     * are detached copies built from the compact catalogue.
+     */
     public List<Book> searchBooks(String keyword) {
-        Session session = sessionFactory.openSession();
-        try {
-            String hql = "FROM Book WHERE LOWER(title) LIKE :keyword OR LOWER(author) LIKE :keyword OR isbn LIKE :keyword";
-            Query<Book> query = session.createQuery(hql, Book.class);
-            query.setParameter("keyword", "%" + keyword.toLowerCase() + "%");
-            return query.list();
-        } finally {
-            session.close();
+        return timed(Operation.SEARCH_BOOKS, () -> {
+            ensureCatalogue();
+            if (!BookSearchIndex.hasWords(keyword)) {
+                return catalogue.after(Long.MIN_VALUE, SEARCH_LIMIT);
+            }
+            return catalogue.getAll(bookIndex.search(keyword, SEARCH_LIMIT));
+        });
+    }
+
+    /**
+     * Copies of the book on the shelf, from the in-memory availability
+     * snapshot: no lock and no database round trip, so the UI can call it
+     * freely. Returns -1 for an unknown book, and for every book until the
+     * catalogue is loaded: it is not loaded here, as that would be a full
+     * table read on the calling thread. The snapshot follows this
+     * application's commits; the issue itself is still checked in the
+     * database.
+     */
+    public int getAvailableCopies(long bookId) {
+        if (!catalogueLoaded) {
+            return AvailabilityMap.MISSING;
         }
+        return availability.get(bookId);
+    }
+
+    // Loads the in-memory catalogue now rather than on the first search or lookup
+    public void loadCatalogue() {
+        ensureCatalogue();
     }
 
     public void updateBook(Book book) {
-        Session session = sessionFactory.openSession();
-        try {
-            session.beginTransaction();
-            session.merge(book);
-            session.getTransaction().commit();
-            System.out.println("Book updated: " + book.getTitle());
-        } catch (Exception e) {
-            if (session.getTransaction() != null) {
-                session.getTransaction().rollback();
+        timed(Operation.UPDATE_BOOK, () -> {
+            Session session = openSession();
+            try {
+                begin(session);
+                Book merged = session.merge(book);
+                commit(session);
+                System.out.println("Book updated: " + book.getTitle());
+                indexBook(merged);
+            } catch (Exception e) {
+                rollback(session);
+                System.err.println("Error updating book: " + e.getMessage());
+                throw e;
+            } finally {
+                close(session);
             }
-            System.err.println("Error updating book: " + e.getMessage());
-            throw e;
-        } finally {
-            session.close();
-        }
+        });
     }
 
     public void deleteBook(Long bookId) {
-        Session session = sessionFactory.openSession();
-        try {
-            session.beginTransaction();
-            Book book = session.get(Book.class, bookId);
-            if (book != null) {
-                session.remove(book);
-                session.getTransaction().commit();
-                System.out.println("Book deleted");
+        timed(Operation.DELETE_BOOK, () -> {
+            Session session = openSession();
+            try {
+                begin(session);
+                Book book = session.get(Book.class, bookId);
+                if (book != null) {
+                    session.remove(book);
+                    commit(session);
+                    System.out.println("Book deleted");
+                    afterCommit(() -> {
+                        bookChanged(bookId);
+                        catalogue.remove(bookId);
+                        bookIndex.remove(bookId);
+                        availability.remove(bookId);
+                        holdQueues.removeBook(bookId);
+                    });
+                }
+            } catch (Exception e) {
+                rollback(session);
+                System.err.println("Error deleting book: " + e.getMessage());
+                throw e;
+            } finally {
+                close(session);
             }
-        } catch (Exception e) {
-            if (session.getTransaction() != null) {
-                session.getTransaction().rollback();
-            }
-            System.err.println("Error deleting book: " + e.getMessage());
-            throw e;
-        } finally {
-            session.close();
-        }
+        });
+    }
+
+    /**
+     * Bulk-loads a catalogue file (CSV, or MARC text for *.mrk) in batched
+     * chunks; see CatalogueImporter. Imported books are added to the search
+     * index as each chunk commits. Re-running a failed import resumes it.
+     */
+    public ImportProgress importCatalogue(Path file, ImportListener listener) throws IOException {
+        // Called per book once its chunk has committed
+        return new CatalogueImporter(sessionFactory(), book -> {
+            stopServingSnapshot();
+            indexBook(book);
+        }).importFile(file, listener);
     }
 
     // ==================== MEMBER OPERATIONS ====================
 
     public void addMember(Member member) {
-        Session session = sessionFactory.openSession();
-        try {
-            session.beginTransaction();
-            session.persist(member);
-            session.getTransaction().commit();
-            System.out.println("Member added: " + member.getName());
-        } catch (Exception e) {
-            if (session.getTransaction() != null) {
-                session.getTransaction().rollback();
+        timed(Operation.ADD_MEMBER, () -> {
+            Session session = openSession();
+            try {
+                begin(session);
+                session.persist(member);
+                commit(session);
+                System.out.println("Member added: " + member.getName());
+                indexMember(member);
+            } catch (Exception e) {
+                rollback(session);
+                System.err.println("Error adding member: " + e.getMessage());
+                throw e;
+            } finally {
+                close(session);
             }
-            System.err.println("Error adding member: " + e.getMessage());
-            throw e;
-        } finally {
-            session.close();
-        }
+        });
     }
 
     public Member getMemberById(Long id) {
-        Session session = sessionFactory.openSession();
-        try {
-            return session.get(Member.class, id);
-        } finally {
-            session.close();
-        }
+        return timed(Operation.GET_MEMBER, () -> {
+            Session session = openSession();
+            try {
+                return session.get(Member.class, id);
+            } finally {
+                close(session);
+            }
+        });
     }
 
     public List<Member> getAllMembers() {
-        Session session = sessionFactory.openSession();
-        try {
-            return session.createQuery("FROM Member", Member.class).list();
-        } finally {
-            session.close();
-        }
+        return timed(Operation.LIST_MEMBERS, () -> {
+            if (servingSnapshot) {
+                return memberIndex.all();
+            }
+            Session session = openSession();
+            try {
+                return session.createQuery("FROM Member", Member.class)
+                        .setCacheable(true)
+                        .setCacheRegion(CATALOGUE_QUERY_REGION)
+                        .list();
+            } finally {
+                close(session);
+            }
+        });
+    }
+
+    // Keyset-paginated members, sortable by id / name / membership date
+    public Page<Member> getMembersPage(PageRequest request) {
+        return timed(Operation.MEMBERS_PAGE, () -> {
+            String sortPath = switch (request.sort()) {
+                case ID -> "e.memberId";
+                case TITLE -> "e.name";
+                case DATE -> "e.membershipDate";
+            };
+            return keysetPage(Member.class, "", "e.memberId", sortPath, request, CATALOGUE_QUERY_REGION);
+        });
     }
 
+    // Served from the in-memory trigram index: partial/fuzzy name, email or phone, top matches first
     public List<Member> searchMembers(String keyword) {
-        Session session = sessionFactory.openSession();
-        try {
-            String hql = "FROM Member WHERE LOWER(name) LIKE :keyword OR LOWER(email) LIKE :keyword OR phone LIKE :keyword";
-            Query<Member> query = session.createQuery(hql, Member.class);
-            query.setParameter("keyword", "%" + keyword.toLowerCase() + "%");
-            return query.list();
-        } finally {
-            session.close();
-        }
+        return timed(Operation.SEARCH_MEMBERS, () -> {
+            ensureMemberIndex();
+            return memberIndex.search(keyword, MEMBER_SEARCH_LIMIT);
+        });
     }
 
     public void updateMember(Member member) {
-        Session session = sessionFactory.openSession();
-        try {
-            session.beginTransaction();
-            session.merge(member);
-            session.getTransaction().commit();
-            System.out.println("Member updated: " + member.getName());
-        } catch (Exception e) {
-            if (session.getTransaction() != null) {
-                session.getTransaction().rollback();
+        timed(Operation.UPDATE_MEMBER, () -> {
+            Session session = openSession();
+            try {
+                begin(session);
+                Member merged = session.merge(member);
+                commit(session);
+                System.out.println("Member updated: " + member.getName());
+                indexMember(merged);
+            } catch (Exception e) {
+                rollback(session);
+                System.err.println("Error updating member: " + e.getMessage());
+                throw e;
+            } finally {
+                close(session);
             }
-            System.err.println("Error updating member: " + e.getMessage());
-            throw e;
-        } finally {
-            session.close();
-        }
+        });
     }
 
     public void deleteMember(Long memberId) {
-        Session session = sessionFactory.openSession();
-        try {
-            session.beginTransaction();
-            Member member = session.get(Member.class, memberId);
-            if (member != null) {
-                session.remove(member);
-                session.getTransaction().commit();
-                System.out.println("Member deleted");
+        timed(Operation.DELETE_MEMBER, () -> {
+            Session session = openSession();
+            try {
+                begin(session);
+                Member member = session.get(Member.class, memberId);
+                if (member != null) {
+                    session.remove(member);
+                    commit(session);
+                    System.out.println("Member deleted");
+                    afterCommit(() -> {
+                        memberChanged(memberId);
+                        memberIndex.remove(memberId);
+                    });
+                }
+            } catch (Exception e) {
+                rollback(session);
+                System.err.println("Error deleting member: " + e.getMessage());
+                throw e;
+            } finally {
+                close(session);
             }
-        } catch (Exception e) {
-            if (session.getTransaction() != null) {
-                session.getTransaction().rollback();
-            }
-            System.err.println("Error deleting member: " + e.getMessage());
-            throw e;
-        } finally {
-            session.close();
-        }
+        });
     }
 
     // ==================== TRANSACTION OPERATIONS ====================
 
+    /**
+     * Issues a copy. The available-copies decrement is a single conditional
+     * UPDATE, so concurrent desks can never take the same last copy; lock
+     * conflicts are retried a bounded number of times.
+     */
     public Transaction issueBook(Long bookId, Long memberId) {
-        Session session = sessionFactory.openSession();
+        return timed(Operation.ISSUE_BOOK, () -> {
+            ensureHoldQueues();
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return tryIssueBook(bookId, memberId);
+                } catch (LockAcquisitionException | PessimisticLockException e) {
+                    // Inside a unit of work the failure has doomed the whole unit
+                    if (attempt >= MAX_LOCK_ATTEMPTS || currentUnit.get() != null) {
+                        throw e;
+                    }
+                    backOff(attempt);
+                }
+            }
+        });
+    }
+
+    private Transaction tryIssueBook(Long bookId, Long memberId) {
+        Session session = openSession();
         try {
-            session.beginTransaction();
+            begin(session);
 
-            Book book = session.get(Book.class, bookId);
             Member member = session.get(Member.class, memberId);
-
-            if (book == null || member == null) {
+            if (member == null) {
                 throw new RuntimeException("Book or Member not found");
             }
 
-            if (book.getAvailableCopies() <= 0) {
+            // A copy set aside for the member's hold is theirs, otherwise take one
+            // off the shelf (atomically, only if a copy is left)
+            if (!collectHold(session, bookId, memberId) && adjustAvailableCopies(session, bookId, -1) == 0) {
+                if (session.get(Book.class, bookId) == null) {
+                    throw new RuntimeException("Book or Member not found");
+                }
                 throw new RuntimeException("No copies available");
             }
+            // Reload: the session or the second-level cache may hold the count from before the update
+            Book book = session.get(Book.class, bookId);
+            session.refresh(book);
 
             // Create transaction
             Transaction transaction = new Transaction(book, member);
             session.persist(transaction);
 
-            // Update book availability
-            book.setAvailableCopies(book.getAvailableCopies() - 1);
-            session.merge(book);
-
-            session.getTransaction().commit();
+            commit(session);
             System.out.println("Book issued: " + book.getTitle() + " to " + member.getName());
+            indexBook(book);
 
 // Observer pattern - log the event
-            LibraryLogger.getInstance().logBookIssue(transaction);
+            afterCommit(() -> LibraryLogger.getInstance().logBookIssue(transaction));
 
             return transaction;
 
         } catch (Exception e) {
-            if (session.getTransaction() != null) {
-                session.getTransaction().rollback();
-            }
+            rollback(session);
             System.err.println("Error issuing book: " + e.getMessage());
             throw e;
         } finally {
-            session.close();
+            close(session);
+            evictBook(bookId);
         }
     }
 
-    public void returnBook(Long transactionId) {
-        Session session = sessionFactory.openSession();
-        Transaction transaction;
+    // Returns the closed loan, with its final fine and the book's fresh copy count
+    public Transaction returnBook(Long transactionId) {
+        return timed(Operation.RETURN_BOOK, () -> {
+            ensureHoldQueues();
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return tryReturnBook(transactionId);
+                } catch (LockAcquisitionException | PessimisticLockException e) {
+                    // Inside a unit of work the failure has doomed the whole unit
+                    if (attempt >= MAX_LOCK_ATTEMPTS || currentUnit.get() != null) {
+                        throw e;
+                    }
+                    backOff(attempt);
+                }
+            }
+        });
+    }
+
+    private Transaction tryReturnBook(Long transactionId) {
+        Session session = openSession();
+        Long bookId = null;
         try {
-            session.beginTransaction();
+            begin(session);
 
-            transaction = session.get(Transaction.class, transactionId);
+            // Row lock (SELECT ... FOR UPDATE) so two desks can't return the same loan twice
+            Transaction transaction = session.get(Transaction.class, transactionId, LockMode.PESSIMISTIC_WRITE);
 
             if (transaction == null) {
                 throw new RuntimeException("Transaction not found");
@@ -269,71 +615,1171 @@ public class DatabaseService {
                 throw new RuntimeException("Book already returned");
             }
 
-            // Set return date
-            transaction.setReturnDate(LocalDate.now());
+            // Set return date, fine and status
+            LocalDate today = LocalDate.now();
+            markReturned(transaction, transaction.getBook().getCategory(), today);
 
-            // Calculate fine
-            long daysOverdue = ChronoUnit.DAYS.between(transaction.getDueDate(), LocalDate.now());
-            if (daysOverdue > 0) {
-                double fine = daysOverdue * 5.0; // ₹5 per day
-                transaction.setFineAmount(fine);
-            }
-
-            transaction.setStatus("RETURNED");
-
-            // Update book availability
+            // The copy goes to the next hold in line, or back on the shelf (atomic increment),
+            // then reload the fresh count
             Book book = transaction.getBook();
-            book.setAvailableCopies(book.getAvailableCopies() + 1);
-            session.merge(book);
-            session.merge(transaction);
+            bookId = book.getBookId();
+            Reservation hold = allocateCopy(session, bookId, today);
+            if (hold == null) {
+                adjustAvailableCopies(session, bookId, +1);
+            }
+            session.refresh(book);
 
-            session.getTransaction().commit();
+            commit(session);
             System.out.println("✅ Book returned. Fine: ₹" + transaction.getFineAmount());
+            if (hold != null) {
+                System.out.println("Copy set aside for hold " + hold.getReservationId() + " until " + hold.getExpiryDate());
+            }
+            indexBook(book);
 
 // Observer pattern - log the event
-            LibraryLogger.getInstance().logBookReturn(transaction);
+            afterCommit(() -> LibraryLogger.getInstance().logBookReturn(transaction));
+
+            return transaction;
 
         } catch (Exception e) {
-            if (session.getTransaction() != null) {
-                session.getTransaction().rollback();
-            }
+            rollback(session);
             System.err.println("Error returning book: " + e.getMessage());
             throw e;
         } finally {
-            session.close();
+            close(session);
+            if (bookId != null) {
+                evictBook(bookId);
+            }
         }
+    }
+
+    // ==================== BATCH OPERATIONS ====================
+
+    /**
+     * Issues many loans in one transaction (class visits). Copy decrements go
+     * out as one JDBC batch and the new transactions as batched inserts.
+     * Items that can't be issued (unknown book/member, no copies left) are
+     * reported as failed without affecting the rest; a database error rolls
+     * back the whole batch.
+     */
+    public List<BatchItemResult> issueBooks(List<LoanRequest> requests) {
+        return timed(Operation.ISSUE_BOOKS, () -> {
+            ensureHoldQueues();
+            List<BatchItemResult> results = new ArrayList<>(Collections.nCopies(requests.size(), null));
+            List<Transaction> issued = new ArrayList<>();
+            Set<Long> bookIds = new HashSet<>();
+            Session session = openSession();
+            try {
+                begin(session);
+
+                Map<Long, Member> members = loadByIds(session, Member.class, "memberId",
+                        requests.stream().map(LoanRequest::memberId).toList());
+
+                // Requests with a known member try to take a copy, all in one batch
+                List<Integer> candidates = new ArrayList<>();
+                for (int i = 0; i < requests.size(); i++) {
+                    LoanRequest request = requests.get(i);
+                    if (request.bookId() == null || !members.containsKey(request.memberId())) {
+                        results.set(i, BatchItemResult.failed(i, "Book or Member not found"));
+                    } else {
+                        candidates.add(i);
+                        bookIds.add(request.bookId());
+                    }
+                }
+                int[] updated = takeCopies(session, candidates.stream().map(requests::get).toList());
 
-        LibraryLogger.getInstance().logBookReturn(transaction);
+                Map<Long, Book> books = loadByIds(session, Book.class, "bookId", bookIds);
+                refreshInUnit(session, books.values());
+                for (int c = 0; c < candidates.size(); c++) {
+                    int i = candidates.get(c);
+                    LoanRequest request = requests.get(i);
+                    Book book = books.get(request.bookId());
+                    if (book == null) {
+                        results.set(i, BatchItemResult.failed(i, "Book or Member not found"));
+                    } else if (updated[c] == 0) {
+                        results.set(i, BatchItemResult.failed(i, "No copies available"));
+                    } else {
+                        Transaction transaction = new Transaction(book, members.get(request.memberId()));
+                        session.persist(transaction);
+                        issued.add(transaction);
+                        results.set(i, BatchItemResult.ok(i, transaction));
+                    }
+                }
+
+                commit(session);
+                System.out.println("Batch issue: " + issued.size() + " of " + requests.size() + " books issued");
+                books.values().forEach(this::indexBook);
+
+                afterCommit(() -> {
+                    for (Transaction transaction : issued) {
+                        LibraryLogger.getInstance().logBookIssue(transaction);
+                    }
+                });
+                return results;
+
+            } catch (Exception e) {
+                rollback(session);
+                System.err.println("Error issuing books: " + e.getMessage());
+                throw e;
+            } finally {
+                close(session);
+                bookIds.forEach(this::evictBook);
+            }
+        });
+    }
+
+    /**
+     * Returns many loans in one transaction (end of term). The loans are
+     * locked and loaded with one query, their updates and the copy increments
+     * are sent as JDBC batches. Unknown or already returned loans are
+     * reported as failed without affecting the rest.
+     */
+    public List<BatchItemResult> returnBooks(List<Long> transactionIds) {
+        return timed(Operation.RETURN_BOOKS, () -> {
+            ensureHoldQueues();
+            List<BatchItemResult> results = new ArrayList<>(transactionIds.size());
+            List<Transaction> returned = new ArrayList<>();
+            Set<Long> bookIds = new HashSet<>();
+            Session session = openSession();
+            try {
+                begin(session);
+
+                Map<Long, Transaction> loans = loadByIds(session, Transaction.class, "transactionId", transactionIds, true);
+                Map<Long, String> categories = categoriesOf(session,
+                        loans.values().stream().map(t -> t.getBook().getBookId()).toList());
+
+                LocalDate today = LocalDate.now();
+                Set<Long> seen = new HashSet<>();
+                List<Long> incrementBookIds = new ArrayList<>();
+                for (int i = 0; i < transactionIds.size(); i++) {
+                    Transaction transaction = loans.get(transactionIds.get(i));
+                    if (transaction == null) {
+                        results.add(BatchItemResult.failed(i, "Transaction not found"));
+                    } else if (transaction.getReturnDate() != null || !seen.add(transaction.getTransactionId())) {
+                        results.add(BatchItemResult.failed(i, "Book already returned"));
+                    } else {
+                        Long bookId = transaction.getBook().getBookId();
+                        markReturned(transaction, categories.get(bookId), today);
+                        incrementBookIds.add(bookId);
+                        bookIds.add(bookId);
+                        returned.add(transaction);
+                        results.add(BatchItemResult.ok(i, transaction));
+                    }
+                }
+
+                // Returned copies go to the next hold in line first, the rest back on the shelf
+                List<Long> shelved = new ArrayList<>(incrementBookIds.size());
+                for (Long bookId : incrementBookIds) {
+                    if (allocateCopy(session, bookId, today) == null) {
+                        shelved.add(bookId);
+                    }
+                }
+                session.flush();
+                incrementAvailableCopies(session, shelved);
+                // One query each initializes the book and member proxies the log needs
+                Map<Long, Book> books = loadByIds(session, Book.class, "bookId", bookIds);
+                refreshInUnit(session, books.values());
+                loadByIds(session, Member.class, "memberId",
+                        returned.stream().map(t -> t.getMember().getMemberId()).toList());
+
+                commit(session);
+                System.out.println("Batch return: " + returned.size() + " of " + transactionIds.size() + " books returned");
+                books.values().forEach(this::indexBook);
+
+                afterCommit(() -> {
+                    for (Transaction transaction : returned) {
+                        LibraryLogger.getInstance().logBookReturn(transaction);
+                    }
+                });
+                return results;
+
+            } catch (Exception e) {
+                rollback(session);
+                System.err.println("Error returning books: " + e.getMessage());
+                throw e;
+            } finally {
+                close(session);
+                bookIds.forEach(this::evictBook);
+            }
+        });
     }
 
     public List<Transaction> getAllTransactions() {
-        Session session = sessionFactory.openSession();
+        return timed(Operation.LIST_TRANSACTIONS, () -> {
+            Session session = openSession();
+            try {
+                return session.createQuery(TRANSACTION_WITH_BOOK_AND_MEMBER, Transaction.class).list();
+            } finally {
+                close(session);
+            }
+        });
+    }
+
+    // Keyset-paginated loan history, sortable by id / book title / issue date
+    public Page<Transaction> getTransactionsPage(PageRequest request) {
+        return timed(Operation.TRANSACTIONS_PAGE, () -> {
+            String sortPath = switch (request.sort()) {
+                case ID -> "e.transactionId";
+                case TITLE -> "b.title";
+                case DATE -> "e.issueDate";
+            };
+            return keysetPage(Transaction.class, " JOIN FETCH e.book b JOIN FETCH e.member", "e.transactionId", sortPath, request, null);
+        });
+    }
+
+    // Loans still out, including those FineEngine has marked OVERDUE
+    public List<Transaction> getActiveTransactions() {
+        return timed(Operation.ACTIVE_TRANSACTIONS, () -> {
+            List<Transaction> fromSnapshot = snapshotLoans;
+            if (servingSnapshot && fromSnapshot != null) {
+                return fromSnapshot;
+            }
+            Session session = openSession();
+            try {
+                String hql = TRANSACTION_WITH_BOOK_AND_MEMBER + " WHERE t.status IN ('ISSUED', 'OVERDUE')";
+                return session.createQuery(hql, Transaction.class).list();
+            } finally {
+                close(session);
+            }
+        });
+    }
+
+    public List<Transaction> getTransactionsByMember(Long memberId) {
+        return timed(Operation.MEMBER_TRANSACTIONS, () -> {
+            Session session = openSession();
+            try {
+                String hql = TRANSACTION_WITH_BOOK_AND_MEMBER + " WHERE t.member.memberId = :memberId";
+                Query<Transaction> query = session.createQuery(hql, Transaction.class);
+                query.setParameter("memberId", memberId);
+                return query.list();
+            } finally {
+                close(session);
+            }
+        });
+    }
+
+    // ==================== HOLD OPERATIONS ====================
+
+    /**
+     * Puts the member in the book's hold queue. Only for books with no copy
+     * on the shelf, and once per member and book. Returned copies are then
+     * set aside for the queue in order (see returnBook).
+     */
+    public Reservation placeHold(Long bookId, Long memberId) {
+        return timed(Operation.PLACE_HOLD, () -> {
+            ensureHoldQueues();
+            Session session = openSession();
+            try {
+                begin(session);
+
+                Member member = session.get(Member.class, memberId);
+                Book book = session.get(Book.class, bookId);
+                if (member == null || book == null) {
+                    throw new RuntimeException("Book or Member not found");
+                }
+                // Re-read past the second-level cache and lock the book row, so two
+                // desks placing the same member's hold run one after the other
+                session.refresh(book, LockMode.PESSIMISTIC_WRITE);
+                if (book.getAvailableCopies() > 0) {
+                    throw new RuntimeException("Copies are available, issue the book instead");
+                }
+                Long activeHolds = session.createQuery(
+                        "SELECT COUNT(r) FROM Reservation r WHERE r.book.bookId = :bookId " +
+                        "AND r.member.memberId = :memberId AND r.status IN ('WAITING', 'READY')", Long.class)
+                        .setParameter("bookId", bookId)
+                        .setParameter("memberId", memberId)
+                        .uniqueResult();
+                if (activeHolds > 0) {
+                    throw new RuntimeException("Member already has a hold on this book");
+                }
+
+                Reservation reservation = new Reservation(book, member);
+                session.persist(reservation);
+
+                commit(session);
+                System.out.println("Hold placed: " + book.getTitle() + " for " + member.getName());
+                afterCommit(() -> holdQueues.addWaiting(bookId, reservation.getReservationId(), memberId));
+                return reservation;
+
+            } catch (Exception e) {
+                rollback(session);
+                System.err.println("Error placing hold: " + e.getMessage());
+                throw e;
+            } finally {
+                close(session);
+            }
+        });
+    }
+
+    // Cancels a hold; a copy set aside for it goes to the next member in line or back on the shelf
+    public void cancelHold(Long reservationId) {
+        timed(Operation.CANCEL_HOLD, () -> {
+            ensureHoldQueues();
+            Session session = openSession();
+            Long bookId = null;
+            try {
+                begin(session);
+
+                Reservation hold = session.get(Reservation.class, reservationId, LockMode.PESSIMISTIC_WRITE);
+                if (hold == null) {
+                    throw new RuntimeException("Hold not found");
+                }
+                boolean copySetAside = "READY".equals(hold.getStatus());
+                if (!copySetAside && !"WAITING".equals(hold.getStatus())) {
+                    throw new RuntimeException("Hold is no longer active");
+                }
+                hold.setStatus("CANCELLED");
+                bookId = hold.getBook().getBookId();
+                if (copySetAside) {
+                    passOnCopy(session, bookId, LocalDate.now());
+                    trackCopies(session, bookId);
+                }
+
+                commit(session);
+                System.out.println("Hold cancelled");
+                long heldBookId = bookId;
+                afterCommit(() -> holdQueues.remove(heldBookId, reservationId));
+
+            } catch (Exception e) {
+                rollback(session);
+                System.err.println("Error cancelling hold: " + e.getMessage());
+                throw e;
+            } finally {
+                close(session);
+                if (bookId != null) {
+                    evictBook(bookId);
+                }
+            }
+        });
+    }
+
+    // WAITING and READY holds, each book's queue in order
+    public List<Reservation> getActiveHolds() {
+        return timed(Operation.ACTIVE_HOLDS, () -> {
+            Session session = openSession();
+            try {
+                return session.createQuery("SELECT r FROM Reservation r JOIN FETCH r.book b JOIN FETCH r.member "
+                        + "WHERE r.status IN ('WAITING', 'READY') "
+                        + "ORDER BY b.bookId, r.reservedAt, r.reservationId", Reservation.class).list();
+            } finally {
+                close(session);
+            }
+        });
+    }
+
+    /**
+     * Expires READY holds not collected by their expiry date and passes
+     * each copy on to the next member in line. Then sets aside shelf copies
+     * of books that still have members waiting (a hold placed just as a copy
+     * came back). One short transaction per hold or book, so only those
+     * rows are locked. Returns the number of holds expired.
+     */
+    public int expireHolds(LocalDate today) {
+        return timed(Operation.EXPIRE_HOLDS, () -> {
+            ensureHoldQueues();
+            List<Long> expiredIds;
+            List<Long> shelvedBooks;
+            Session session = openSession();
+            try {
+                // Matches index idx_res_status_expiry (migration V4)
+                expiredIds = session.createQuery("SELECT r.reservationId FROM Reservation r "
+                                + "WHERE r.status = 'READY' AND r.expiryDate < :today", Long.class)
+                        .setParameter("today", today)
+                        .list();
+                shelvedBooks = booksOnShelf(session, holdQueues.booksWithWaiting());
+            } finally {
+                close(session);
+            }
+
+            int expired = 0;
+            for (Long reservationId : expiredIds) {
+                if (expireHold(reservationId, today)) {
+                    expired++;
+                }
+            }
+            int setAside = 0;
+            for (Long bookId : shelvedBooks) {
+                setAside += fillHoldsFromShelf(bookId, today);
+            }
+            if (expired > 0 || setAside > 0) {
+                System.out.println("✅ Holds: " + expired + " expired, " + setAside + " shelf copies set aside");
+            }
+            return expired;
+        });
+    }
+
+    private boolean expireHold(Long reservationId, LocalDate today) {
+        Session session = openSession();
+        Long bookId = null;
         try {
-            return session.createQuery("FROM Transaction", Transaction.class).list();
+            begin(session);
+            // Re-checked under the row lock: the member may have collected it meanwhile
+            Reservation hold = session.get(Reservation.class, reservationId, LockMode.PESSIMISTIC_WRITE);
+            if (hold == null || !"READY".equals(hold.getStatus()) || !hold.getExpiryDate().isBefore(today)) {
+                commit(session);
+                return false;
+            }
+            hold.setStatus("EXPIRED");
+            bookId = hold.getBook().getBookId();
+            passOnCopy(session, bookId, today);
+            trackCopies(session, bookId);
+            commit(session);
+            long heldBookId = bookId;
+            afterCommit(() -> holdQueues.remove(heldBookId, reservationId));
+            return true;
+        } catch (Exception e) {
+            rollback(session);
+            System.err.println("Error expiring hold: " + e.getMessage());
+            throw e;
         } finally {
-            session.close();
+            close(session);
+            if (bookId != null) {
+                evictBook(bookId);
+            }
         }
     }
 
-    public List<Transaction> getActiveTransactions() {
-        Session session = sessionFactory.openSession();
+    // Moves shelf copies of the book to its waiting holds; returns how many
+    private int fillHoldsFromShelf(Long bookId, LocalDate today) {
+        Session session = openSession();
         try {
-            String hql = "FROM Transaction WHERE status = 'ISSUED'";
-            return session.createQuery(hql, Transaction.class).list();
+            begin(session);
+            int setAside = 0;
+            while (adjustAvailableCopies(session, bookId, -1) > 0) {
+                if (allocateCopy(session, bookId, today) == null) {
+                    adjustAvailableCopies(session, bookId, +1);
+                    break;
+                }
+                setAside++;
+            }
+            trackCopies(session, bookId);
+            commit(session);
+            return setAside;
+        } catch (Exception e) {
+            rollback(session);
+            System.err.println("Error setting aside copies: " + e.getMessage());
+            throw e;
         } finally {
-            session.close();
+            close(session);
+            evictBook(bookId);
         }
     }
 
-    public List<Transaction> getTransactionsByMember(Long memberId) {
-        Session session = sessionFactory.openSession();
+    // The books among bookIds with a copy on the shelf
+    private List<Long> booksOnShelf(Session session, List<Long> bookIds) {
+        List<Long> onShelf = new ArrayList<>();
+        String hql = "SELECT b.bookId FROM Book b WHERE b.availableCopies > 0 AND b.bookId IN :ids";
+        for (int from = 0; from < bookIds.size(); from += IN_CLAUSE_LIMIT) {
+            onShelf.addAll(session.createQuery(hql, Long.class)
+                    .setParameterList("ids", bookIds.subList(from, Math.min(bookIds.size(), from + IN_CLAUSE_LIMIT)))
+                    .list());
+        }
+        return onShelf;
+    }
+
+    /**
+     * Sets a returned or freed copy aside for the first WAITING hold on the
+     * book: the hold becomes READY until today + HOLD_PICKUP_DAYS. Returns
+     * it, or null if nobody is waiting (the copy then belongs on the shelf).
+     */
+    private Reservation allocateCopy(Session session, Long bookId, LocalDate today) {
+        // In memory: a book nobody waits for costs no query
+        for (Long reservationId : holdQueues.waitingIds(bookId)) {
+            // Row lock, then re-check: another desk may have taken this hold first
+            Reservation hold = session.get(Reservation.class, reservationId, LockMode.PESSIMISTIC_WRITE);
+            if (hold != null && "WAITING".equals(hold.getStatus())) {
+                hold.setStatus("READY");
+                hold.setReadyDate(today);
+                hold.setExpiryDate(today.plusDays(HOLD_PICKUP_DAYS));
+                long memberId = hold.getMember().getMemberId();
+                afterCommit(() -> holdQueues.markReady(bookId, reservationId, memberId));
+                return hold;
+            }
+        }
+        return null;
+    }
+
+    private void passOnCopy(Session session, Long bookId, LocalDate today) {
+        if (allocateCopy(session, bookId, today) == null) {
+            adjustAvailableCopies(session, bookId, +1);
+        }
+    }
+
+    // Marks the member's READY hold on the book FULFILLED; false if they have none
+    private boolean collectHold(Session session, Long bookId, Long memberId) {
+        Long reservationId = bookId != null && memberId != null ? holdQueues.readyFor(bookId, memberId) : null;
+        if (reservationId == null) {
+            return false;
+        }
+        Reservation hold = session.get(Reservation.class, reservationId, LockMode.PESSIMISTIC_WRITE);
+        if (hold == null || !"READY".equals(hold.getStatus())) {
+            return false;
+        }
+        hold.setStatus("FULFILLED");
+        afterCommit(() -> holdQueues.remove(bookId, reservationId));
+        return true;
+    }
+
+    /**
+     * A copy for each loan request: the member's READY hold if they have
+     * one, otherwise off the shelf (decrements sent as one JDBC batch).
+     * Per request, rows updated: 0 means no copy was left.
+     */
+    private int[] takeCopies(Session session, List<LoanRequest> requests) {
+        int[] taken = new int[requests.size()];
+        List<Integer> fromShelf = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            LoanRequest request = requests.get(i);
+            if (collectHold(session, request.bookId(), request.memberId())) {
+                taken[i] = 1;
+            } else {
+                fromShelf.add(i);
+            }
+        }
+        int[] updated = decrementAvailableCopies(session, fromShelf.stream().map(i -> requests.get(i).bookId()).toList());
+        for (int k = 0; k < fromShelf.size(); k++) {
+            taken[fromShelf.get(k)] = updated[k];
+        }
+        return taken;
+    }
+
+    // Loads the active holds into the queues once, in queue order
+    private void ensureHoldQueues() {
+        if (holdQueuesLoaded) {
+            return;
+        }
+        synchronized (holdQueues) {
+            if (holdQueuesLoaded) {
+                return;
+            }
+            Session session = sessionFactory().openSession();
+            try {
+                List<Object[]> rows = session.createQuery("SELECT r.reservationId, r.book.bookId, r.member.memberId, r.status "
+                        + "FROM Reservation r WHERE r.status IN ('WAITING', 'READY') "
+                        + "ORDER BY r.reservedAt, r.reservationId", Object[].class).list();
+                for (Object[] row : rows) {
+                    if ("READY".equals(row[3])) {
+                        holdQueues.markReady((Long) row[1], (Long) row[0], (Long) row[2]);
+                    } else {
+                        holdQueues.addWaiting((Long) row[1], (Long) row[0], (Long) row[2]);
+                    }
+                }
+                holdQueuesLoaded = true;
+                if (!rows.isEmpty()) {
+                    System.out.println("✅ Hold queues loaded: " + rows.size() + " active holds");
+                }
+            } finally {
+                session.close();
+            }
+        }
+    }
+
+    // ==================== EXPORT ====================
+
+    /**
+     * Streams a whole table to a CSV or JSON-lines file without loading it
+     * into memory (see LibraryExporter). Returns the number of rows written.
+     */
+    public long export(ExportDataset dataset, ExportFormat format, Path file, LongConsumer progress) throws IOException {
+        return new LibraryExporter(sessionFactory()).export(dataset, format, file, progress);
+    }
+
+    // ==================== AVAILABILITY ====================
+
+    /**
+     * Changes Books.available_copies by delta in one statement. A decrement
+     * only applies while copies remain. Returns the number of rows updated
+     * (0 means the book is missing or has no copies left).
+     *
+     * Done in plain JDBC rather than HQL so Hibernate doesn't evict the whole
+     * Book cache region; callers evict just this book with evictBook().
+     */
+    private int adjustAvailableCopies(Session session, Long bookId, int delta) {
+        String sql = delta < 0
+                ? "UPDATE Books SET available_copies = available_copies - 1 WHERE book_id = ? AND available_copies > 0"
+                : "UPDATE Books SET available_copies = available_copies + 1 WHERE book_id = ?";
+        return session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setLong(1, bookId);
+                return statement.executeUpdate();
+            }
+        });
+    }
+
+    // Batched form of adjustAvailableCopies(-1): one statement per book id, rows updated per statement
+    private int[] decrementAvailableCopies(Session session, List<Long> bookIds) {
+        return executeBatch(session,
+                "UPDATE Books SET available_copies = available_copies - 1 WHERE book_id = ? AND available_copies > 0",
+                bookIds);
+    }
+
+    private int[] incrementAvailableCopies(Session session, List<Long> bookIds) {
+        return executeBatch(session, "UPDATE Books SET available_copies = available_copies + 1 WHERE book_id = ?", bookIds);
+    }
+
+    private int[] executeBatch(Session session, String sql, List<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return new int[0];
+        }
+        return session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (Long bookId : bookIds) {
+                    statement.setLong(1, bookId);
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }
+        });
+    }
+
+    // Drop a book from the second-level cache after its copies changed outside Hibernate
+    private void evictBook(Long bookId) {
+        afterCompletion(() -> sessionFactory().getCache().evictEntityData(Book.class, bookId));
+    }
+
+    private static void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(10, 25) * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while retrying", e);
+        }
+    }
+
+    // Return date, final fine (FineEngine's policy, by book category) and status for a loan being returned
+    private static void markReturned(Transaction transaction, String category, LocalDate returnDate) {
+        transaction.setReturnDate(returnDate);
+
+        // Calculate fine
+        double fine = FineEngine.getInstance().getPolicy().fineFor(category, transaction.getDueDate(), returnDate);
+        if (fine > 0) {
+            transaction.setFineAmount(fine);
+        }
+
+        transaction.setStatus("RETURNED");
+    }
+
+    // Category of each book, as scalars so the Book entities aren't loaded before their copies change
+    private Map<Long, String> categoriesOf(Session session, Collection<Long> bookIds) {
+        List<Long> distinct = bookIds.stream().distinct().toList();
+        Map<Long, String> categories = new HashMap<>();
+        String hql = "SELECT b.bookId, b.category FROM Book b WHERE b.bookId IN :ids";
+        for (int from = 0; from < distinct.size(); from += IN_CLAUSE_LIMIT) {
+            List<Object[]> rows = session.createQuery(hql, Object[].class)
+                    .setParameterList("ids", distinct.subList(from, Math.min(distinct.size(), from + IN_CLAUSE_LIMIT)))
+                    .list();
+            for (Object[] row : rows) {
+                categories.put((Long) row[0], (String) row[1]);
+            }
+        }
+        return categories;
+    }
+
+    private <T> Map<Long, T> loadByIds(Session session, Class<T> entityClass, String idField, Collection<Long> ids) {
+        return loadByIds(session, entityClass, idField, ids, false);
+    }
+
+    /**
+     * Loads entities by id with "IN" queries of at most 1000 ids (Oracle's
+     * limit), optionally locking the rows. Returns them keyed by id.
+     */
+    private <T> Map<Long, T> loadByIds(Session session, Class<T> entityClass, String idField,
+                                       Collection<Long> ids, boolean lock) {
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        Map<Long, T> byId = new HashMap<>();
+        String hql = "SELECT e FROM " + entityClass.getSimpleName() + " e WHERE e." + idField + " IN :ids";
+        for (int from = 0; from < distinct.size(); from += IN_CLAUSE_LIMIT) {
+            Query<T> query = session.createQuery(hql, entityClass)
+                    .setParameterList("ids", distinct.subList(from, Math.min(distinct.size(), from + IN_CLAUSE_LIMIT)));
+            if (lock) {
+                query.setLockMode(LockModeType.PESSIMISTIC_WRITE);
+            }
+            for (T entity : query.list()) {
+                byId.put((Long) session.getIdentifier(entity), entity);
+            }
+        }
+        return byId;
+    }
+
+    // ==================== METRICS ====================
+
+    // Times a public operation in OperationMetrics, with the row count of list and page results
+    private <T> T timed(Operation operation, Supplier<T> call) {
+        long started = metrics.begin();
         try {
-            String hql = "FROM Transaction WHERE member.memberId = :memberId";
-            Query<Transaction> query = session.createQuery(hql, Transaction.class);
-            query.setParameter("memberId", memberId);
-            return query.list();
+            T result = call.get();
+            metrics.success(operation, started, rowCount(result));
+            return result;
+        } catch (RuntimeException | Error e) {
+            metrics.failure(operation, started);
+            throw e;
+        }
+    }
+
+    private void timed(Operation operation, Runnable call) {
+        timed(operation, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    private static int rowCount(Object result) {
+        if (result instanceof Collection<?> rows) {
+            return rows.size();
+        }
+        if (result instanceof Page<?> page) {
+            return page.items().size();
+        }
+        return -1;
+    }
+
+    // ==================== CATALOGUE ====================
+
+    private void ensureCatalogue() {
+        if (catalogueLoaded) {
+            return;
+        }
+        synchronized (catalogueLock) {
+            if (catalogueLoaded) {
+                return;
+            }
+            loadCatalogueFromDatabase();
+            catalogueLoaded = true;
+        }
+    }
+
+    /**
+     * Loads the catalogue, its search index and the availability snapshot
+     * into new structures in one pass over a projection of the Books table
+     * (no entities are created or cached), then swaps them in. Books that
+     * commits changed meanwhile are read again afterwards, so the swap
+     * can't bring back an older version of them.
+     */
+    private void loadCatalogueFromDatabase() {
+        long start = System.currentTimeMillis();
+        Set<Long> changed = ConcurrentHashMap.newKeySet();
+        booksChangedDuringLoad = changed;
+        try {
+            CompactCatalogue loaded = new CompactCatalogue();
+            BookSearchIndex index = new BookSearchIndex();
+            AvailabilityMap copies = new AvailabilityMap();
+            scanBooks(null, book -> {
+                loaded.put(book);
+                index.add(book);
+                if (book.getAvailableCopies() != null) {
+                    copies.put(book.getBookId(), book.getAvailableCopies());
+                }
+            });
+            loaded.trimToSize();
+            catalogue = loaded;
+            bookIndex = index;
+            availability = copies;
         } finally {
-            session.close();
+            booksChangedDuringLoad = null;
+        }
+        refreshBooks(changed);
+        System.out.println("✅ Catalogue loaded: " + catalogue.size() + " books, ~"
+                + catalogue.footprintBytes() / 1024 + " KB, in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    // Streams Books (those with the given ids, or all) as detached books built from a projection
+    private void scanBooks(Collection<Long> bookIds, Consumer<Book> consumer) {
+        String hql = "SELECT b.bookId, b.title, b.author, b.isbn, b.category, "
+                + "b.totalCopies, b.availableCopies, b.createdAt FROM Book b";
+        List<List<Long>> chunks = new ArrayList<>();
+        if (bookIds == null) {
+            chunks.add(null);
+        } else {
+            List<Long> ids = new ArrayList<>(bookIds);
+            for (int from = 0; from < ids.size(); from += IN_CLAUSE_LIMIT) {
+                chunks.add(ids.subList(from, Math.min(ids.size(), from + IN_CLAUSE_LIMIT)));
+            }
+        }
+        try (StatelessSession session = sessionFactory().openStatelessSession()) {
+            for (List<Long> chunk : chunks) {
+                Query<Object[]> query = session.createQuery(chunk == null ? hql : hql + " WHERE b.bookId IN :ids", Object[].class)
+                        .setFetchSize(INDEX_LOAD_BATCH);
+                if (chunk != null) {
+                    query.setParameterList("ids", chunk);
+                }
+                try (Stream<Object[]> rows = query.stream()) {
+                    rows.forEach(row -> {
+                        Book book = new Book();
+                        book.setBookId((Long) row[0]);
+                        book.setTitle((String) row[1]);
+                        book.setAuthor((String) row[2]);
+                        book.setIsbn((String) row[3]);
+                        book.setCategory((String) row[4]);
+                        book.setTotalCopies((Integer) row[5]);
+                        book.setAvailableCopies((Integer) row[6]);
+                        book.setCreatedAt((LocalDateTime) row[7]);
+                        consumer.accept(book);
+                    });
+                }
+            }
+        }
+    }
+
+    // Reads the books again into the live catalogue; those no longer in the database are dropped
+    private void refreshBooks(Set<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return;
+        }
+        Set<Long> missing = new HashSet<>(bookIds);
+        scanBooks(bookIds, book -> {
+            missing.remove(book.getBookId());
+            catalogue.put(book);
+            bookIndex.update(book);
+            if (book.getAvailableCopies() != null) {
+                availability.put(book.getBookId(), book.getAvailableCopies());
+            }
+        });
+        for (Long bookId : missing) {
+            catalogue.remove(bookId);
+            bookIndex.remove(bookId);
+            availability.remove(bookId);
+        }
+    }
+
+    // The whole catalogue as detached books, in id order
+    private List<Book> allCatalogueBooks() {
+        List<Book> books = new ArrayList<>(catalogue.size());
+        List<Book> page = catalogue.after(Long.MIN_VALUE, INDEX_LOAD_BATCH);
+        while (!page.isEmpty()) {
+            books.addAll(page);
+            page = catalogue.after(page.get(page.size() - 1).getBookId(), INDEX_LOAD_BATCH);
+        }
+        return books;
+    }
+
+    // Notes a committed change for a load in progress (see loadCatalogueFromDatabase)
+    private void bookChanged(Long bookId) {
+        Set<Long> changed = booksChangedDuringLoad;
+        if (changed != null && bookId != null) {
+            changed.add(bookId);
+        }
+    }
+
+    // Keeps the catalogue, its index and the availability snapshot in step with a committed change
+    private void indexBook(Book book) {
+        afterCommit(() -> {
+            bookChanged(book.getBookId());
+            catalogue.put(book);
+            bookIndex.update(book);
+            if (book.getBookId() != null && book.getAvailableCopies() != null) {
+                availability.put(book.getBookId(), book.getAvailableCopies());
+            }
+        });
+    }
+
+    /**
+     * Reads the book's copy count inside the transaction that just changed
+     * it (the row is still locked, so the count is exact) and puts it in the
+     * catalogue once that transaction commits. For the hold paths, which
+     * move copies with plain JDBC and don't reload the book.
+     */
+    private void trackCopies(Session session, Long bookId) {
+        Integer copies = session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT available_copies FROM Books WHERE book_id = ?")) {
+                statement.setLong(1, bookId);
+                try (ResultSet rs = statement.executeQuery()) {
+                    return rs.next() ? rs.getInt(1) : null;
+                }
+            }
+        });
+        if (copies != null) {
+            afterCommit(() -> {
+                bookChanged(bookId);
+                catalogue.setAvailableCopies(bookId, copies);
+                availability.put(bookId, copies);
+            });
+        }
+    }
+
+    // ==================== MEMBER SEARCH INDEX ====================
+
+    private void ensureMemberIndex() {
+        if (memberIndexLoaded) {
+            return;
+        }
+        synchronized (memberIndexLock) {
+            if (memberIndexLoaded) {
+                return;
+            }
+            loadMemberIndexFromDatabase();
+            memberIndexLoaded = true;
+        }
+    }
+
+    // Builds a new index in id order, a batch at a time, and swaps it in (as loadCatalogueFromDatabase)
+    private void loadMemberIndexFromDatabase() {
+        long start = System.currentTimeMillis();
+        Set<Long> changed = ConcurrentHashMap.newKeySet();
+        membersChangedDuringLoad = changed;
+        try {
+            MemberSearchIndex index = new MemberSearchIndex();
+            outsideUnitOfWork(() -> {
+                Page<Member> page = getMembersPage(PageRequest.first(PageSort.ID, INDEX_LOAD_BATCH));
+                while (true) {
+                    page.items().forEach(index::add);
+                    if (!page.hasMore()) {
+                        break;
+                    }
+                    Member last = page.items().get(page.items().size() - 1);
+                    page = getMembersPage(PageRequest.after(PageSort.ID, PageSort.ID.cursorOf(last), INDEX_LOAD_BATCH));
+                }
+            });
+            memberIndex = index;
+        } finally {
+            membersChangedDuringLoad = null;
+        }
+        if (!changed.isEmpty()) {
+            outsideUnitOfWork(() -> {
+                Session session = openSession();
+                try {
+                    Map<Long, Member> members = loadByIds(session, Member.class, "memberId", changed);
+                    for (Long memberId : changed) {
+                        Member member = members.get(memberId);
+                        if (member != null) {
+                            memberIndex.update(member);
+                        } else {
+                            memberIndex.remove(memberId);
+                        }
+                    }
+                } finally {
+                    close(session);
+                }
+            });
+        }
+        System.out.println("✅ Member search index built: " + memberIndex.size() + " members in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    private void indexMember(Member member) {
+        afterCommit(() -> {
+            memberChanged(member.getMemberId());
+            memberIndex.update(member);
+        });
+    }
+
+    private void memberChanged(Long memberId) {
+        Set<Long> changed = membersChangedDuringLoad;
+        if (changed != null && memberId != null) {
+            changed.add(memberId);
+        }
+    }
+
+    // ==================== SNAPSHOT ====================
+
+    /**
+     * Fills the catalogue, the member index and the open loan list from a
+     * snapshot file, without touching the database (the SessionFactory may
+     * not even be built yet). Book, member and open loan lists are then
+     * served from memory until reconcileSnapshot() or the first write.
+     * Returns false, leaving everything as it was, if the file is missing
+     * or refused (see SnapshotFile).
+     */
+    public boolean loadSnapshot(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        long start = System.currentTimeMillis();
+        LibrarySnapshot snapshot;
+        try {
+            snapshot = SnapshotFile.read(file);
+        } catch (IOException e) {
+            System.err.println("❌ Snapshot " + file + " not used: " + e.getMessage());
+            return false;
+        }
+
+        CompactCatalogue loaded = new CompactCatalogue();
+        BookSearchIndex index = new BookSearchIndex();
+        AvailabilityMap copies = new AvailabilityMap();
+        for (Book book : snapshot.books()) {
+            loaded.put(book);
+            index.add(book);
+            copies.put(book.getBookId(), book.getAvailableCopies());
+        }
+        loaded.trimToSize();
+        MemberSearchIndex members = new MemberSearchIndex();
+        snapshot.members().forEach(members::add);
+
+        synchronized (catalogueLock) {
+            synchronized (memberIndexLock) {
+                catalogue = loaded;
+                bookIndex = index;
+                availability = copies;
+                memberIndex = members;
+                snapshotLoans = List.copyOf(snapshot.openLoans());
+                servingSnapshot = true;
+                catalogueLoaded = true;
+                memberIndexLoaded = true;
+            }
+        }
+        System.out.println("✅ Snapshot loaded (written " + snapshot.writtenAt() + "): " + snapshot.books().size()
+                + " books, " + snapshot.members().size() + " members, " + snapshot.openLoans().size()
+                + " open loans in " + (System.currentTimeMillis() - start) + " ms");
+        return true;
+    }
+
+    public boolean isServingSnapshot() {
+        return servingSnapshot;
+    }
+
+    /*
+     * A write has committed, here or in FineEngine / CatalogueImporter: the
+     * snapshot's lists are out of date, so from now on they come from the
+     * database. The catalogue and member index stay, as commits keep them
+     * in step.
+     */
+    void stopServingSnapshot() {
+        servingSnapshot = false;
+        snapshotLoans = null;
+    }
+
+    /**
+     * Reloads what loadSnapshot filled in from the database, swapping each
+     * structure in once it is built, then goes back to serving the lists
+     * from the database. Meant for a background thread after startup.
+     */
+    public void reconcileSnapshot() {
+        long start = System.currentTimeMillis();
+        synchronized (catalogueLock) {
+            loadCatalogueFromDatabase();
+            catalogueLoaded = true;
+        }
+        synchronized (memberIndexLock) {
+            loadMemberIndexFromDatabase();
+            memberIndexLoaded = true;
+        }
+        stopServingSnapshot();
+        System.out.println("✅ Snapshot reconciled with the database in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * Writes the catalogue (from memory), the members and the open loans
+     * (streamed from the database) to a snapshot file. Returns the file
+     * size, or -1 if nothing was written because the data in memory still
+     * comes from the previous snapshot.
+     */
+    public long writeSnapshot(Path file) throws IOException {
+        if (servingSnapshot) {
+            return -1;
+        }
+        ensureCatalogue();
+        long start = System.currentTimeMillis();
+        CompactCatalogue books = catalogue;
+        Iterator<Book> bookPages = new Iterator<>() {
+            private List<Book> page = books.after(Long.MIN_VALUE, INDEX_LOAD_BATCH);
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == page.size() && !page.isEmpty()) {
+                    page = books.after(page.get(page.size() - 1).getBookId(), INDEX_LOAD_BATCH);
+                    next = 0;
+                }
+                return next < page.size();
+            }
+
+            @Override
+            public Book next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.get(next++);
+            }
+        };
+        try (StatelessSession session = sessionFactory().openStatelessSession();
+             Stream<Member> members = session.createQuery("FROM Member m ORDER BY m.memberId", Member.class)
+                     .setFetchSize(INDEX_LOAD_BATCH)
+                     .stream();
+             Stream<Transaction> loans = session.createQuery("SELECT t.transactionId, t.book.bookId, t.member.memberId, "
+                             + "t.issueDate, t.dueDate, t.fineAmount, t.status FROM Transaction t "
+                             + "WHERE t.status IN ('ISSUED', 'OVERDUE')", Object[].class)
+                     .setFetchSize(INDEX_LOAD_BATCH)
+                     .stream()
+                     .map(DatabaseService::loanOf)) {
+            long size = SnapshotFile.write(file, bookPages, members.iterator(), loans.iterator());
+            System.out.println("✅ Snapshot written: " + file + ", " + size / 1024 + " KB in "
+                    + (System.currentTimeMillis() - start) + " ms");
+            return size;
+        }
+    }
+
+    // An open loan from its projection row; book and member carry only their ids
+    private static Transaction loanOf(Object[] row) {
+        Book book = new Book();
+        book.setBookId((Long) row[1]);
+        Member member = new Member();
+        member.setMemberId((Long) row[2]);
+        Transaction loan = new Transaction(book, member);
+        loan.setTransactionId((Long) row[0]);
+        loan.setIssueDate((LocalDate) row[3]);
+        loan.setDueDate((LocalDate) row[4]);
+        loan.setFineAmount((Double) row[5]);
+        loan.setStatus((String) row[6]);
+        return loan;
+    }
+
+    // ==================== PAGINATION ====================
+
+    /**
+     * Seeks straight to the rows after (or before) the cursor using
+     * "sort > :value OR (sort = :value AND id > :id)", so the cost of a page
+     * does not grow with how deep into the table it is, unlike OFFSET.
+     * Fetches one extra row to tell whether another page exists.
+     * joins holds any "JOIN FETCH" clauses for associations the page needs;
+     * cacheRegion, if not null, caches the page in the query cache.
+     */
+    private <T> Page<T> keysetPage(Class<T> entityClass, String joins, String idPath, String sortPath,
+                                   PageRequest request, String cacheRegion) {
+        boolean byId = idPath.equals(sortPath);
+        String op = request.backward() ? "<" : ">";
+        String dir = request.backward() ? "DESC" : "ASC";
+
+        StringBuilder hql = new StringBuilder("SELECT e FROM ").append(entityClass.getSimpleName()).append(" e").append(joins);
+        PageCursor cursor = request.cursor();
+        if (cursor != null) {
+            if (byId) {
+                hql.append(" WHERE ").append(idPath).append(' ').append(op).append(" :id");
+            } else {
+                hql.append(" WHERE (").append(sortPath).append(' ').append(op).append(" :value OR (")
+                        .append(sortPath).append(" = :value AND ").append(idPath).append(' ').append(op).append(" :id))");
+            }
+        }
+        hql.append(" ORDER BY ");
+        if (!byId) {
+            hql.append(sortPath).append(' ').append(dir).append(", ");
+        }
+        hql.append(idPath).append(' ').append(dir);
+
+        Session session = openSession();
+        try {
+            Query<T> query = session.createQuery(hql.toString(), entityClass);
+            if (cursor != null) {
+                query.setParameter("id", cursor.id());
+                if (!byId) {
+                    query.setParameter("value", cursor.sortValue());
+                }
+            }
+            query.setMaxResults(request.limit() + 1);
+            if (cacheRegion != null) {
+                query.setCacheable(true).setCacheRegion(cacheRegion);
+            }
+
+            List<T> rows = new ArrayList<>(query.list());
+            boolean hasMore = rows.size() > request.limit();
+            if (hasMore) {
+                rows.remove(rows.size() - 1);
+            }
+            if (request.backward()) {
+                Collections.reverse(rows);
+            }
+            return new Page<>(rows, hasMore);
+        } finally {
+            close(session);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,11 @@
+package com.library.service;
+
+/**
+ * What can be exported. Transactions include the book title and member
+ * name so the file is readable on its own.
+ */
+public enum ExportDataset {
+    BOOKS,
+    MEMBERS,
+    TRANSACTIONS
+}
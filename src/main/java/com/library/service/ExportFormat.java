@@ -0,0 +1,26 @@
+package com.library.service;
+
+import java.util.Locale;
+
+/**
+ * File formats for exports. JSON_LINES writes one JSON object per line.
+ */
+public enum ExportFormat {
+    CSV("csv"),
+    JSON_LINES("jsonl");
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    // Format matching a file name's extension, CSV if unknown
+    public static ExportFormat forFileName(String fileName) {
+        return fileName.toLowerCase(Locale.ROOT).endsWith("." + JSON_LINES.extension) ? JSON_LINES : CSV;
+    }
+}
@@ -0,0 +1,263 @@
+package com.library.service;
+
+import com.library.util.HibernateUtil;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Accrues fines on loans that are still out past their due date.
+ *
+ * A run looks at every unreturned loan due before the run date, computes
+ * its fine so far with the FinePolicy and marks it OVERDUE. The id range
+ * of those loans is split across worker threads; each worker walks its
+ * range in CHUNK_SIZE keyset chunks through a stateless session, one
+ * database transaction per chunk, and writes only the rows whose fine or
+ * status changed, as a JDBC batch.
+ *
+ * The fine is recomputed from the due date each time rather than added
+ * to, so running again for the same day changes nothing: a run that dies
+ * half way is finished by simply running it again.
+ *
+ * Settings (system properties): library.fines.interval_minutes (60),
+ * library.fines.threads, and the policy settings of StandardFinePolicy.
+ */
+public class FineEngine {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    // The status / due date conditions match index idx_txn_status_due (migration V2)
+    private static final String OVERDUE_RANGE_QUERY =
+            "SELECT MIN(t.transactionId), MAX(t.transactionId) FROM Transaction t "
+                    + "WHERE t.status IN ('ISSUED', 'OVERDUE') AND t.dueDate < :asOf AND t.returnDate IS NULL";
+    private static final String OVERDUE_CHUNK_QUERY =
+            "SELECT t.transactionId, b.category, t.dueDate, t.fineAmount, t.status "
+                    + "FROM Transaction t JOIN t.book b "
+                    + "WHERE t.status IN ('ISSUED', 'OVERDUE') AND t.dueDate < :asOf AND t.returnDate IS NULL "
+                    + "AND t.transactionId > :after AND t.transactionId <= :last "
+                    + "ORDER BY t.transactionId";
+    // return_date IS NULL: a loan returned since it was read keeps its final fine
+    private static final String UPDATE_FINE_SQL =
+            "UPDATE Transactions SET fine_amount = ?, status = 'OVERDUE' "
+                    + "WHERE transaction_id = ? AND return_date IS NULL";
+
+    private static final FineEngine INSTANCE = new FineEngine();
+
+    private final int threads;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile FinePolicy policy = StandardFinePolicy.fromSystemProperties();
+    private volatile FineRunResult lastRun;
+    private ScheduledExecutorService scheduler;
+
+    private FineEngine() {
+        this.threads = Math.max(1, Integer.getInteger("library.fines.threads",
+                Math.min(4, Runtime.getRuntime().availableProcessors())));
+    }
+
+    public static FineEngine getInstance() {
+        return INSTANCE;
+    }
+
+    // Built on first use by the worker thread (see HibernateUtil), so start() never waits for it
+    private static SessionFactory sessionFactory() {
+        SessionFactory factory = HibernateUtil.getSessionFactory();
+        if (factory == null) {
+            throw new IllegalStateException("Database not available");
+        }
+        return factory;
+    }
+
+    public FinePolicy getPolicy() {
+        return policy;
+    }
+
+    // Applies to the next run and to returns from now on
+    public void setPolicy(FinePolicy policy) {
+        this.policy = Objects.requireNonNull(policy);
+    }
+
+    // Result of the latest completed run, null before the first
+    public FineRunResult getLastRun() {
+        return lastRun;
+    }
+
+    // ==================== SCHEDULING ====================
+
+    /**
+     * Runs the engine now (in the background) and then every
+     * library.fines.interval_minutes until stop().
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        long interval = Long.getLong("library.fines.interval_minutes", 60);
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "library-fine-engine");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::scheduledRun, 0, interval, TimeUnit.MINUTES);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    // An exception would cancel the schedule, so failures are only reported
+    private void scheduledRun() {
+        try {
+            runOnce(LocalDate.now());
+        } catch (RuntimeException e) {
+            System.err.println("❌ Fine run failed: " + e.getMessage());
+        }
+    }
+
+    // ==================== RUN ====================
+
+    /**
+     * Brings the fine and status of every loan overdue on asOf up to date.
+     * Only one run at a time: throws IllegalStateException if one is
+     * already in progress.
+     */
+    public FineRunResult runOnce(LocalDate asOf) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A fine run is already in progress");
+        }
+        long started = System.nanoTime();
+        try {
+            FinePolicy currentPolicy = policy;
+            long[] counts = new long[2];
+            double outstanding = 0;
+
+            Object[] range;
+            try (StatelessSession session = sessionFactory().openStatelessSession()) {
+                range = session.createQuery(OVERDUE_RANGE_QUERY, Object[].class)
+                        .setParameter("asOf", asOf)
+                        .getSingleResult();
+            }
+            if (range[0] != null) {
+                long first = (Long) range[0];
+                long last = (Long) range[1];
+                long span = last - first + 1;
+                int parts = (int) Math.max(1, Math.min(threads, span / CHUNK_SIZE));
+                long step = (span + parts - 1) / parts;
+
+                List<Future<RangeResult>> futures = new ArrayList<>();
+                try (ExecutorService workers = Executors.newFixedThreadPool(parts)) {
+                    for (long from = first; from <= last; from += step) {
+                        long after = from - 1;
+                        long to = Math.min(last, from + step - 1);
+                        futures.add(workers.submit(() -> processRange(currentPolicy, asOf, after, to)));
+                    }
+                    for (Future<RangeResult> future : futures) {
+                        RangeResult result = future.get();
+                        counts[0] += result.scanned;
+                        counts[1] += result.updated;
+                        outstanding += result.outstanding;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Fine run interrupted", e);
+                } catch (ExecutionException e) {
+                    throw new RuntimeException("Fine run failed: " + e.getCause().getMessage(), e.getCause());
+                }
+            }
+
+            FineRunResult result = new FineRunResult(asOf, counts[0], counts[1], outstanding,
+                    Duration.ofNanos(System.nanoTime() - started));
+            lastRun = result;
+            System.out.println("✅ Fine run for " + asOf + ": " + result.scanned() + " overdue loans, "
+                    + result.updated() + " updated, ₹" + result.outstanding() + " outstanding");
+            return result;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private static final class RangeResult {
+        long scanned;
+        long updated;
+        double outstanding;
+    }
+
+    // Keyset walk of the ids in (after, last], one transaction per chunk
+    private RangeResult processRange(FinePolicy currentPolicy, LocalDate asOf, long after, long last) {
+        RangeResult result = new RangeResult();
+        List<Object[]> changes = new ArrayList<>(CHUNK_SIZE);
+        try (StatelessSession session = sessionFactory().openStatelessSession()) {
+            while (!Thread.currentThread().isInterrupted()) {
+                session.beginTransaction();
+                try {
+                    List<Object[]> rows = session.createQuery(OVERDUE_CHUNK_QUERY, Object[].class)
+                            .setParameter("asOf", asOf)
+                            .setParameter("after", after)
+                            .setParameter("last", last)
+                            .setMaxResults(CHUNK_SIZE)
+                            .list();
+                    changes.clear();
+                    for (Object[] row : rows) {
+                        double fine = currentPolicy.fineFor((String) row[1], (LocalDate) row[2], asOf);
+                        Double current = (Double) row[3];
+                        if (current == null || current != fine || !"OVERDUE".equals(row[4])) {
+                            changes.add(new Object[]{row[0], fine});
+                        }
+                        result.outstanding += fine;
+                    }
+                    updateFines(session, changes);
+                    session.getTransaction().commit();
+                    if (!changes.isEmpty()) {
+                        // Open loans listed from a restored snapshot would show the old fines
+                        DatabaseService.getInstance().stopServingSnapshot();
+                    }
+
+                    result.scanned += rows.size();
+                    result.updated += changes.size();
+                    if (rows.size() < CHUNK_SIZE) {
+                        break;
+                    }
+                    after = (Long) rows.get(rows.size() - 1)[0];
+                } catch (RuntimeException e) {
+                    if (session.getTransaction().isActive()) {
+                        session.getTransaction().rollback();
+                    }
+                    throw e;
+                }
+            }
+        }
+        return result;
+    }
+
+    // changes: {transaction id, fine}
+    private static void updateFines(StatelessSession session, List<Object[]> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_FINE_SQL)) {
+                for (Object[] change : changes) {
+                    statement.setDouble(1, (Double) change[1]);
+                    statement.setLong(2, (Long) change[0]);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+}
@@ -0,0 +1,18 @@
+package com.library.service;
+
+import java.time.LocalDate;
+
+/**
+ * Strategy for overdue fines. Used both for fines accruing on open loans
+ * (FineEngine) and for the final fine when a book comes back.
+ * Implementations must be thread-safe and depend only on their arguments,
+ * so recomputing a fine for the same day always gives the same amount.
+ */
+public interface FinePolicy {
+
+    /**
+     * Fine owed for a book of the given category that was due on dueDate,
+     * as of asOf (the return date, or today for a loan still out).
+     */
+    double fineFor(String category, LocalDate dueDate, LocalDate asOf);
+}
@@ -0,0 +1,11 @@
+package com.library.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Outcome of one FineEngine run: overdue loans examined, loans whose fine
+ * or status changed, and the total accrued on all overdue loans.
+ */
+public record FineRunResult(LocalDate asOf, long scanned, long updated, double outstanding, Duration elapsed) {
+}
@@ -0,0 +1,53 @@
+package com.library.service;
+
+import java.time.LocalDate;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs DatabaseService.expireHolds in the background: now, then every
+ * library.holds.sweep_minutes (60) until stop().
+ */
+public class HoldExpiryJob {
+
+    private static final HoldExpiryJob INSTANCE = new HoldExpiryJob();
+
+    private ScheduledExecutorService scheduler;
+
+    private HoldExpiryJob() {
+    }
+
+    public static HoldExpiryJob getInstance() {
+        return INSTANCE;
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        long interval = Long.getLong("library.holds.sweep_minutes", 60);
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "library-hold-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::sweep, 0, interval, TimeUnit.MINUTES);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    // An exception would cancel the schedule, so failures are only reported
+    private void sweep() {
+        try {
+            DatabaseService.getInstance().expireHolds(LocalDate.now());
+        } catch (RuntimeException e) {
+            System.err.println("❌ Hold expiry failed: " + e.getMessage());
+        }
+    }
+}
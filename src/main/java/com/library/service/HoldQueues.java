@@ -0,0 +1,116 @@
+package com.library.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory hold queues, one per book with active holds: the WAITING
+ * reservations in arrival order and the READY ones by member. Lets issue
+ * and return tell in memory whether a book has holds at all, and which
+ * reservation to lock when it does.
+ *
+ * Each book's queue has its own lock, so holds on different books never
+ * contend; a queue is dropped once it is empty. The database stays the
+ * reference: DatabaseService locks and re-checks a reservation row before
+ * changing it, and updates the queues only once the change has committed.
+ */
+public class HoldQueues {
+
+    private static final class BookQueue {
+        // Reservation id -> member id, in queue order
+        final ArrayDeque<long[]> waiting = new ArrayDeque<>();
+        // Member id -> reservation id of the copy set aside for them
+        final Map<Long, Long> ready = new HashMap<>();
+
+        boolean isEmpty() {
+            return waiting.isEmpty() && ready.isEmpty();
+        }
+    }
+
+    private final ConcurrentHashMap<Long, BookQueue> queues = new ConcurrentHashMap<>();
+
+    // ==================== MAINTENANCE ====================
+
+    // Appends a WAITING hold; holds must be added in queue order
+    public void addWaiting(long bookId, long reservationId, long memberId) {
+        queues.compute(bookId, (id, queue) -> {
+            BookQueue target = queue != null ? queue : new BookQueue();
+            synchronized (target) {
+                target.waiting.addLast(new long[]{reservationId, memberId});
+            }
+            return target;
+        });
+    }
+
+    // A hold got a copy set aside: it leaves the waiting line
+    public void markReady(long bookId, long reservationId, long memberId) {
+        queues.compute(bookId, (id, queue) -> {
+            BookQueue target = queue != null ? queue : new BookQueue();
+            synchronized (target) {
+                target.waiting.removeIf(hold -> hold[0] == reservationId);
+                target.ready.put(memberId, reservationId);
+            }
+            return target;
+        });
+    }
+
+    // Fulfilled, expired or cancelled; an emptied queue is dropped inside compute, so a hold added meanwhile is not lost
+    public void remove(long bookId, long reservationId) {
+        queues.computeIfPresent(bookId, (id, queue) -> {
+            synchronized (queue) {
+                queue.waiting.removeIf(hold -> hold[0] == reservationId);
+                queue.ready.values().removeIf(held -> held == reservationId);
+                return queue.isEmpty() ? null : queue;
+            }
+        });
+    }
+
+    public void removeBook(long bookId) {
+        queues.remove(bookId);
+    }
+
+    // ==================== LOOKUPS ====================
+
+    // Reservation ids waiting for the book, first in line first
+    public List<Long> waitingIds(long bookId) {
+        BookQueue queue = queues.get(bookId);
+        if (queue == null) {
+            return List.of();
+        }
+        synchronized (queue) {
+            List<Long> ids = new ArrayList<>(queue.waiting.size());
+            for (long[] hold : queue.waiting) {
+                ids.add(hold[0]);
+            }
+            return ids;
+        }
+    }
+
+    // The reservation a copy of the book is set aside for, or null
+    public Long readyFor(long bookId, long memberId) {
+        BookQueue queue = queues.get(bookId);
+        if (queue == null) {
+            return null;
+        }
+        synchronized (queue) {
+            return queue.ready.get(memberId);
+        }
+    }
+
+    // Books that currently have members waiting
+    public List<Long> booksWithWaiting() {
+        List<Long> books = new ArrayList<>();
+        for (Map.Entry<Long, BookQueue> entry : queues.entrySet()) {
+            synchronized (entry.getValue()) {
+                if (!entry.getValue().waiting.isEmpty()) {
+                    books.add(entry.getKey());
+                }
+            }
+        }
+        return books;
+    }
+}
@@ -0,0 +1,10 @@
+package com.library.service;
+
+/**
+ * Receives import progress. Called on the importing thread.
+ */
+@FunctionalInterface
+public interface ImportListener {
+
+    void onProgress(ImportProgress progress);
+}
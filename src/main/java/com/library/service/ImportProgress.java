@@ -0,0 +1,17 @@
+package com.library.service;
+
+import java.nio.file.Path;
+
+/**
+ * Running totals of a catalogue import, reported after every committed chunk.
+ * duplicates counts ISBNs already in the catalogue (or earlier in the file);
+ * rejected counts records that failed validation. Both are listed, with the
+ * reason, in rejectsFile.
+ */
+public record ImportProgress(long recordsRead, long imported, long duplicates, long rejected,
+                             long bytesRead, long totalBytes, Path rejectsFile) {
+
+    public double fraction() {
+        return totalBytes > 0 ? Math.min(1.0, (double) bytesRead / totalBytes) : 1.0;
+    }
+}
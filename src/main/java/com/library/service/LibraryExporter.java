@@ -0,0 +1,189 @@
+package com.library.service;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.function.LongConsumer;
+
+/**
+ * Streams a table to a CSV or JSON-lines file in bounded memory.
+ *
+ * Rows are read through a stateless session (no persistence context to
+ * grow) with a forward-only cursor, FETCH_SIZE rows per round trip, as
+ * plain column tuples rather than entities. Output goes through a large
+ * buffer onto a FileChannel. The file is written under a temporary name
+ * and moved into place when complete, so a failed or cancelled export
+ * never leaves a truncated file behind.
+ */
+class LibraryExporter {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int PROGRESS_INTERVAL = 10_000;
+
+    private static final String[] BOOK_COLUMNS =
+            {"book_id", "title", "author", "isbn", "category", "copies", "available_copies", "created_at"};
+    private static final String BOOK_QUERY =
+            "SELECT b.bookId, b.title, b.author, b.isbn, b.category, b.totalCopies, b.availableCopies, b.createdAt "
+                    + "FROM Book b ORDER BY b.bookId";
+
+    private static final String[] MEMBER_COLUMNS =
+            {"member_id", "name", "email", "phone", "address", "membership_date", "status"};
+    private static final String MEMBER_QUERY =
+            "SELECT m.memberId, m.name, m.email, m.phone, m.address, m.membershipDate, m.status "
+                    + "FROM Member m ORDER BY m.memberId";
+
+    private static final String[] TRANSACTION_COLUMNS =
+            {"transaction_id", "book_id", "title", "member_id", "member_name",
+                    "issue_date", "due_date", "return_date", "fine_amount", "status"};
+    private static final String TRANSACTION_QUERY =
+            "SELECT t.transactionId, b.bookId, b.title, m.memberId, m.name, "
+                    + "t.issueDate, t.dueDate, t.returnDate, t.fineAmount, t.status "
+                    + "FROM Transaction t JOIN t.book b JOIN t.member m ORDER BY t.transactionId";
+
+    private final SessionFactory sessionFactory;
+
+    LibraryExporter(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    /**
+     * Writes every row of the dataset to file and returns the row count.
+     * progress receives the running count every PROGRESS_INTERVAL rows.
+     */
+    long export(ExportDataset dataset, ExportFormat format, Path file, LongConsumer progress) throws IOException {
+        String[] columns = switch (dataset) {
+            case BOOKS -> BOOK_COLUMNS;
+            case MEMBERS -> MEMBER_COLUMNS;
+            case TRANSACTIONS -> TRANSACTION_COLUMNS;
+        };
+        String hql = switch (dataset) {
+            case BOOKS -> BOOK_QUERY;
+            case MEMBERS -> MEMBER_QUERY;
+            case TRANSACTIONS -> TRANSACTION_QUERY;
+        };
+
+        Path temp = file.resolveSibling(file.getFileName() + ".part");
+        long rows = 0;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             Writer out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE);
+             StatelessSession session = sessionFactory.openStatelessSession()) {
+
+            if (format == ExportFormat.CSV) {
+                writeCsvRow(out, columns);
+            }
+
+            session.beginTransaction();
+            try (ScrollableResults<Object[]> results = session.createQuery(hql, Object[].class)
+                    .setFetchSize(FETCH_SIZE)
+                    .setReadOnly(true)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                while (results.next()) {
+                    Object[] row = results.get();
+                    if (format == ExportFormat.CSV) {
+                        writeCsvRow(out, row);
+                    } else {
+                        writeJsonRow(out, columns, row);
+                    }
+                    if (++rows % PROGRESS_INTERVAL == 0) {
+                        progress.accept(rows);
+                        if (Thread.currentThread().isInterrupted()) {
+                            throw new CancellationException("Export cancelled after " + rows + " rows");
+                        }
+                    }
+                }
+            }
+            session.getTransaction().commit();
+            out.flush();
+            channel.force(false);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            System.err.println("Error exporting " + dataset.name().toLowerCase(Locale.ROOT) + ": " + e.getMessage());
+            throw e;
+        }
+
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        progress.accept(rows);
+        System.out.println("✅ Exported " + rows + " " + dataset.name().toLowerCase(Locale.ROOT) + " to " + file);
+        return rows;
+    }
+
+    // ==================== FORMATS ====================
+
+    private static void writeCsvRow(Writer out, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            if (values[i] != null) {
+                String text = values[i].toString();
+                if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                    out.write('"');
+                    out.write(text.replace("\"", "\"\""));
+                    out.write('"');
+                } else {
+                    out.write(text);
+                }
+            }
+        }
+        out.write('\n');
+    }
+
+    private static void writeJsonRow(Writer out, String[] columns, Object[] values) throws IOException {
+        out.write('{');
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write('"');
+            out.write(columns[i]);
+            out.write("\":");
+            Object value = values[i];
+            if (value == null) {
+                out.write("null");
+            } else if (value instanceof Number) {
+                out.write(value.toString());
+            } else {
+                writeJsonString(out, value.toString());
+            }
+        }
+        out.write("}\n");
+    }
+
+    private static void writeJsonString(Writer out, String text) throws IOException {
+        out.write('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+                }
+            }
+        }
+        out.write('"');
+    }
+}
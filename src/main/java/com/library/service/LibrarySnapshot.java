@@ -0,0 +1,16 @@
+package com.library.service;
+
+import com.library.model.Book;
+import com.library.model.Member;
+import com.library.model.Transaction;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * What a snapshot file holds: the catalogue, the members and the open
+ * loans as they were at writtenAt (see SnapshotFile). All detached; each
+ * loan refers to the book and member objects of the same snapshot.
+ */
+record LibrarySnapshot(Instant writtenAt, List<Book> books, List<Member> members, List<Transaction> openLoans) {
+}
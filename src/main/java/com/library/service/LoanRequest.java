@@ -0,0 +1,7 @@
+package com.library.service;
+
+/**
+ * One loan in a batch issue: which book goes to which member.
+ */
+public record LoanRequest(Long bookId, Long memberId) {
+}
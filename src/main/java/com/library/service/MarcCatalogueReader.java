@@ -0,0 +1,116 @@
+package com.library.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Streams books from MARC text ("mnemonic" .mrk files, one field per line):
+ *
+ *   =LDR  00000nam  2200000 a 4500
+ *   =020  \\$a9780132350884 (pbk.)
+ *   =100  1\$aMartin, Robert C.
+ *   =245  10$aClean code :$ba handbook of agile software craftsmanship /
+ *   =650  \0$aSoftware engineering.
+ *   =949  \\$c3
+ *
+ * Only the fields above are read (949 $c is the local number of copies);
+ * a record ends at a blank line or the next =LDR.
+ */
+class MarcCatalogueReader implements CatalogueReader {
+
+    private final BufferedReader in;
+    private long line;
+    private String pending;
+
+    MarcCatalogueReader(BufferedReader in) {
+        this.in = in;
+    }
+
+    @Override
+    public CatalogueRecord next() throws IOException {
+        String text = pending;
+        pending = null;
+        // Skip blank lines between records
+        while (text == null || text.isBlank()) {
+            text = in.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+        }
+
+        long start = line;
+        StringBuilder raw = new StringBuilder();
+        String title = null;
+        String author = null;
+        String isbn = null;
+        String category = null;
+        String copies = null;
+
+        while (text != null && !text.isBlank()) {
+            if (text.startsWith("=LDR") && !raw.isEmpty()) {
+                pending = text;
+                break;
+            }
+            if (!raw.isEmpty()) {
+                raw.append('\n');
+            }
+            raw.append(text);
+
+            String tag = text.length() >= 4 && text.charAt(0) == '=' ? text.substring(1, 4) : "";
+            switch (tag) {
+                case "020" -> isbn = isbn != null ? isbn : firstWord(subfield(text, 'a'));
+                case "100" -> author = trimPunctuation(subfield(text, 'a'));
+                case "245" -> title = title(text);
+                case "650" -> category = category != null ? category : trimPunctuation(subfield(text, 'a'));
+                case "949" -> copies = subfield(text, 'c');
+                default -> { }
+            }
+
+            text = in.readLine();
+            if (text != null) {
+                line++;
+            }
+        }
+        return new CatalogueRecord(start, title, author, isbn, category, copies, raw.toString());
+    }
+
+    // 245 $a plus the $b subtitle, without the trailing " /" ISBD punctuation
+    private static String title(String text) {
+        String main = trimPunctuation(subfield(text, 'a'));
+        String rest = trimPunctuation(subfield(text, 'b'));
+        if (main == null || rest == null) {
+            return main;
+        }
+        return main + ": " + rest;
+    }
+
+    // First occurrence of $code in a field line, or null
+    private static String subfield(String text, char code) {
+        int start = text.indexOf("$" + code);
+        if (start < 0) {
+            return null;
+        }
+        int end = text.indexOf('$', start + 2);
+        return text.substring(start + 2, end < 0 ? text.length() : end).strip();
+    }
+
+    private static String firstWord(String value) {
+        if (value == null) {
+            return null;
+        }
+        int space = value.indexOf(' ');
+        return space < 0 ? value : value.substring(0, space);
+    }
+
+    private static String trimPunctuation(String value) {
+        if (value == null) {
+            return null;
+        }
+        int end = value.length();
+        while (end > 0 && " /:;,.".indexOf(value.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        return value.substring(0, end);
+    }
+}
@@ -0,0 +1,228 @@
+package com.library.service;
+
+import com.library.model.Member;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory trigram index over member name, email and phone for typeahead lookup.
+ *
+ * A query matches a member when enough of its trigrams occur in the member's
+ * fields, so partial names, email fragments, phone digits and small typos all
+ * find the member. Members that contain the query as an exact substring (or
+ * start with it) rank above fuzzy matches. Reads are lock-free; writes are
+ * serialized.
+ *
+ * The index keeps its own copy of each member and hands out copies, so a
+ * caller editing a result cannot change what is indexed.
+ */
+public class MemberSearchIndex {
+
+    private static final int GRAM = 3;
+    // Share of the query's trigrams a member must contain to count as a match
+    private static final double MIN_SIMILARITY = 0.5;
+
+    private final ConcurrentHashMap<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Member> members = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, String[]> fieldsByMember = new ConcurrentHashMap<>();
+
+    // ==================== MAINTENANCE ====================
+
+    public synchronized void add(Member member) {
+        if (member == null || member.getMemberId() == null) {
+            return;
+        }
+        Long id = member.getMemberId();
+        remove(id);
+
+        String[] fields = normalizedFields(member);
+        for (String gram : grams(fields)) {
+            postings.computeIfAbsent(gram, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+        fieldsByMember.put(id, fields);
+        members.put(id, copyOf(member));
+    }
+
+    public void update(Member member) {
+        add(member);
+    }
+
+    // Every indexed member, by id
+    public List<Member> all() {
+        List<Member> all = new ArrayList<>(members.size());
+        for (Member member : members.values()) {
+            all.add(copyOf(member));
+        }
+        all.sort(Comparator.comparing(Member::getMemberId));
+        return all;
+    }
+
+    public synchronized void remove(Long memberId) {
+        String[] fields = fieldsByMember.remove(memberId);
+        members.remove(memberId);
+        if (fields == null) {
+            return;
+        }
+        for (String gram : grams(fields)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(memberId);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return members.size();
+    }
+
+    // ==================== QUERY ====================
+
+    /**
+     * Top-k members for a partial name, email or phone number, best first.
+     */
+    public List<Member> search(String query, int limit) {
+        String text = normalize(query);
+        if (text.isEmpty()) {
+            return List.of();
+        }
+        // Queries made only of digits and separators are phone lookups
+        boolean phone = text.chars().noneMatch(Character::isLetter) && !digits(text).isEmpty();
+        String term = phone ? digits(text) : text;
+
+        Map<Long, Double> scores = term.length() < GRAM ? scanShort(term, phone) : trigramMatch(term, phone);
+
+        // Keep the best k, ties broken by lower id
+        Comparator<Map.Entry<Long, Double>> ranking = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed());
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(ranking);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            if (top.size() < limit) {
+                top.add(entry);
+            } else if (ranking.compare(entry, top.peek()) > 0) {
+                top.poll();
+                top.add(entry);
+            }
+        }
+
+        List<Member> results = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            Member member = members.get(top.poll().getKey());
+            if (member != null) {
+                results.add(copyOf(member));
+            }
+        }
+        Collections.reverse(results);
+        return results;
+    }
+
+    private Map<Long, Double> trigramMatch(String term, boolean phone) {
+        Set<String> queryGrams = new LinkedHashSet<>();
+        addGrams(queryGrams, term);
+
+        Map<Long, Integer> hits = new HashMap<>();
+        for (String gram : queryGrams) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                for (Long id : ids) {
+                    hits.merge(id, 1, Integer::sum);
+                }
+            }
+        }
+
+        int needed = (int) Math.ceil(MIN_SIMILARITY * queryGrams.size());
+
+        Map<Long, Double> scores = new HashMap<>();
+        for (Map.Entry<Long, Integer> entry : hits.entrySet()) {
+            if (entry.getValue() >= needed) {
+                double similarity = (double) entry.getValue() / queryGrams.size();
+                scores.put(entry.getKey(), similarity + bonus(fieldsByMember.get(entry.getKey()), term, phone));
+            }
+        }
+        return scores;
+    }
+
+    // One or two characters have no trigram: plain substring scan
+    private Map<Long, Double> scanShort(String term, boolean phone) {
+        Map<Long, Double> scores = new HashMap<>();
+        for (Map.Entry<Long, String[]> entry : fieldsByMember.entrySet()) {
+            double bonus = bonus(entry.getValue(), term, phone);
+            if (bonus > 0) {
+                scores.put(entry.getKey(), bonus);
+            }
+        }
+        return scores;
+    }
+
+    // Exact substring beats fuzzy, a prefix of the name beats any other substring
+    private static double bonus(String[] fields, String term, boolean phone) {
+        if (fields == null) {
+            return 0;
+        }
+        if (phone) {
+            return fields[2].startsWith(term) ? 2 : fields[2].contains(term) ? 1 : 0;
+        }
+        if (fields[0].startsWith(term)) {
+            return 2;
+        }
+        return fields[0].contains(term) || fields[1].contains(term) ? 1 : 0;
+    }
+
+    private static Member copyOf(Member member) {
+        Member copy = new Member(member.getName(), member.getEmail(), member.getPhone(), member.getAddress());
+        copy.setMemberId(member.getMemberId());
+        copy.setMembershipDate(member.getMembershipDate());
+        copy.setStatus(member.getStatus());
+        return copy;
+    }
+
+    // ==================== NORMALIZING ====================
+
+    // name, email (case-folded) and phone (digits only)
+    private static String[] normalizedFields(Member member) {
+        return new String[]{normalize(member.getName()), normalize(member.getEmail()), digits(member.getPhone())};
+    }
+
+    private static Set<String> grams(String[] fields) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String field : fields) {
+            addGrams(grams, field);
+        }
+        return grams;
+    }
+
+    private static void addGrams(Set<String> grams, String text) {
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String digits(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder digits = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isDigit(text.charAt(i))) {
+                digits.append(text.charAt(i));
+            }
+        }
+        return digits.toString();
+    }
+}
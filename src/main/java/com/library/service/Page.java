@@ -0,0 +1,10 @@
+package com.library.service;
+
+import java.util.List;
+
+/**
+ * One page of rows, always in ascending sort order.
+ * hasMore tells whether more rows exist in the direction that was requested.
+ */
+public record Page<T>(List<T> items, boolean hasMore) {
+}
@@ -0,0 +1,8 @@
+package com.library.service;
+
+/**
+ * Position of a row in a keyset-paginated result: the value of the sort
+ * column plus the id that breaks ties between equal values.
+ */
+public record PageCursor(Object sortValue, Long id) {
+}
@@ -0,0 +1,21 @@
+package com.library.service;
+
+/**
+ * Keyset page request: up to limit rows strictly after (or, when backward,
+ * strictly before) the cursor in the given sort order. A null cursor means
+ * the start (or end) of the table.
+ */
+public record PageRequest(PageSort sort, PageCursor cursor, boolean backward, int limit) {
+
+    public static PageRequest first(PageSort sort, int limit) {
+        return new PageRequest(sort, null, false, limit);
+    }
+
+    public static PageRequest after(PageSort sort, PageCursor cursor, int limit) {
+        return new PageRequest(sort, cursor, false, limit);
+    }
+
+    public static PageRequest before(PageSort sort, PageCursor cursor, int limit) {
+        return new PageRequest(sort, cursor, true, limit);
+    }
+}
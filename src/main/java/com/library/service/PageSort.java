@@ -0,0 +1,42 @@
+package com.library.service;
+
+import com.library.model.Book;
+import com.library.model.Member;
+import com.library.model.Transaction;
+
+/**
+ * Sort orders supported by the keyset-paginated queries.
+ * Every order is made unique by using the entity id as a tie-breaker.
+ */
+public enum PageSort {
+    ID,
+    TITLE,  // Book title, Member name, Transaction book title
+    DATE;   // Book created_at, Member membership_date, Transaction issue_date
+
+    public PageCursor cursorOf(Book book) {
+        Object value = switch (this) {
+            case ID -> book.getBookId();
+            case TITLE -> book.getTitle();
+            case DATE -> book.getCreatedAt();
+        };
+        return new PageCursor(value, book.getBookId());
+    }
+
+    public PageCursor cursorOf(Member member) {
+        Object value = switch (this) {
+            case ID -> member.getMemberId();
+            case TITLE -> member.getName();
+            case DATE -> member.getMembershipDate();
+        };
+        return new PageCursor(value, member.getMemberId());
+    }
+
+    public PageCursor cursorOf(Transaction transaction) {
+        Object value = switch (this) {
+            case ID -> transaction.getTransactionId();
+            case TITLE -> transaction.getBook().getTitle();
+            case DATE -> transaction.getIssueDate();
+        };
+        return new PageCursor(value, transaction.getTransactionId());
+    }
+}
@@ -0,0 +1,290 @@
+package com.library.service;
+
+import com.library.model.Book;
+import com.library.model.Member;
+import com.library.model.Transaction;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary snapshot file of the catalogue, members and open loans.
+ *
+ * Layout: a fixed header (magic, format version, time written, payload
+ * length, CRC32C of the payload), then the payload: books, members and
+ * loans, each record tagged with a 1 byte and each section closed by a 0.
+ * Strings are an int byte length (-1 for null) and UTF-8; dates are epoch
+ * days, Long.MIN_VALUE for null.
+ *
+ * Written to a temporary file that then replaces the old snapshot, so a
+ * crash mid-write leaves the previous one in place. Read memory-mapped; a
+ * file with another format version, a short payload or a checksum
+ * mismatch is refused with an IOException.
+ */
+final class SnapshotFile {
+
+    private static final long MAGIC = 0x4C49425241525931L; // "LIBRARY1"
+    static final int FORMAT_VERSION = 1;
+    // magic, version, reserved, written at, payload length, checksum, reserved
+    private static final int HEADER_BYTES = 8 + 4 + 4 + 8 + 8 + 4 + 4;
+
+    private static final byte RECORD = 1;
+    private static final byte END_OF_SECTION = 0;
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private SnapshotFile() {}
+
+    // ==================== WRITE ====================
+
+    /**
+     * Writes the records the iterators yield (they may be lazy, e.g. over
+     * a database cursor) and swaps the file into place. Returns the size
+     * of the new file.
+     */
+    static long write(Path file, Iterator<Book> books, Iterator<Member> members, Iterator<Transaction> loans)
+            throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            long payloadLength;
+            CRC32C checksum = new CRC32C();
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                channel.position(HEADER_BYTES);
+                // Closing the stream would close the channel before the header is written
+                OutputStream unclosed = Channels.newOutputStream(channel);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                        new CheckedOutputStream(unclosed, checksum), 64 * 1024));
+                while (books.hasNext()) {
+                    out.writeByte(RECORD);
+                    writeBook(out, books.next());
+                }
+                out.writeByte(END_OF_SECTION);
+                while (members.hasNext()) {
+                    out.writeByte(RECORD);
+                    writeMember(out, members.next());
+                }
+                out.writeByte(END_OF_SECTION);
+                while (loans.hasNext()) {
+                    out.writeByte(RECORD);
+                    writeLoan(out, loans.next());
+                }
+                out.writeByte(END_OF_SECTION);
+                out.flush();
+                payloadLength = channel.position() - HEADER_BYTES;
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                header.putLong(MAGIC)
+                        .putInt(FORMAT_VERSION)
+                        .putInt(0)
+                        .putLong(System.currentTimeMillis())
+                        .putLong(payloadLength)
+                        .putInt((int) checksum.getValue())
+                        .putInt(0)
+                        .flip();
+                channel.write(header, 0);
+                channel.force(true);
+            }
+            try {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return HEADER_BYTES + payloadLength;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static void writeBook(DataOutputStream out, Book book) throws IOException {
+        out.writeLong(book.getBookId());
+        writeString(out, book.getTitle());
+        writeString(out, book.getAuthor());
+        writeString(out, book.getIsbn());
+        writeString(out, book.getCategory());
+        out.writeInt(book.getTotalCopies() != null ? book.getTotalCopies() : 0);
+        out.writeInt(book.getAvailableCopies() != null ? book.getAvailableCopies() : 0);
+        LocalDateTime created = book.getCreatedAt();
+        out.writeLong(created != null ? created.toEpochSecond(ZoneOffset.UTC) : NO_DATE);
+        out.writeInt(created != null ? created.getNano() : 0);
+    }
+
+    private static void writeMember(DataOutputStream out, Member member) throws IOException {
+        out.writeLong(member.getMemberId());
+        writeString(out, member.getName());
+        writeString(out, member.getEmail());
+        writeString(out, member.getPhone());
+        writeString(out, member.getAddress());
+        writeDate(out, member.getMembershipDate());
+        writeString(out, member.getStatus());
+    }
+
+    private static void writeLoan(DataOutputStream out, Transaction loan) throws IOException {
+        out.writeLong(loan.getTransactionId());
+        out.writeLong(loan.getBook().getBookId());
+        out.writeLong(loan.getMember().getMemberId());
+        writeDate(out, loan.getIssueDate());
+        writeDate(out, loan.getDueDate());
+        out.writeDouble(loan.getFineAmount() != null ? loan.getFineAmount() : Double.NaN);
+        writeString(out, loan.getStatus());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeDate(DataOutputStream out, LocalDate date) throws IOException {
+        out.writeLong(date != null ? date.toEpochDay() : NO_DATE);
+    }
+
+    // ==================== READ ====================
+
+    static LibrarySnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Snapshot is truncated");
+            }
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot is larger than 2 GB");
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (mapped.getLong() != MAGIC) {
+                throw new IOException("Not a snapshot file");
+            }
+            int version = mapped.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Snapshot format " + version + ", expected " + FORMAT_VERSION);
+            }
+            mapped.getInt();
+            Instant writtenAt = Instant.ofEpochMilli(mapped.getLong());
+            long payloadLength = mapped.getLong();
+            int expectedChecksum = mapped.getInt();
+            if (payloadLength != channel.size() - HEADER_BYTES) {
+                throw new IOException("Snapshot is truncated");
+            }
+
+            ByteBuffer payload = mapped.slice(HEADER_BYTES, (int) payloadLength);
+            CRC32C checksum = new CRC32C();
+            checksum.update(payload.duplicate());
+            if ((int) checksum.getValue() != expectedChecksum) {
+                throw new IOException("Snapshot checksum mismatch");
+            }
+
+            try {
+                List<Book> books = new ArrayList<>();
+                Map<Long, Book> booksById = new HashMap<>();
+                while (payload.get() == RECORD) {
+                    Book book = readBook(payload);
+                    books.add(book);
+                    booksById.put(book.getBookId(), book);
+                }
+                List<Member> members = new ArrayList<>();
+                Map<Long, Member> membersById = new HashMap<>();
+                while (payload.get() == RECORD) {
+                    Member member = readMember(payload);
+                    members.add(member);
+                    membersById.put(member.getMemberId(), member);
+                }
+                List<Transaction> loans = new ArrayList<>();
+                while (payload.get() == RECORD) {
+                    Transaction loan = readLoan(payload, booksById, membersById);
+                    if (loan != null) {
+                        loans.add(loan);
+                    }
+                }
+                return new LibrarySnapshot(writtenAt, books, members, loans);
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                throw new IOException("Snapshot payload is malformed", e);
+            }
+        }
+    }
+
+    private static Book readBook(ByteBuffer in) {
+        Book book = new Book();
+        book.setBookId(in.getLong());
+        book.setTitle(readString(in));
+        book.setAuthor(readString(in));
+        book.setIsbn(readString(in));
+        book.setCategory(readString(in));
+        book.setTotalCopies(in.getInt());
+        book.setAvailableCopies(in.getInt());
+        long seconds = in.getLong();
+        int nanos = in.getInt();
+        book.setCreatedAt(seconds != NO_DATE ? LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC) : null);
+        return book;
+    }
+
+    private static Member readMember(ByteBuffer in) {
+        Member member = new Member();
+        member.setMemberId(in.getLong());
+        member.setName(readString(in));
+        member.setEmail(readString(in));
+        member.setPhone(readString(in));
+        member.setAddress(readString(in));
+        member.setMembershipDate(readDate(in));
+        member.setStatus(readString(in));
+        return member;
+    }
+
+    // Null for a loan whose book or member is missing from the snapshot
+    private static Transaction readLoan(ByteBuffer in, Map<Long, Book> books, Map<Long, Member> members) {
+        Transaction loan = new Transaction();
+        loan.setTransactionId(in.getLong());
+        Book book = books.get(in.getLong());
+        Member member = members.get(in.getLong());
+        loan.setBook(book);
+        loan.setMember(member);
+        loan.setIssueDate(readDate(in));
+        loan.setDueDate(readDate(in));
+        double fine = in.getDouble();
+        loan.setFineAmount(Double.isNaN(fine) ? null : fine);
+        loan.setStatus(readString(in));
+        return book != null && member != null ? loan : null;
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static LocalDate readDate(ByteBuffer in) {
+        long day = in.getLong();
+        return day != NO_DATE ? LocalDate.ofEpochDay(day) : null;
+    }
+}
@@ -0,0 +1,113 @@
+package com.library.service;
+
+import com.library.util.HibernateUtil;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warm startup from the snapshot file (see SnapshotFile): restore() loads
+ * it before the database is up; start() then reconciles with the database
+ * in the background, retrying with a growing delay (up to 5 minutes) while
+ * the database cannot be reached, and writes a fresh snapshot every
+ * library.snapshot.minutes (30); stop() writes a last one.
+ *
+ * Settings (system properties): library.snapshot.enabled (true),
+ * library.snapshot.file (data/library.snapshot), library.snapshot.minutes.
+ */
+public class SnapshotJob {
+
+    private static final SnapshotJob INSTANCE = new SnapshotJob();
+
+    private static final long FIRST_RETRY_SECONDS = 15;
+    private static final long MAX_RETRY_SECONDS = 300;
+
+    private final boolean enabled = Boolean.parseBoolean(System.getProperty("library.snapshot.enabled", "true"));
+    private final Path file = Path.of(System.getProperty("library.snapshot.file", "data/library.snapshot"));
+
+    private volatile ScheduledExecutorService scheduler;
+    // Only touched on the scheduler thread
+    private long retrySeconds = FIRST_RETRY_SECONDS;
+
+    private SnapshotJob() {
+    }
+
+    public static SnapshotJob getInstance() {
+        return INSTANCE;
+    }
+
+    // Whether reads are now served from the snapshot (false: no usable snapshot, load from the database)
+    public boolean restore() {
+        return enabled && DatabaseService.getInstance().loadSnapshot(file);
+    }
+
+    public synchronized void start() {
+        if (!enabled || scheduler != null) {
+            return;
+        }
+        long interval = Long.getLong("library.snapshot.minutes", 30);
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "library-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (DatabaseService.getInstance().isServingSnapshot()) {
+            scheduler.execute(this::reconcile);
+        }
+        scheduler.scheduleWithFixedDelay(this::write, interval, interval, TimeUnit.MINUTES);
+    }
+
+    // Writes the last snapshot on the calling thread, before the database is shut down
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler = null;
+        if (HibernateUtil.isReady()) {
+            write();
+        }
+    }
+
+    // Until it succeeds the lists stay those of the snapshot, so a failure is retried
+    private void reconcile() {
+        try {
+            DatabaseService.getInstance().reconcileSnapshot();
+        } catch (RuntimeException e) {
+            System.err.println("❌ Snapshot reconcile failed, still serving the snapshot (retrying in "
+                    + retrySeconds + " s): " + e.getMessage());
+            retryReconcile();
+        }
+    }
+
+    // Not synchronized: stop() holds the lock while it waits for this thread
+    private void retryReconcile() {
+        ScheduledExecutorService current = scheduler;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.schedule(this::reconcile, retrySeconds, TimeUnit.SECONDS);
+            retrySeconds = Math.min(retrySeconds * 2, MAX_RETRY_SECONDS);
+        } catch (RejectedExecutionException e) {
+            // Stopping
+        }
+    }
+
+    private void write() {
+        try {
+            DatabaseService.getInstance().writeSnapshot(file);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("❌ Snapshot write failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.library.service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Daily rate per overdue day, optionally per category, after a number of
+ * free grace days, up to a maximum per loan.
+ *
+ * With the defaults (₹5 a day, no grace, no cap) this is the library's
+ * original rule: (return date - due date) * 5.
+ */
+public class StandardFinePolicy implements FinePolicy {
+
+    private final double defaultRate;
+    private final Map<String, Double> categoryRates;
+    private final int graceDays;
+    private final double maxFine;
+
+    /**
+     * @param categoryRates daily rate by category (case-insensitive), overriding defaultRate
+     * @param graceDays     overdue days that are not charged
+     * @param maxFine       most a single loan can be charged; 0 for no limit
+     */
+    public StandardFinePolicy(double defaultRate, Map<String, Double> categoryRates, int graceDays, double maxFine) {
+        this.defaultRate = defaultRate;
+        this.categoryRates = new HashMap<>();
+        categoryRates.forEach((category, rate) -> this.categoryRates.put(category.toLowerCase(Locale.ROOT), rate));
+        this.graceDays = graceDays;
+        this.maxFine = maxFine;
+    }
+
+    /**
+     * Policy from system properties: library.fines.rate (default 5),
+     * library.fines.rate.&lt;category&gt;, library.fines.grace_days (0) and
+     * library.fines.max (0, no limit).
+     */
+    public static StandardFinePolicy fromSystemProperties() {
+        String prefix = "library.fines.rate.";
+        Map<String, Double> categoryRates = new HashMap<>();
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(prefix)) {
+                categoryRates.put(name.substring(prefix.length()), Double.parseDouble(System.getProperty(name)));
+            }
+        }
+        return new StandardFinePolicy(
+                Double.parseDouble(System.getProperty("library.fines.rate", "5")),
+                categoryRates,
+                Integer.getInteger("library.fines.grace_days", 0),
+                Double.parseDouble(System.getProperty("library.fines.max", "0")));
+    }
+
+    @Override
+    public double fineFor(String category, LocalDate dueDate, LocalDate asOf) {
+        long chargedDays = ChronoUnit.DAYS.between(dueDate, asOf) - graceDays;
+        if (chargedDays <= 0) {
+            return 0;
+        }
+        double rate = category != null
+                ? categoryRates.getOrDefault(category.toLowerCase(Locale.ROOT), defaultRate)
+                : defaultRate;
+        double fine = chargedDays * rate;
+        return maxFine > 0 ? Math.min(fine, maxFine) : fine;
+    }
+}
@@ -0,0 +1,5 @@
+package com.library.service;
+
+// Times a title was borrowed in a month (see CirculationStatistics.getTopTitles)
+public record TitleLoans(long bookId, String title, String category, long loans) {
+}
@@ -0,0 +1,67 @@
+package com.library.service;
+
+import org.hibernate.Session;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One Session and one database transaction shared by every DatabaseService
+ * call made on a thread inside DatabaseService.inUnitOfWork().
+ *
+ * Work that must only happen once the data is committed (search index
+ * updates, event logging) is queued with afterCommit; cache evictions are
+ * queued with afterCompletion and run whether the unit commits or not.
+ */
+final class UnitOfWork {
+
+    private final Session session;
+    private final List<Runnable> afterCommit = new ArrayList<>();
+    private final List<Runnable> afterCompletion = new ArrayList<>();
+
+    UnitOfWork(Session session) {
+        this.session = session;
+        session.beginTransaction();
+    }
+
+    Session session() {
+        return session;
+    }
+
+    void afterCommit(Runnable action) {
+        afterCommit.add(action);
+    }
+
+    void afterCompletion(Runnable action) {
+        afterCompletion.add(action);
+    }
+
+    // A call inside the unit failed: the transaction can only be rolled back now
+    void markRollbackOnly() {
+        if (session.getTransaction().isActive()) {
+            session.getTransaction().markRollbackOnly();
+        }
+    }
+
+    void commit() {
+        if (session.getTransaction().getRollbackOnly()) {
+            throw new IllegalStateException("Unit of work was marked for rollback by an earlier failure");
+        }
+        session.getTransaction().commit();
+        afterCommit.forEach(Runnable::run);
+    }
+
+    void rollback() {
+        if (session.getTransaction().isActive()) {
+            session.getTransaction().rollback();
+        }
+    }
+
+    void close() {
+        try {
+            session.close();
+        } finally {
+            afterCompletion.forEach(Runnable::run);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.library.util;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded multi-producer, single-consumer ring of preallocated events.
+ *
+ * Producers claim a sequence number with a CAS, fill the slot in place and
+ * publish it by storing the slot's round number; no locks and no
+ * allocation. The consumer hands published slots to a handler in order and
+ * only then releases them for reuse, so a slot is never overwritten while
+ * it is being read.
+ */
+final class EventRingBuffer {
+
+    // How long a blocked producer waits before checking for space again
+    private static final long PRODUCER_WAIT_NANOS = 50_000;
+
+    private final LibraryEvent[] slots;
+    // Round (sequence / capacity) of the event last published in each slot
+    private final AtomicIntegerArray published;
+    private final int mask;
+    private final int shift;
+
+    // Next sequence to hand to a producer
+    private final AtomicLong claimed = new AtomicLong();
+    // Every sequence below this has been consumed (written by the consumer only)
+    private volatile long consumed;
+    private volatile boolean closed;
+
+    EventRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be a power of two: " + capacity);
+        }
+        slots = new LibraryEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new LibraryEvent();
+        }
+        published = new AtomicIntegerArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+        mask = capacity - 1;
+        shift = Integer.numberOfTrailingZeros(capacity);
+    }
+
+    /**
+     * Claims the next slot. When the ring is full, waits for the consumer if
+     * block is set, otherwise gives up. Returns -1 if no slot was claimed
+     * (full, or the ring is closed).
+     */
+    long claim(boolean block) {
+        while (!closed) {
+            long sequence = claimed.get();
+            if (sequence - consumed >= slots.length) {
+                if (!block) {
+                    return -1;
+                }
+                LockSupport.parkNanos(PRODUCER_WAIT_NANOS);
+            } else if (claimed.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+        return -1;
+    }
+
+    LibraryEvent slot(long sequence) {
+        return slots[(int) sequence & mask];
+    }
+
+    // Makes a claimed slot visible to the consumer; must follow every successful claim
+    void publish(long sequence) {
+        published.lazySet((int) sequence & mask, (int) (sequence >>> shift));
+    }
+
+    /**
+     * Consumer only: passes up to max published events, in order, to handler
+     * and then frees their slots. Returns how many were handled.
+     */
+    int drain(Consumer<LibraryEvent> handler, int max) {
+        long next = consumed;
+        int count = 0;
+        while (count < max) {
+            int index = (int) next & mask;
+            if (published.get(index) != (int) (next >>> shift)) {
+                break;
+            }
+            handler.accept(slots[index]);
+            next++;
+            count++;
+        }
+        if (count > 0) {
+            consumed = next;
+        }
+        return count;
+    }
+
+    boolean hasPending() {
+        return claimed.get() > consumed;
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    // Stops further claims (blocked producers give up)
+    void close() {
+        closed = true;
+    }
+}
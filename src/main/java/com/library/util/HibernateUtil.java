@@ -1,39 +1,187 @@
 package com.library.util;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
 
 public class HibernateUtil {
 
-    private static SessionFactory sessionFactory;
+    // Lifecycle of the shared SessionFactory
+    public enum State { NOT_STARTED, STARTING, READY, FAILED, CLOSED }
+
+    private static volatile State state = State.NOT_STARTED;
+
+    private static volatile SessionFactory sessionFactory;
+    private static final Object BUILD_LOCK = new Object();
 
     // Private constructor to prevent instantiation (Singleton pattern)
     private HibernateUtil() {}
 
-    // Get SessionFactory instance
+    /**
+     * Double-checked locking: concurrent first callers build the factory
+     * once, under BUILD_LOCK; every later call is a single volatile read.
+     * A failed build (e.g. the database is down) is not remembered, so the
+     * next call tries again; until then callers get null.
+     */
     public static SessionFactory getSessionFactory() {
-        if (sessionFactory == null) {
-            try {
-                // Create SessionFactory from hibernate.cfg.xml
-                Configuration configuration = new Configuration();
-                configuration.configure("hibernate.cfg.xml");
-                sessionFactory = configuration.buildSessionFactory();
-
-                System.out.println("✅ Hibernate SessionFactory created successfully!");
-
-            } catch (Exception e) {
-                System.err.println("❌ Error creating SessionFactory: " + e.getMessage());
-                e.printStackTrace();
+        SessionFactory factory = sessionFactory;
+        if (factory == null) {
+            synchronized (BUILD_LOCK) {
+                factory = sessionFactory;
+                if (factory == null) {
+                    factory = build();
+                    sessionFactory = factory;
+                }
             }
         }
-        return sessionFactory;
+        return factory;
+    }
+
+    /**
+     * Builds the SessionFactory eagerly. Call once at application startup
+     * (off the UI thread) so the first user action doesn't pay for it.
+     */
+    public static boolean bootstrap() {
+        return getSessionFactory() != null;
     }
 
-    // Close SessionFactory
+    public static State getState() {
+        return state;
+    }
+
+    public static boolean isReady() {
+        return state == State.READY;
+    }
+
+    private static SessionFactory build() {
+        state = State.STARTING;
+        try {
+            // Create SessionFactory from hibernate.cfg.xml
+            Configuration configuration = new Configuration();
+            configuration.configure("hibernate.cfg.xml");
+            applyEnvironmentOverrides(configuration);
+            SessionFactory factory = configuration.buildSessionFactory();
+            if (Boolean.parseBoolean(System.getProperty("library.schema.migrate", "true"))) {
+                try {
+                    SchemaMigrator.migrate(factory);
+                } catch (RuntimeException e) {
+                    factory.close();
+                    throw e;
+                }
+            }
+
+            state = State.READY;
+            System.out.println("✅ Hibernate SessionFactory created successfully!");
+            return factory;
+
+        } catch (Exception e) {
+            state = State.FAILED;
+            System.err.println("❌ Error creating SessionFactory: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Layers per-environment settings on top of hibernate.cfg.xml:
+     * first hibernate-{env}.properties from the classpath (env taken from
+     * -Dlibrary.env or LIBRARY_ENV), then any hibernate.* / library.*
+     * system properties.
+     */
+    private static void applyEnvironmentOverrides(Configuration configuration) throws IOException {
+        String env = System.getProperty("library.env", System.getenv("LIBRARY_ENV"));
+        if (env != null && !env.isBlank()) {
+            String resource = "hibernate-" + env.trim() + ".properties";
+            try (InputStream in = HibernateUtil.class.getClassLoader().getResourceAsStream(resource)) {
+                if (in == null) {
+                    throw new IOException("Environment config not found on classpath: " + resource);
+                }
+                Properties properties = new Properties();
+                properties.load(in);
+                configuration.addProperties(properties);
+                System.out.println("✅ Loaded environment config: " + resource);
+            }
+        }
+
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("hibernate.") || name.startsWith("library.pool.")) {
+                configuration.setProperty(name, System.getProperty(name));
+            }
+        }
+    }
+
+    // Connection pool metrics (active/idle counts, acquire wait times)
+    public static PooledConnectionProvider.PoolStats getPoolStats() {
+        if (!isReady()) {
+            return null;
+        }
+        SessionFactory factory = getSessionFactory();
+        ConnectionProvider provider = factory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(ConnectionProvider.class);
+        if (provider != null && provider.isUnwrappableAs(PooledConnectionProvider.class)) {
+            return provider.unwrap(PooledConnectionProvider.class).getStats();
+        }
+        return null;
+    }
+
+    // Second-level cache statistics per region (hits, misses, evictions, size)
+    public static List<CacheRegionStats> getCacheStats() {
+        List<CacheRegionStats> stats = new ArrayList<>();
+        if (!isReady()) {
+            return stats;
+        }
+        RegionFactory regionFactory = getSessionFactory().unwrap(SessionFactoryImplementor.class)
+                .getCache()
+                .getRegionFactory();
+        if (!(regionFactory instanceof JCacheRegionFactory jcache)) {
+            return stats;
+        }
+        CacheManager cacheManager = jcache.getCacheManager();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache<Object, Object> cache = cacheManager.getCache(name);
+            if (cache == null) {
+                continue;
+            }
+            com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine =
+                    cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+            CacheStats region = caffeine.stats();
+            stats.add(new CacheRegionStats(name, region.hitCount(), region.missCount(),
+                    region.evictionCount(), caffeine.estimatedSize()));
+        }
+        return stats;
+    }
+
+    public record CacheRegionStats(String region, long hits, long misses, long evictions, long size) {
+
+        public double hitRatio() {
+            long requests = hits + misses;
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+    }
+
+    // Close SessionFactory (no-op if it was never built)
     public static void shutdown() {
-        if (sessionFactory != null && !sessionFactory.isClosed()) {
-            sessionFactory.close();
+        if (state != State.READY) {
+            return;
+        }
+        SessionFactory factory = sessionFactory;
+        if (factory != null && !factory.isClosed()) {
+            factory.close();
+            state = State.CLOSED;
             System.out.println("✅ Hibernate SessionFactory closed.");
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,89 @@
+package com.library.util;
+
+import java.time.LocalDate;
+
+/**
+ * One library event, as delivered to a LibraryEventListener.
+ *
+ * Events live in LibraryLogger's ring buffer and the same instance is
+ * reused for later events, so a listener must copy what it needs during
+ * onEvent and must not keep the event itself. Ids are 0 when not known;
+ * text fields and the due date may be null.
+ */
+public final class LibraryEvent {
+
+    public enum Type {
+        BOOK_ISSUED,
+        BOOK_RETURNED,
+        // Published right after BOOK_RETURNED when the return was late
+        FINE_ASSESSED
+    }
+
+    Type type;
+    long timestamp;
+    long transactionId;
+    long bookId;
+    long memberId;
+    String bookTitle;
+    String bookCategory;
+    String memberName;
+    LocalDate dueDate;
+    double fine;
+
+    LibraryEvent() {
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    // Epoch milliseconds when the event was published
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getTransactionId() {
+        return transactionId;
+    }
+
+    public long getBookId() {
+        return bookId;
+    }
+
+    public long getMemberId() {
+        return memberId;
+    }
+
+    public String getBookTitle() {
+        return bookTitle;
+    }
+
+    public String getBookCategory() {
+        return bookCategory;
+    }
+
+    public String getMemberName() {
+        return memberName;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public double getFine() {
+        return fine;
+    }
+
+    void clear() {
+        type = null;
+        timestamp = 0;
+        transactionId = 0;
+        bookId = 0;
+        memberId = 0;
+        bookTitle = null;
+        bookCategory = null;
+        memberName = null;
+        dueDate = null;
+        fine = 0;
+    }
+}
@@ -0,0 +1,21 @@
+package com.library.util;
+
+/**
+ * Observer of library events, registered with LibraryLogger.addListener.
+ *
+ * All callbacks run on the logger's single writer thread, never on the
+ * thread that issued or returned the book. Events arrive in batches:
+ * onEvent for each event in the batch, then onBatchEnd (the place to
+ * flush). The event object is reused after onEvent returns.
+ */
+public interface LibraryEventListener {
+
+    void onEvent(LibraryEvent event);
+
+    default void onBatchEnd() {
+    }
+
+    // Called once when the logger shuts down, after the last batch
+    default void onClose() {
+    }
+}
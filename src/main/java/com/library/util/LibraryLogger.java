@@ -1,34 +1,216 @@
 package com.library.util;
 
+import com.library.journal.CirculationJournal;
+import com.library.model.Book;
+import com.library.model.Member;
 import com.library.model.Transaction;
-import java.time.LocalDateTime;
+import org.hibernate.Hibernate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
 
 /**
- * Observer Pattern: Logs library events
- * Observers are notified when important events occur
+ * Observer Pattern: publishes library events to registered listeners.
+ *
+ * logBookIssue / logBookReturn only copy ids, references and the fine into
+ * a preallocated slot of a lock-free ring buffer; formatting and I/O happen
+ * on a background writer thread that delivers events to the listeners in
+ * batches. A RollingLogWriter (logs/library.log) is always registered, and
+ * the CirculationJournal (journal/) unless library.journal.enabled=false.
+ *
+ * When the buffer is full the overflow policy decides: BLOCK makes the
+ * caller wait for space, DROP discards the event and counts it.
+ * Settings (system properties): library.log.dir, library.log.max_bytes,
+ * library.log.max_files, library.log.buffer_size, library.log.overflow,
+ * library.journal.dir, library.journal.segment_bytes.
  */
 public class LibraryLogger {
 
-    private static LibraryLogger instance;
+    public enum OverflowPolicy {
+        BLOCK,
+        DROP
+    }
+
+    // Most events handed to the listeners before onBatchEnd
+    private static final int MAX_BATCH = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final LibraryLogger INSTANCE = new LibraryLogger();
+
+    private final EventRingBuffer buffer;
+    private final OverflowPolicy overflowPolicy;
+    private final List<LibraryEventListener> listeners = new CopyOnWriteArrayList<>();
+    private final LongAdder dropped = new LongAdder();
+    private final Consumer<LibraryEvent> dispatcher = this::dispatch;
+    private final Thread writer;
+    private volatile boolean running = true;
 
-    private LibraryLogger() {}
+    private LibraryLogger() {
+        buffer = new EventRingBuffer(Integer.getInteger("library.log.buffer_size", 8192));
+        overflowPolicy = OverflowPolicy.valueOf(
+                System.getProperty("library.log.overflow", "BLOCK").toUpperCase(Locale.ROOT));
+
+        Path logFile = Path.of(System.getProperty("library.log.dir", "logs"), "library.log");
+        listeners.add(new RollingLogWriter(logFile,
+                Long.getLong("library.log.max_bytes", 10L * 1024 * 1024),
+                Integer.getInteger("library.log.max_files", 5)));
+        if (Boolean.parseBoolean(System.getProperty("library.journal.enabled", "true"))) {
+            openJournal();
+        }
+
+        writer = new Thread(this::drainLoop, "library-event-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "library-event-shutdown"));
+    }
 
     public static LibraryLogger getInstance() {
-        if (instance == null) {
-            instance = new LibraryLogger();
+        return INSTANCE;
+    }
+
+    // The circulation journal is optional: without it events still reach the log file
+    private void openJournal() {
+        Path directory = Path.of(System.getProperty("library.journal.dir", "journal"));
+        try {
+            listeners.add(new CirculationJournal(directory,
+                    Long.getLong("library.journal.segment_bytes", 64L * 1024 * 1024)));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("❌ Circulation journal disabled, could not open " + directory + ": " + e.getMessage());
         }
-        return instance;
     }
 
+    // ==================== PUBLISHING ====================
+
     public void logBookIssue(Transaction transaction) {
-        System.out.println("[" + LocalDateTime.now() + "] Book Issued: " +
-                transaction.getBook().getTitle() + " to " +
-                transaction.getMember().getName());
+        publish(LibraryEvent.Type.BOOK_ISSUED, transaction);
     }
 
+    // A late return also publishes FINE_ASSESSED
     public void logBookReturn(Transaction transaction) {
-        System.out.println("[" + LocalDateTime.now() + "] Book Returned: " +
-                transaction.getBook().getTitle() +
-                " | Fine: ₹" + transaction.getFineAmount());
+        publish(LibraryEvent.Type.BOOK_RETURNED, transaction);
+        if (transaction.getFineAmount() != null && transaction.getFineAmount() > 0) {
+            publish(LibraryEvent.Type.FINE_ASSESSED, transaction);
+        }
+    }
+
+    private void publish(LibraryEvent.Type type, Transaction transaction) {
+        long sequence = buffer.claim(overflowPolicy == OverflowPolicy.BLOCK);
+        if (sequence < 0) {
+            dropped.increment();
+            return;
+        }
+        LibraryEvent event = buffer.slot(sequence);
+        event.clear();
+        try {
+            event.timestamp = System.currentTimeMillis();
+            event.transactionId = id(transaction.getTransactionId());
+            event.fine = transaction.getFineAmount() != null ? transaction.getFineAmount() : 0;
+            event.dueDate = transaction.getDueDate();
+
+            // Names only if already loaded: logging must not trigger a lazy fetch
+            Book book = transaction.getBook();
+            if (book != null) {
+                event.bookId = id(book.getBookId());
+                if (Hibernate.isInitialized(book)) {
+                    event.bookTitle = book.getTitle();
+                    event.bookCategory = book.getCategory();
+                }
+            }
+            Member member = transaction.getMember();
+            if (member != null) {
+                event.memberId = id(member.getMemberId());
+                event.memberName = Hibernate.isInitialized(member) ? member.getName() : null;
+            }
+            event.type = type;
+        } finally {
+            // Always publish a claimed slot (an event left without a type is skipped)
+            buffer.publish(sequence);
+        }
+    }
+
+    private static long id(Long id) {
+        return id != null ? id : 0;
+    }
+
+    // ==================== LISTENERS ====================
+
+    public void addListener(LibraryEventListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(LibraryEventListener listener) {
+        listeners.remove(listener);
+    }
+
+    // Events discarded because the buffer was full (DROP policy) or the logger was shut down
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    // ==================== WRITER THREAD ====================
+
+    private void drainLoop() {
+        while (running || buffer.hasPending()) {
+            int count = buffer.drain(dispatcher, MAX_BATCH);
+            if (count > 0) {
+                for (LibraryEventListener listener : listeners) {
+                    try {
+                        listener.onBatchEnd();
+                    } catch (RuntimeException e) {
+                        System.err.println("❌ Event listener failed: " + e.getMessage());
+                    }
+                }
+            } else if (running) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            } else {
+                // Shut down with a claimed slot that was never published
+                break;
+            }
+        }
+        for (LibraryEventListener listener : listeners) {
+            try {
+                listener.onClose();
+            } catch (RuntimeException e) {
+                System.err.println("❌ Event listener failed to close: " + e.getMessage());
+            }
+        }
+    }
+
+    private void dispatch(LibraryEvent event) {
+        if (event.type == null) {
+            return;
+        }
+        for (LibraryEventListener listener : listeners) {
+            try {
+                listener.onEvent(event);
+            } catch (RuntimeException e) {
+                System.err.println("❌ Event listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stops accepting events, writes out everything already published and
+     * closes the listeners. Safe to call more than once.
+     */
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        buffer.close();
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,169 @@
+package com.library.util;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.service.spi.Configurable;
+import org.hibernate.service.spi.Stoppable;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded JDBC connection pool (HikariCP) plugged into Hibernate.
+ * Replaces the built-in hibernate.connection.pool_size pool and records
+ * how long callers wait to acquire a connection.
+ *
+ * Tuned through "library.pool.*" properties (see hibernate.cfg.xml).
+ */
+public class PooledConnectionProvider implements ConnectionProvider, Configurable, Stoppable {
+
+    public static final String MAX_SIZE = "library.pool.max_size";
+    public static final String MIN_IDLE = "library.pool.min_idle";
+    public static final String ACQUIRE_TIMEOUT_MS = "library.pool.acquire_timeout_ms";
+    public static final String IDLE_TIMEOUT_MS = "library.pool.idle_timeout_ms";
+    public static final String MAX_LIFETIME_MS = "library.pool.max_lifetime_ms";
+    public static final String VALIDATION_TIMEOUT_MS = "library.pool.validation_timeout_ms";
+    public static final String STATEMENT_CACHE_SIZE = "library.pool.statement_cache_size";
+    public static final String STATEMENT_CACHE_PROPERTY = "library.pool.statement_cache_property";
+
+    // ConnectionProvider is Serializable, but a live pool never is: it is not carried over
+    private static final long serialVersionUID = 1L;
+
+    private transient HikariDataSource dataSource;
+
+    // Acquire wait-time metrics
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireWaitNanos = new LongAdder();
+    private final AtomicLong maxAcquireWaitNanos = new AtomicLong();
+    private final LongAdder acquireFailures = new LongAdder();
+
+    @Override
+    public void configure(Map<String, Object> settings) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("library-pool");
+
+        String driver = string(settings, "hibernate.connection.driver_class", null);
+        if (driver != null) {
+            config.setDriverClassName(driver);
+        }
+        config.setJdbcUrl(string(settings, "hibernate.connection.url", null));
+        config.setUsername(string(settings, "hibernate.connection.username", null));
+        config.setPassword(string(settings, "hibernate.connection.password", null));
+        config.setAutoCommit(false);
+
+        config.setMaximumPoolSize(integer(settings, MAX_SIZE, 10));
+        config.setMinimumIdle(integer(settings, MIN_IDLE, 2));
+        config.setConnectionTimeout(integer(settings, ACQUIRE_TIMEOUT_MS, 5000));
+        config.setIdleTimeout(integer(settings, IDLE_TIMEOUT_MS, 600_000));
+        config.setMaxLifetime(integer(settings, MAX_LIFETIME_MS, 1_800_000));
+        config.setValidationTimeout(integer(settings, VALIDATION_TIMEOUT_MS, 3000));
+        config.setRegisterMbeans(true);
+
+        // Prepared-statement caching is done by the driver, the property name is driver specific
+        String cacheProperty = string(settings, STATEMENT_CACHE_PROPERTY, "oracle.jdbc.implicitStatementCacheSize");
+        int cacheSize = integer(settings, STATEMENT_CACHE_SIZE, 50);
+        if (cacheProperty != null && !cacheProperty.isBlank() && cacheSize > 0) {
+            config.addDataSourceProperty(cacheProperty, String.valueOf(cacheSize));
+        }
+
+        dataSource = new HikariDataSource(config);
+        System.out.println("✅ Connection pool started (max " + config.getMaximumPoolSize() + " connections)");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException e) {
+            acquireFailures.increment();
+            throw e;
+        } finally {
+            long waited = System.nanoTime() - start;
+            acquireCount.increment();
+            acquireWaitNanos.add(waited);
+            maxAcquireWaitNanos.accumulateAndGet(waited, Math::max);
+        }
+    }
+
+    @Override
+    public void closeConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public void stop() {
+        if (dataSource != null && !dataSource.isClosed()) {
+            dataSource.close();
+            System.out.println("✅ Connection pool closed.");
+        }
+    }
+
+    public PoolStats getStats() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        long count = acquireCount.sum();
+        return new PoolStats(
+                pool.getActiveConnections(),
+                pool.getIdleConnections(),
+                pool.getTotalConnections(),
+                pool.getThreadsAwaitingConnection(),
+                count,
+                acquireFailures.sum(),
+                count == 0 ? 0 : acquireWaitNanos.sum() / count / 1000,
+                maxAcquireWaitNanos.get() / 1000
+        );
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> unwrapType) {
+        return unwrapType.isInstance(this) || unwrapType.isInstance(dataSource);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (unwrapType.isInstance(this)) {
+            return (T) this;
+        }
+        if (unwrapType.isInstance(dataSource)) {
+            return (T) dataSource;
+        }
+        throw new IllegalArgumentException("Cannot unwrap to " + unwrapType.getName());
+    }
+
+    private static String string(Map<String, Object> settings, String key, String defaultValue) {
+        Object value = settings.get(key);
+        return value != null ? value.toString().trim() : defaultValue;
+    }
+
+    private static int integer(Map<String, Object> settings, String key, int defaultValue) {
+        Object value = settings.get(key);
+        return value != null ? Integer.parseInt(value.toString().trim()) : defaultValue;
+    }
+
+    /**
+     * Point-in-time view of the pool. Wait times are in microseconds.
+     */
+    public record PoolStats(int active, int idle, int total, int waitingThreads,
+                            long acquired, long acquireFailures,
+                            long avgWaitMicros, long maxWaitMicros) {
+
+        @Override
+        public String toString() {
+            return "Pool{active=" + active + ", idle=" + idle + ", total=" + total +
+                    ", waiting=" + waitingThreads + ", acquired=" + acquired +
+                    ", failures=" + acquireFailures + ", avgWait=" + avgWaitMicros +
+                    "us, maxWait=" + maxWaitMicros + "us}";
+        }
+    }
+}
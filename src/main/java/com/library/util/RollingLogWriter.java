@@ -0,0 +1,145 @@
+package com.library.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Writes events to an append-only log file, one line per event:
+ *
+ *   2026-03-02T10:15:30.125 BOOK_RETURNED txn=42 book=7 member=3 fine=10.0 title="Clean Code"
+ *
+ * The file is flushed once per batch. When it reaches maxBytes it is
+ * renamed to library.log.1 (older files shift to .2, .3, ...) and a new
+ * file is started; at most maxFiles files are kept.
+ */
+public class RollingLogWriter implements LibraryEventListener {
+
+    private final Path file;
+    private final long maxBytes;
+    private final int maxFiles;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final StringBuilder line = new StringBuilder(256);
+
+    private Writer out;
+    private long size;
+
+    // Events come in bursts within the same millisecond; format its timestamp once
+    private long lastTimestamp = Long.MIN_VALUE;
+    private String lastTimestampText;
+
+    public RollingLogWriter(Path file, long maxBytes, int maxFiles) {
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.maxFiles = Math.max(1, maxFiles);
+    }
+
+    @Override
+    public void onEvent(LibraryEvent event) {
+        line.setLength(0);
+        line.append(timestamp(event.getTimestamp()))
+                .append(' ').append(event.getType())
+                .append(" txn=").append(event.getTransactionId())
+                .append(" book=").append(event.getBookId())
+                .append(" member=").append(event.getMemberId())
+                .append(" fine=").append(event.getFine());
+        appendQuoted(" title=", event.getBookTitle());
+        appendQuoted(" member_name=", event.getMemberName());
+        line.append('\n');
+
+        try {
+            if (out == null || size >= maxBytes) {
+                roll();
+            }
+            out.append(line);
+            size += line.length();
+        } catch (IOException e) {
+            System.err.println("❌ Could not write library log " + file + ": " + e.getMessage());
+            closeQuietly();
+        }
+    }
+
+    @Override
+    public void onBatchEnd() {
+        if (out != null) {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                System.err.println("❌ Could not flush library log " + file + ": " + e.getMessage());
+                closeQuietly();
+            }
+        }
+    }
+
+    @Override
+    public void onClose() {
+        onBatchEnd();
+        closeQuietly();
+    }
+
+    private String timestamp(long millis) {
+        if (millis != lastTimestamp) {
+            lastTimestamp = millis;
+            lastTimestampText = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone).toString();
+        }
+        return lastTimestampText;
+    }
+
+    private void appendQuoted(String key, String value) {
+        if (value == null) {
+            return;
+        }
+        line.append(key).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\');
+            }
+            line.append(c == '\n' || c == '\r' ? ' ' : c);
+        }
+        line.append('"');
+    }
+
+    // Opens the log, first rotating the current file out if it is full
+    private void roll() throws IOException {
+        closeQuietly();
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        if (Files.exists(file) && Files.size(file) >= maxBytes) {
+            if (maxFiles == 1) {
+                Files.delete(file);
+            } else {
+                Files.deleteIfExists(rotated(maxFiles - 1));
+                for (int i = maxFiles - 2; i >= 1; i--) {
+                    if (Files.exists(rotated(i))) {
+                        Files.move(rotated(i), rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+                Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        out = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        size = Files.size(file);
+    }
+
+    private Path rotated(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    private void closeQuietly() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException ignored) {
+                // Nothing more can be done with a broken log file
+            }
+            out = null;
+        }
+    }
+}
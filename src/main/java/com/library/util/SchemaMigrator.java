@@ -0,0 +1,195 @@
+package com.library.util;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Applies versioned SQL scripts the database has not seen yet.
+ *
+ * Scripts live on the classpath under db/migration/{vendor}/ (oracle, h2)
+ * and are listed in MIGRATIONS in version order. Each applied version is
+ * recorded in the schema_migrations table, so every script runs once per
+ * database. Version 1 is the schema created by database/setup.sql (or by
+ * Hibernate from the entities) and has no script.
+ *
+ * Oracle commits each DDL statement on its own, so a script that fails
+ * halfway leaves its first indexes behind while the version stays
+ * unrecorded. A CREATE INDEX whose index already exists is therefore
+ * skipped, and the rerun completes the script.
+ *
+ * Run by HibernateUtil once the SessionFactory is up; disable with
+ * -Dlibrary.schema.migrate=false.
+ */
+public class SchemaMigrator {
+
+    // "V{version}__{description}", without the .sql extension
+    private static final String[] MIGRATIONS = {
+            "V2__circulation_indexes",
+            "V3__transaction_date_indexes",
+            "V4__reservation_indexes"
+    };
+
+    private static final String HISTORY_TABLE = "schema_migrations";
+
+    // CREATE [UNIQUE] INDEX name ON table ...
+    private static final Pattern CREATE_INDEX =
+            Pattern.compile("(?i)^CREATE\\s+(?:UNIQUE\\s+)?INDEX\\s+(\\w+)\\s+ON\\s+(\\w+)");
+
+    private SchemaMigrator() {}
+
+    public static void migrate(SessionFactory sessionFactory) {
+        try (Session session = sessionFactory.openSession()) {
+            session.doWork(SchemaMigrator::migrate);
+        } catch (RuntimeException e) {
+            System.err.println("❌ Schema migration failed: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    private static void migrate(Connection connection) throws SQLException {
+        String vendor = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+        if (SchemaMigrator.class.getClassLoader().getResource("db/migration/" + vendor) == null) {
+            System.out.println("Schema migrations skipped: no scripts for " + vendor);
+            return;
+        }
+
+        ensureHistoryTable(connection);
+        Set<Integer> applied = appliedVersions(connection);
+        for (String migration : MIGRATIONS) {
+            int version = Integer.parseInt(migration.substring(1, migration.indexOf("__")));
+            if (applied.contains(version)) {
+                continue;
+            }
+            String description = migration.substring(migration.indexOf("__") + 2).replace('_', ' ');
+            long started = System.nanoTime();
+            try {
+                runScript(connection, "db/migration/" + vendor + "/" + migration + ".sql");
+                record(connection, version, description, (System.nanoTime() - started) / 1_000_000);
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw new IllegalStateException("Migration " + migration + " failed: " + e.getMessage(), e);
+            }
+            System.out.println("✅ Applied schema migration " + migration);
+        }
+    }
+
+    private static void ensureHistoryTable(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String table = metaData.storesLowerCaseIdentifiers() ? HISTORY_TABLE : HISTORY_TABLE.toUpperCase(Locale.ROOT);
+        try (ResultSet tables = metaData.getTables(null, connection.getSchema(), table, new String[]{"TABLE"})) {
+            if (tables.next()) {
+                return;
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE " + HISTORY_TABLE + " ("
+                    + "version INTEGER PRIMARY KEY, "
+                    + "description VARCHAR(200) NOT NULL, "
+                    + "installed_on TIMESTAMP NOT NULL, "
+                    + "execution_ms INTEGER)");
+        }
+        connection.commit();
+    }
+
+    private static Set<Integer> appliedVersions(Connection connection) throws SQLException {
+        Set<Integer> versions = new HashSet<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT version FROM " + HISTORY_TABLE)) {
+            while (rows.next()) {
+                versions.add(rows.getInt(1));
+            }
+        }
+        return versions;
+    }
+
+    private static void record(Connection connection, int version, String description, long millis) throws SQLException {
+        String sql = "INSERT INTO " + HISTORY_TABLE + " (version, description, installed_on, execution_ms) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, version);
+            statement.setString(2, description);
+            statement.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+            statement.setLong(4, millis);
+            statement.executeUpdate();
+        }
+    }
+
+    private static void runScript(Connection connection, String resource) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : statements(resource)) {
+                Matcher index = CREATE_INDEX.matcher(sql);
+                if (index.find() && indexExists(connection, index.group(2), index.group(1))) {
+                    System.out.println("Index " + index.group(1) + " already exists, skipped");
+                    continue;
+                }
+                statement.execute(sql);
+            }
+        }
+    }
+
+    private static boolean indexExists(Connection connection, String table, String index) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String tableName = metaData.storesLowerCaseIdentifiers()
+                ? table.toLowerCase(Locale.ROOT) : table.toUpperCase(Locale.ROOT);
+        // approximate: no statistics gathering (Oracle would ANALYZE the table)
+        try (ResultSet indexes = metaData.getIndexInfo(null, connection.getSchema(), tableName, false, true)) {
+            while (indexes.next()) {
+                if (index.equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Statements of a script: "--" comment lines dropped, split on a ";" ending a line
+    private static List<String> statements(String resource) {
+        String script;
+        try (InputStream in = SchemaMigrator.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Migration script not found on classpath: " + resource);
+            }
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read " + resource, e);
+        }
+
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : script.split("\r?\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                continue;
+            }
+            if (trimmed.endsWith(";")) {
+                current.append(trimmed, 0, trimmed.length() - 1);
+                statements.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(trimmed).append(' ');
+            }
+        }
+        if (!current.isEmpty()) {
+            statements.add(current.toString().trim());
+        }
+        return statements;
+    }
+}
@@ -0,0 +1,6 @@
+-- V2 for the embedded H2 database (benchmarks, local runs).
+-- H2 has no function-based indexes, so the LOWER(...) indexes are left out.
+
+CREATE INDEX idx_txn_status_due ON Transactions (status, due_date);
+CREATE INDEX idx_txn_member_status ON Transactions (member_id, status);
+CREATE INDEX idx_txn_book ON Transactions (book_id);
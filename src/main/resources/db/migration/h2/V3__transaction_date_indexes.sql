@@ -0,0 +1,4 @@
+-- V3 for the embedded H2 database (benchmarks, local runs).
+
+CREATE INDEX idx_txn_issue_date ON Transactions (issue_date);
+CREATE INDEX idx_txn_return_date ON Transactions (return_date);
@@ -0,0 +1,5 @@
+-- V4 for the embedded H2 database (benchmarks, local runs).
+
+CREATE INDEX idx_res_status_expiry ON Reservations (status, expiry_date);
+CREATE INDEX idx_res_book ON Reservations (book_id);
+CREATE INDEX idx_res_member ON Reservations (member_id);
@@ -0,0 +1,18 @@
+-- ================================================
+-- V2: Indexes for the circulation query patterns
+-- ================================================
+-- Applied by SchemaMigrator at startup, or by setup.sql for a new database.
+
+-- Active loans and the fine engine's overdue scan: status IN (...) AND due_date < ?
+CREATE INDEX idx_txn_status_due ON Transactions (status, due_date);
+
+-- A member's loans, and their open loans
+CREATE INDEX idx_txn_member_status ON Transactions (member_id, status);
+
+-- Loans of a book (Oracle does not index foreign keys by itself)
+CREATE INDEX idx_txn_book ON Transactions (book_id);
+
+-- Case-insensitive lookups: WHERE LOWER(title) LIKE 'abc%'
+CREATE INDEX idx_books_title_lower ON Books (LOWER(title));
+CREATE INDEX idx_books_author_lower ON Books (LOWER(author));
+CREATE INDEX idx_members_name_lower ON Members (LOWER(name));
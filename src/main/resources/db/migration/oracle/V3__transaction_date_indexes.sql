@@ -0,0 +1,10 @@
+-- ================================================
+-- V3: Indexes for loans by date
+-- ================================================
+-- Applied by SchemaMigrator at startup, or by setup.sql for a new database.
+
+-- Circulation statistics per day and month, and the history sorted by issue date
+CREATE INDEX idx_txn_issue_date ON Transactions (issue_date);
+
+-- Returns and fines collected per day
+CREATE INDEX idx_txn_return_date ON Transactions (return_date);
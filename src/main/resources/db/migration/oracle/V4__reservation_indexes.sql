@@ -0,0 +1,14 @@
+-- ================================================
+-- V4: Indexes for the hold queues
+-- ================================================
+-- The Reservations table comes from setup.sql (or from Hibernate, from the
+-- Reservation entity). Applied by SchemaMigrator at startup, or by setup.sql.
+
+-- Loading the active holds, and the expiry sweep: status = 'READY' AND expiry_date < ?
+CREATE INDEX idx_res_status_expiry ON Reservations (status, expiry_date);
+
+-- Holds on a book (Oracle does not index foreign keys by itself)
+CREATE INDEX idx_res_book ON Reservations (book_id);
+
+-- A member's holds
+CREATE INDEX idx_res_member ON Reservations (member_id);
@@ -0,0 +1,140 @@
+package com.library.service;
+
+import com.library.model.Book;
+import com.library.model.Member;
+import com.library.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Many desks issuing the same title at once: the conditional UPDATE on
+ * available_copies must never hand out more copies than are on the shelf.
+ */
+class IssueBookConcurrencyTest {
+
+    private static final DatabaseService db = DatabaseService.getInstance();
+    private static final AtomicInteger names = new AtomicInteger();
+
+    @Test
+    void lastCopyIsIssuedExactlyOnce() throws Exception {
+        Book book = book(1);
+        int threads = 24;
+        List<Member> members = members(threads);
+
+        List<Future<Boolean>> attempts = race(threads, i -> () -> {
+            try {
+                db.issueBook(book.getBookId(), members.get(i).getMemberId());
+                return true;
+            } catch (RuntimeException e) {
+                return false;
+            }
+        });
+
+        int issued = 0;
+        for (Future<Boolean> attempt : attempts) {
+            issued += attempt.get() ? 1 : 0;
+        }
+        assertEquals(1, issued, "loans issued for the last copy");
+        assertEquals(0, db.getBookById(book.getBookId()).getAvailableCopies());
+        assertEquals(1, loansOf(book));
+    }
+
+    @Test
+    void popularTitleIsNeverOversold() throws Exception {
+        int copies = 5;
+        Book book = book(copies);
+        int threads = 32;
+        int rounds = 10;
+        List<Member> members = members(threads);
+        AtomicInteger lowest = new AtomicInteger(copies);
+
+        long start = System.nanoTime();
+        List<Future<Integer>> desks = race(threads, i -> () -> {
+            int issued = 0;
+            for (int round = 0; round < rounds; round++) {
+                Transaction loan;
+                try {
+                    loan = db.issueBook(book.getBookId(), members.get(i).getMemberId());
+                } catch (RuntimeException e) {
+                    continue;
+                }
+                issued++;
+                lowest.accumulateAndGet(db.getBookById(book.getBookId()).getAvailableCopies(), Math::min);
+                db.returnBook(loan.getTransactionId());
+            }
+            return issued;
+        });
+
+        int issued = 0;
+        for (Future<Integer> desk : desks) {
+            issued += desk.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d issue attempts, %d issued and returned, in %.2f s (%.0f attempts/s)%n",
+                threads * rounds, issued, seconds, threads * rounds / seconds);
+
+        assertTrue(issued > 0, "no loan was issued");
+        assertTrue(lowest.get() >= 0, "available copies went down to " + lowest.get());
+        assertEquals(copies, db.getBookById(book.getBookId()).getAvailableCopies());
+        assertEquals(issued, loansOf(book));
+    }
+
+    // Starts all tasks together and waits for them to finish
+    private static <T> List<Future<T>> race(int threads, IntFunction<Callable<T>> task)
+            throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Callable<T> body = task.apply(i);
+            futures.add(pool.submit(() -> {
+                ready.countDown();
+                go.await();
+                return body.call();
+            }));
+        }
+        ready.await();
+        go.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(2, TimeUnit.MINUTES), "desks did not finish");
+        return futures;
+    }
+
+    private static long loansOf(Book book) {
+        return db.getAllTransactions().stream()
+                .filter(t -> t.getBook().getBookId().equals(book.getBookId()))
+                .count();
+    }
+
+    private static Book book(int copies) {
+        int n = names.incrementAndGet();
+        Book book = new Book("Contended " + n, "Author", "contended-" + n, "Fiction", copies);
+        db.addBook(book);
+        return book;
+    }
+
+    private static List<Member> members(int count) {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String name = "desk-" + names.incrementAndGet();
+            Member member = new Member(name, name + "@test.library", "0", null);
+            db.addMember(member);
+            members.add(member);
+        }
+        return members;
+    }
+}
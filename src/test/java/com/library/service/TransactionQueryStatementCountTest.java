@@ -0,0 +1,81 @@
+package com.library.service;
+
+import com.library.model.Book;
+import com.library.model.Member;
+import com.library.model.Transaction;
+import com.library.util.HibernateUtil;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The loan lists fetch-join book and member: one SQL statement whatever
+ * the number of loans, and the associations usable once the session is
+ * closed (they are lazy by default).
+ */
+class TransactionQueryStatementCountTest {
+
+    private static final DatabaseService db = DatabaseService.getInstance();
+    private static Member borrower;
+
+    @BeforeAll
+    static void seedLoans() {
+        borrower = member("stmt-borrower");
+        for (int i = 0; i < 30; i++) {
+            Book book = new Book("Statement Count " + i, "Author " + i, "stmt-" + i, "Category " + i % 3, 2);
+            db.addBook(book);
+            Member member = i % 2 == 0 ? borrower : member("stmt-" + i);
+            db.issueBook(book.getBookId(), member.getMemberId());
+        }
+    }
+
+    @Test
+    void allTransactionsIsOneStatement() {
+        assertOneStatement(db::getAllTransactions, 30);
+    }
+
+    @Test
+    void activeTransactionsIsOneStatement() {
+        assertOneStatement(db::getActiveTransactions, 30);
+    }
+
+    @Test
+    void transactionsByMemberIsOneStatement() {
+        assertOneStatement(() -> db.getTransactionsByMember(borrower.getMemberId()), 15);
+    }
+
+    @Test
+    void transactionsPageIsOneStatement() {
+        assertOneStatement(() -> db.getTransactionsPage(PageRequest.first(PageSort.TITLE, 25)).items(), 25);
+    }
+
+    private static void assertOneStatement(Supplier<List<Transaction>> query, int atLeast) {
+        Statistics statistics = HibernateUtil.getSessionFactory().getStatistics();
+        HibernateUtil.getSessionFactory().getCache().evictAllRegions();
+        long before = statistics.getPrepareStatementCount();
+
+        List<Transaction> loans = query.get();
+
+        assertEquals(1, statistics.getPrepareStatementCount() - before, "statements for " + loans.size() + " loans");
+        assertTrue(loans.size() >= atLeast, "loans listed: " + loans.size());
+        for (Transaction loan : loans) {
+            // Lazy associations that were not fetched would throw here, outside the session
+            assertTrue(loan.getBook().getTitle() != null && loan.getMember().getName() != null);
+        }
+    }
+
+    private static Member member(String name) {
+        Member member = new Member();
+        member.setName(name);
+        member.setEmail(name + "@test.library");
+        member.setPhone("0");
+        db.addMember(member);
+        return member;
+    }
+}
@@ -0,0 +1,109 @@
+package com.library.util;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The circulation queries use the indexes the migrations add (checked
+ * with H2's EXPLAIN), and a migration that stopped halfway can be run
+ * again.
+ */
+class SchemaMigratorTest {
+
+    private static SessionFactory sessionFactory;
+
+    @BeforeAll
+    static void startDatabase() {
+        sessionFactory = HibernateUtil.getSessionFactory();
+    }
+
+    @Test
+    void overdueScanUsesStatusDueIndex() {
+        assertPlanUses("IDX_TXN_STATUS_DUE", "SELECT * FROM Transactions "
+                + "WHERE status IN ('ISSUED', 'OVERDUE') AND due_date < CURRENT_DATE AND return_date IS NULL");
+    }
+
+    @Test
+    void activeLoansUseStatusDueIndex() {
+        assertPlanUses("IDX_TXN_STATUS_DUE", "SELECT * FROM Transactions WHERE status IN ('ISSUED', 'OVERDUE')");
+    }
+
+    @Test
+    void memberOpenLoansUseMemberStatusIndex() {
+        assertPlanUses("IDX_TXN_MEMBER_STATUS", "SELECT * FROM Transactions WHERE member_id = 1 AND status = 'ISSUED'");
+    }
+
+    @Test
+    void loansPerDayUseIssueDateIndex() {
+        assertPlanUses("IDX_TXN_ISSUE_DATE", "SELECT issue_date, COUNT(*) FROM Transactions "
+                + "WHERE issue_date >= CURRENT_DATE - 30 GROUP BY issue_date");
+    }
+
+    @Test
+    void returnsPerDayUseReturnDateIndex() {
+        assertPlanUses("IDX_TXN_RETURN_DATE", "SELECT * FROM Transactions WHERE return_date >= CURRENT_DATE - 30");
+    }
+
+    @Test
+    void holdExpirySweepUsesStatusExpiryIndex() {
+        assertPlanUses("IDX_RES_STATUS_EXPIRY", "SELECT reservation_id FROM Reservations "
+                + "WHERE status = 'READY' AND expiry_date < CURRENT_DATE");
+    }
+
+    @Test
+    void migrationInterruptedHalfwayCompletesOnRerun() {
+        // As if V2 had failed after its first indexes: two of them exist, one is missing, nothing recorded
+        execute("DROP INDEX idx_txn_book");
+        execute("DELETE FROM schema_migrations WHERE version = 2");
+
+        SchemaMigrator.migrate(sessionFactory);
+
+        assertEquals(1, count("SELECT COUNT(*) FROM schema_migrations WHERE version = 2"));
+        assertEquals(1, count("SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME = 'IDX_TXN_BOOK'"));
+    }
+
+    private static void assertPlanUses(String index, String sql) {
+        String plan = query("EXPLAIN " + sql).toUpperCase(Locale.ROOT);
+        assertTrue(plan.contains("/* PUBLIC." + index + ":"), "expected " + index + " in plan:\n" + plan);
+    }
+
+    private static long count(String sql) {
+        return Long.parseLong(query(sql));
+    }
+
+    private static String query(String sql) {
+        try (Session session = sessionFactory.openSession()) {
+            return session.doReturningWork(connection -> {
+                try (Statement statement = connection.createStatement();
+                     ResultSet rows = statement.executeQuery(sql)) {
+                    rows.next();
+                    return rows.getString(1);
+                }
+            });
+        }
+    }
+
+    private static void execute(String sql) {
+        try (Session session = sessionFactory.openSession()) {
+            session.doWork(connection -> run(connection, sql));
+        }
+    }
+
+    private static void run(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+        connection.commit();
+    }
+}